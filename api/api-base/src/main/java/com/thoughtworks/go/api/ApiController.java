@@ -60,6 +60,7 @@ public abstract class ApiController implements ControllerMethods, SparkControlle
     protected void setContentType(Request req, Response res) {
         res.raw().setCharacterEncoding("utf-8");
         res.type(mimeType);
+        varyByCompactJson(res);
     }
 
     protected String messageJson(String message) {
@@ -22,18 +22,40 @@ import com.thoughtworks.go.api.base.OutputWriter;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
 import com.thoughtworks.go.server.service.result.HttpOperationResult;
 import com.thoughtworks.go.spark.RequestContext;
+import com.thoughtworks.go.spark.spring.ResponseCache;
 import org.apache.commons.codec.digest.DigestUtils;
 import spark.Request;
 import spark.Response;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.Collection;
 import java.util.function.Consumer;
 
 public interface ControllerMethods {
 
     String NOTHING = "";
 
+    /**
+     * Clients which send this header with the value {@code true} get JSON without indentation, written as UTF-8
+     * bytes straight to the response instead of through the response's character writer.
+     */
+    String COMPACT_JSON_HEADER = "X-GoCD-Compact-JSON";
+
+    default boolean wantsCompactJson(Request request) {
+        return "true".equalsIgnoreCase(request.headers(COMPACT_JSON_HEADER));
+    }
+
+    /**
+     * Tells caches that the body and the etag of the response depend on {@link #COMPACT_JSON_HEADER}.
+     */
+    default void varyByCompactJson(Response response) {
+        Collection<String> vary = response.raw().getHeaders("Vary");
+        if (vary == null || vary.stream().noneMatch(value -> value.contains(COMPACT_JSON_HEADER))) {
+            response.raw().addHeader("Vary", COMPACT_JSON_HEADER);
+        }
+    }
+
     default boolean fresh(Request req, String etagFromServer) {
         String etagFromClient = getIfNoneMatch(req);
         if (etagFromClient == null) {
@@ -87,25 +109,40 @@ public interface ControllerMethods {
     }
 
     default String writerForTopLevelObject(Request request, Response response, Consumer<OutputWriter> consumer) throws IOException {
-        new JsonOutputWriter(response.raw().getWriter(), RequestContext.requestContext(request)).forTopLevelObject(consumer);
+        varyByCompactJson(response);
+        if (ResponseCache.isCapturingBody(request)) {
+            return jsonizeAsTopLevelObject(request, consumer);
+        }
+        responseWriter(request, response).forTopLevelObject(consumer);
         return NOTHING;
     }
 
     default String writerForTopLevelArray(Request request, Response response, Consumer<OutputListWriter> consumer) throws IOException {
-        new JsonOutputWriter(response.raw().getWriter(), RequestContext.requestContext(request)).forTopLevelArray(consumer);
+        varyByCompactJson(response);
+        if (ResponseCache.isCapturingBody(request)) {
+            return jsonizeAsTopLevelArray(request, consumer);
+        }
+        responseWriter(request, response).forTopLevelArray(consumer);
         return NOTHING;
     }
 
     default String jsonizeAsTopLevelObject(Request request, Consumer<OutputWriter> consumer) {
         StringWriter writer = new StringWriter(1024);
-        new JsonOutputWriter(writer, RequestContext.requestContext(request)).forTopLevelObject(consumer);
+        new JsonOutputWriter(writer, RequestContext.requestContext(request), wantsCompactJson(request)).forTopLevelObject(consumer);
         return writer.toString();
     }
 
     default String jsonizeAsTopLevelArray(Request request, Consumer<OutputListWriter> consumer) {
         StringWriter writer = new StringWriter(1024);
-        new JsonOutputWriter(writer, RequestContext.requestContext(request)).forTopLevelArray(consumer);
+        new JsonOutputWriter(writer, RequestContext.requestContext(request), wantsCompactJson(request)).forTopLevelArray(consumer);
         return writer.toString();
     }
 
+    private JsonOutputWriter responseWriter(Request request, Response response) throws IOException {
+        if (wantsCompactJson(request)) {
+            return new JsonOutputWriter(response.raw().getOutputStream(), RequestContext.requestContext(request));
+        }
+        return new JsonOutputWriter(response.raw().getWriter(), RequestContext.requestContext(request));
+    }
+
 }
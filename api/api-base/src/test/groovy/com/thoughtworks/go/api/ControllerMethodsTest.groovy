@@ -20,9 +20,10 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
 import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
 import spark.RequestResponseFactory
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat
+import static org.assertj.core.api.Assertions.assertThat
 
 class ControllerMethodsTest {
 
@@ -94,4 +95,20 @@ class ControllerMethodsTest {
       assertThat(controllerMethods.getIfMatch(RequestResponseFactory.create(req))).isEqualTo('foo')
     }
   }
+
+  @Nested
+  class VaryByCompactJson {
+
+    @Test
+    void 'should add the compact json header to vary once, keeping other values'() {
+      def servletResponse = new MockHttpServletResponse()
+      servletResponse.addHeader('Vary', 'Accept-Encoding')
+      def response = RequestResponseFactory.create(servletResponse)
+
+      controllerMethods.varyByCompactJson(response)
+      controllerMethods.varyByCompactJson(response)
+
+      assertThat(servletResponse.getHeaders('Vary')).containsExactly('Accept-Encoding', ControllerMethods.COMPACT_JSON_HEADER)
+    }
+  }
 }
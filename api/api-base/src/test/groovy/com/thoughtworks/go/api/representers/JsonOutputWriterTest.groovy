@@ -285,6 +285,31 @@ class JsonOutputWriterTest {
       .hasMessageContaining("Failed due to an exception.")
   }
 
+  @Test
+  void 'should output compact json when asked to'() {
+    def result = new StringWriter()
+
+    new JsonOutputWriter(result, new TestRequestContext(), true).forTopLevelObject { writer ->
+      writer.add("key1", "value1")
+      writer.addChildList("key2", ["a", "b"])
+    }
+
+    assertThat(result.toString()).isEqualTo('{"key1":"value1","key2":["a","b"]}')
+  }
+
+  @Test
+  void 'should output compact json as utf-8 bytes to a stream'() {
+    def result = new ByteArrayOutputStream()
+
+    new JsonOutputWriter(result, new TestRequestContext()).forTopLevelArray { writer ->
+      writer.value("caf\u00e9")
+      writer.addChild { child -> child.add("key", 1) }
+    }
+
+    assertThat(result.toString("UTF-8")).isEqualTo('["caf\u00e9",{"key":1}]')
+    assertThat(fromJSONArray(result.toString("UTF-8"))).isEqualTo(["caf\u00e9", [key: 1]])
+  }
+
   def OBJECT_MAPPER = JsonMapper.builder().enable(StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION).build()
 
   Object fromJSON(String jsonString) {
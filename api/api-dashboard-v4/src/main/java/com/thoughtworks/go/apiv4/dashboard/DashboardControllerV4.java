@@ -19,8 +19,10 @@ import com.thoughtworks.go.api.ApiController;
 import com.thoughtworks.go.api.ApiVersion;
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper;
 import com.thoughtworks.go.api.util.MessageJson;
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment;
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup;
 import com.thoughtworks.go.server.domain.Username;
@@ -56,6 +58,8 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
     private static final String COOKIE_NAME = "selected_pipelines";
     private static final String SEP_CHAR = "/";
     private static final String VIEW_NAME = "viewName";
+    private static final String SINCE = "since";
+    static final String VERSION_HEADER = "X-GoCD-Dashboard-Version";
 
     private final PipelineSelectionsService pipelineSelectionsService;
     private final GoDashboardService goDashboardService;
@@ -97,6 +101,18 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         final PipelineSelections personalization = pipelineSelectionsService.load(personalizationCookie, userId);
         final DashboardFilter filter = personalization.namedFilter(getViewName(request));
 
+        final Long since = sinceVersion(request);
+        if (since != null) {
+            GoDashboardChanges changes = goDashboardService.changesSince(since, filter, userName);
+            if (changes.isComplete()) {
+                response.header(VERSION_HEADER, Long.toString(changes.version()));
+                return writerForTopLevelObject(request, response, outputWriter ->
+                    DashboardChangesRepresenter.toJSON(outputWriter, changes, userName, personalization.etag())
+                );
+            }
+        }
+
+        final long version = goDashboardService.dashboardVersion();
         final boolean allowEmpty = Toggles.isToggleOn(Toggles.ALLOW_EMPTY_PIPELINE_GROUPS_DASHBOARD) &&
             "true".equalsIgnoreCase(request.queryParams("allowEmpty"));
 
@@ -110,6 +126,7 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         }
 
         setEtagHeader(response, etag);
+        response.header(VERSION_HEADER, Long.toString(version));
 
         return writerForTopLevelObject(request, response, outputWriter ->
             DashboardRepresenter.toJSON(
@@ -127,6 +144,22 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         return DigestUtils.md5Hex(joinWith(SEP_CHAR, username.getUsername(), pipelineSegment, environmentSegment));
     }
 
+    /*
+     * A client which has a version of the dashboard can ask for what changed since then. When those changes are no
+     * longer known, the whole dashboard is sent instead.
+     */
+    private Long sinceVersion(Request request) {
+        final String since = request.queryParams(SINCE);
+        if (isBlank(since)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private String getViewName(Request request) {
         final String viewName = request.queryParams(VIEW_NAME);
         return isBlank(viewName) ? DEFAULT_NAME : viewName;
@@ -0,0 +1,37 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.apiv4.dashboard.representers;
+
+import com.thoughtworks.go.api.base.OutputWriter;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipeline;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.spark.Routes;
+
+public class DashboardChangesRepresenter {
+
+    public static void toJSON(OutputWriter jsonOutputWriter, GoDashboardChanges changes, Username username, String personalizationEtag) {
+        jsonOutputWriter
+                .addLinks(linksWriter -> linksWriter.addLink("self", Routes.Dashboard.SELF)
+                        .addAbsoluteLink("doc", Routes.Dashboard.DOC))
+                .add("_personalization", personalizationEtag)
+                .add("version", changes.version())
+                .addChild("_embedded", childWriter -> childWriter
+                        .addChildList("pipelines", listWriter -> changes.changedPipelines()
+                                .forEach(pipeline -> listWriter.addChild(childItemWriter -> PipelineRepresenter.toJSON(childItemWriter, pipeline, username))))
+                        .addChildList("removed_pipelines", changes.removedPipelines().stream().map(GoDashboardPipeline::name).map(Object::toString).toList()));
+    }
+}
@@ -17,11 +17,13 @@ package com.thoughtworks.go.apiv4.dashboard
 
 import com.thoughtworks.go.api.SecurityTestTrait
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter
 import com.thoughtworks.go.config.security.Permissions
 import com.thoughtworks.go.config.security.permissions.EveryonePermission
 import com.thoughtworks.go.config.security.users.Everyone
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup
 import com.thoughtworks.go.server.domain.user.Filters
@@ -148,6 +150,46 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
           .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([], [], currentUsername(), pipelineSelections.etag()))
       }
 
+      @Test
+      void 'should get only the pipelines which changed since the version asked for'() {
+        loginAsUser()
+
+        def changes = GoDashboardChanges.of(42L, [GoDashboardPipelineMother.dashboardPipeline('pipeline1')], [GoDashboardPipelineMother.dashboardPipeline('pipeline2')])
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.changesSince(eq(40L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(changes)
+
+        getWithApiHeader(controller.controllerPath() + '?since=40')
+
+        assertThatResponse()
+          .isOk()
+          .hasHeader('X-GoCD-Dashboard-Version', '42')
+          .hasBodyWithJsonObject(DashboardChangesRepresenter, changes, currentUsername(), PipelineSelections.ALL.etag())
+        verify(goDashboardService, never()).allPipelineGroupsForDashboard(any(), any(), anyBoolean())
+      }
+
+      @Test
+      void 'should get the whole dashboard when changes since the version asked for are not known'() {
+        loginAsUser()
+
+        def group = pipelineGroup('group1')
+        def env = environment('env1')
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.dashboardVersion()).thenReturn(42L)
+        when(goDashboardService.changesSince(eq(1L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(GoDashboardChanges.unknown(42L))
+        when(goDashboardService.allPipelineGroupsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()), anyBoolean())).thenReturn([group])
+        when(goDashboardService.allEnvironmentsForDashboard(eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn([env])
+
+        getWithApiHeader(controller.controllerPath() + '?since=1')
+
+        assertThatResponse()
+          .isOk()
+          .hasHeader('X-GoCD-Dashboard-Version', '42')
+          .hasBodyWithJsonObject(DashboardRepresenter, new DashboardFor([group], [env], currentUsername(), PipelineSelections.ALL.etag()))
+      }
+
       @Test
       void 'should return 202 no content when dashboard is not processed (on server start)'() {
         when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(false)
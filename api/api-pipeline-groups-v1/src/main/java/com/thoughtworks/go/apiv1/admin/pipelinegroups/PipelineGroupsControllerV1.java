@@ -35,6 +35,7 @@ import com.thoughtworks.go.server.service.PipelineConfigsService;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
 import com.thoughtworks.go.spark.GlobalExceptionMapper;
 import com.thoughtworks.go.spark.Routes;
+import com.thoughtworks.go.spark.spring.ResponseCache;
 import com.thoughtworks.go.spark.spring.SparkSpringController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -55,13 +56,15 @@ public class PipelineGroupsControllerV1 extends ApiController implements SparkSp
     private final PipelineConfigsService pipelineConfigsService;
     private final ApiAuthenticationHelper apiAuthenticationHelper;
     private final EntityHashingService entityHashingService;
+    private final ResponseCache responseCache;
 
     @Autowired
-    public PipelineGroupsControllerV1(PipelineConfigsService pipelineConfigsService, ApiAuthenticationHelper apiAuthenticationHelper, EntityHashingService entityHashingService) {
+    public PipelineGroupsControllerV1(PipelineConfigsService pipelineConfigsService, ApiAuthenticationHelper apiAuthenticationHelper, EntityHashingService entityHashingService, ResponseCache responseCache) {
         super(ApiVersion.v1);
         this.pipelineConfigsService = pipelineConfigsService;
         this.apiAuthenticationHelper = apiAuthenticationHelper;
         this.entityHashingService = entityHashingService;
+        this.responseCache = responseCache;
     }
 
     @Override
@@ -75,10 +78,10 @@ public class PipelineGroupsControllerV1 extends ApiController implements SparkSp
             before("", mimeType, onlyOn(apiAuthenticationHelper::checkAdminUserOrGroupAdminUserAnd403, "GET", "HEAD"));
             before(Routes.PipelineGroupsAdmin.NAME_PATH, mimeType, apiAuthenticationHelper::checkPipelineGroupAdminOfPipelineOrGroupInURLUserAnd403);
 
-            get("", mimeType, this::index);
+            get("", mimeType, responseCache.cached(this::index));
             post("", mimeType, this::create);
 
-            get(Routes.PipelineGroupsAdmin.NAME_PATH, mimeType, this::show);
+            get(Routes.PipelineGroupsAdmin.NAME_PATH, mimeType, responseCache.cached(this::show));
             put(Routes.PipelineGroupsAdmin.NAME_PATH, mimeType, this::update);
             delete(Routes.PipelineGroupsAdmin.NAME_PATH, mimeType, this::destroy);
         });
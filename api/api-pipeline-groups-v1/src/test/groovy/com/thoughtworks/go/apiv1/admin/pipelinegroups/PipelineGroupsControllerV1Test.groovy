@@ -24,13 +24,18 @@ import com.thoughtworks.go.config.BasicPipelineConfigs
 import com.thoughtworks.go.domain.PipelineGroups
 import com.thoughtworks.go.helper.PipelineConfigMother
 import com.thoughtworks.go.server.service.EntityHashingService
+import com.thoughtworks.go.server.service.JobInstanceService
 import com.thoughtworks.go.server.service.PipelineConfigService
 import com.thoughtworks.go.server.service.PipelineConfigsService
+import com.thoughtworks.go.server.service.PluginRoleService
+import com.thoughtworks.go.server.service.StageService
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult
 import com.thoughtworks.go.spark.AdminUserSecurity
 import com.thoughtworks.go.spark.ControllerTrait
 import com.thoughtworks.go.spark.GroupAdminUserSecurity
 import com.thoughtworks.go.spark.SecurityServiceTrait
+import com.thoughtworks.go.spark.spring.ResponseCache
+import com.thoughtworks.go.util.SystemEnvironment
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
@@ -59,7 +64,8 @@ class PipelineGroupsControllerV1Test implements SecurityServiceTrait, Controller
 
   @Override
   PipelineGroupsControllerV1 createControllerInstance() {
-    return new PipelineGroupsControllerV1(pipelineConfigsService, new ApiAuthenticationHelper(securityService, goConfigService), entityHashingService)
+    return new PipelineGroupsControllerV1(pipelineConfigsService, new ApiAuthenticationHelper(securityService, goConfigService), entityHashingService,
+      new ResponseCache(goConfigService, mock(StageService), mock(JobInstanceService), mock(PluginRoleService), new SystemEnvironment()))
   }
 
   @Nested
@@ -36,6 +36,7 @@ import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.HealthStateType;
 import com.thoughtworks.go.spark.GlobalExceptionMapper;
 import com.thoughtworks.go.spark.Routes;
+import com.thoughtworks.go.spark.spring.ResponseCache;
 import com.thoughtworks.go.spark.spring.SparkSpringController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -56,13 +57,15 @@ public class StageInstanceControllerV3 extends ApiController implements SparkSpr
     private final ApiAuthenticationHelper apiAuthenticationHelper;
     private final StageService stageService;
     private final ScheduleService scheduleService;
+    private final ResponseCache responseCache;
 
     @Autowired
-    public StageInstanceControllerV3(ApiAuthenticationHelper apiAuthenticationHelper, StageService stageService, ScheduleService scheduleService) {
+    public StageInstanceControllerV3(ApiAuthenticationHelper apiAuthenticationHelper, StageService stageService, ScheduleService scheduleService, ResponseCache responseCache) {
         super(ApiVersion.v3);
         this.apiAuthenticationHelper = apiAuthenticationHelper;
         this.stageService = stageService;
         this.scheduleService = scheduleService;
+        this.responseCache = responseCache;
     }
 
     @Override
@@ -85,8 +88,8 @@ public class StageInstanceControllerV3 extends ApiController implements SparkSpr
             post(Routes.Stage.TRIGGER_FAILED_JOBS_PATH, mimeType, this::rerunFailedJobs);
             post(Routes.Stage.TRIGGER_SELECTED_JOBS_PATH, mimeType, this::rerunSelectedJobs);
             post(Routes.Stage.CANCEL_STAGE_PATH, mimeType, this::cancelStage);
-            get(Routes.Stage.INSTANCE_V2, mimeType, this::instanceByCounter);
-            get(Routes.Stage.STAGE_HISTORY, mimeType, this::history);
+            get(Routes.Stage.INSTANCE_V2, mimeType, responseCache.cachedUntilBuildsChange(this::instanceByCounter));
+            get(Routes.Stage.STAGE_HISTORY, mimeType, responseCache.cachedUntilBuildsChange(this::history));
         });
     }
 
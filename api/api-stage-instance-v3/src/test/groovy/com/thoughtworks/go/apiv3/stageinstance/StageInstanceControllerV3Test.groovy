@@ -25,6 +25,8 @@ import com.thoughtworks.go.presentation.pipelinehistory.JobHistory
 import com.thoughtworks.go.presentation.pipelinehistory.JobHistoryItem
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModel
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels
+import com.thoughtworks.go.server.service.JobInstanceService
+import com.thoughtworks.go.server.service.PluginRoleService
 import com.thoughtworks.go.server.service.ScheduleService
 import com.thoughtworks.go.server.service.StageService
 import com.thoughtworks.go.server.service.result.HttpOperationResult
@@ -35,6 +37,8 @@ import com.thoughtworks.go.spark.ControllerTrait
 import com.thoughtworks.go.spark.PipelineAccessSecurity
 import com.thoughtworks.go.spark.PipelineGroupOperateUserSecurity
 import com.thoughtworks.go.spark.SecurityServiceTrait
+import com.thoughtworks.go.spark.spring.ResponseCache
+import com.thoughtworks.go.util.SystemEnvironment
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
@@ -66,7 +70,8 @@ class StageInstanceControllerV3Test implements SecurityServiceTrait, ControllerT
 
   @Override
   StageInstanceControllerV3 createControllerInstance() {
-    new StageInstanceControllerV3(new ApiAuthenticationHelper(securityService, goConfigService), stageService, scheduleService)
+    new StageInstanceControllerV3(new ApiAuthenticationHelper(securityService, goConfigService), stageService, scheduleService,
+      new ResponseCache(goConfigService, mock(StageService), mock(JobInstanceService), mock(PluginRoleService), new SystemEnvironment()))
   }
 
   @Nested
@@ -111,6 +111,8 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<String> PLUGIN_GO_PROVIDED_PATH = new GoStringSystemProperty("plugins.go.provided.path", PLUGINS_PATH + FileSystems.getDefault().getSeparator() + "bundled");
     public static final GoSystemProperty<String> PLUGIN_EXTERNAL_PROVIDED_PATH = new GoStringSystemProperty("plugins.external.provided.path", PLUGINS_PATH + FileSystems.getDefault().getSeparator() + "external");
     public static final GoSystemProperty<String> PLUGIN_WORK_DIR = new CachedProperty<>(new GoStringSystemProperty("plugins.work.path", "plugins_work"));
+    public static final GoSystemProperty<Boolean> PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS = new GoBooleanSystemProperty("plugins.work.keep.across.restarts", false);
+    public static final GoSystemProperty<Integer> PLUGIN_EXTRACTION_THREADS = new GoIntSystemProperty("plugins.extraction.threads", 4);
     public static final GoSystemProperty<String> PLUGIN_ACTIVATOR_JAR_PATH = new CachedProperty<>(new GoStringSystemProperty("plugins.activator.jar.path", "lib/go-plugin-activator.jar"));
     public static final GoSystemProperty<String> ALL_PLUGINS_ZIP_PATH = new GoStringSystemProperty("plugins.all.zip.path", new File(PLUGINS_PATH, "go-plugins-all.zip").getAbsolutePath());
     public static final GoSystemProperty<String> ADDONS_PATH = new GoStringSystemProperty("addons.path", "addons");
@@ -129,7 +131,21 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<String> AGENT_EXTRA_PROPERTIES = new GoStringSystemProperty("gocd.agent.extra.properties", "");
     public static final GoSystemProperty<Long> JMS_LISTENER_BACKOFF_TIME_IN_MILLIS = new GoLongSystemProperty("go.jms.listener.backoff.time.in.milliseconds", SECONDS.toMillis(5));
 
+    public static final GoSystemProperty<Boolean> PLUGIN_REQUEST_BULKHEAD_ENABLED = new GoBooleanSystemProperty("go.plugin.request.bulkhead.enabled", false);
+    public static final GoSystemProperty<Integer> PLUGIN_REQUEST_MAX_CONCURRENT_REQUESTS_PER_PLUGIN = new GoIntSystemProperty("go.plugin.request.max.concurrent.per.plugin", 10);
+    public static final GoSystemProperty<Integer> PLUGIN_REQUEST_MAX_QUEUED_REQUESTS_PER_PLUGIN = new GoIntSystemProperty("go.plugin.request.max.queued.per.plugin", 100);
+    public static final GoSystemProperty<Long> PLUGIN_REQUEST_TIMEOUT_IN_MILLIS = new GoLongSystemProperty("go.plugin.request.timeout.millis", MINUTES.toMillis(5));
+    public static final GoSystemProperty<Boolean> PLUGIN_REQUEST_USE_VIRTUAL_THREADS = new GoBooleanSystemProperty("go.plugin.request.virtual.threads", false);
+    public static final GoSystemProperty<Integer> GO_SERVER_SECRETS_CACHE_TTL_IN_SECONDS = new GoIntSystemProperty("go.server.secrets.cache.ttl.in.secs", 0);
+    public static final GoSystemProperty<Integer> GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_TTL_IN_SECONDS = new GoIntSystemProperty("go.server.access.token.verification.cache.ttl.in.secs", 300);
+    public static final GoSystemProperty<Integer> GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_SIZE = new GoIntSystemProperty("go.server.access.token.verification.cache.size", 10_000);
+    public static final GoSystemProperty<Integer> GO_SERVER_HISTORY_COUNT_CACHE_TTL_IN_SECONDS = new GoIntSystemProperty("go.server.history.count.cache.ttl.in.secs", 0);
+    public static final GoSystemProperty<Integer> GO_SERVER_VALUE_STREAM_MAP_CACHE_SIZE = new GoIntSystemProperty("go.server.value.stream.map.cache.size", 0);
+    public static final GoSystemProperty<Boolean> GO_SERVER_PERMISSIONS_INDEX_ENABLED = new GoBooleanSystemProperty("go.server.permissions.index.enabled", false);
+    public static final GoSystemProperty<Integer> GO_SERVER_API_RESPONSE_CACHE_SIZE = new GoIntSystemProperty("go.server.api.response.cache.size", 0);
     public static final GoSystemProperty<Integer> GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_CACHE_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.authorization.extension.calls.cache.timeout.in.secs", 60);
+    public static final GoSystemProperty<Integer> GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_REFRESH_AFTER_IN_SECONDS = new GoIntSystemProperty("go.server.authorization.extension.calls.refresh.after.in.secs", 0);
+    public static final GoSystemProperty<Integer> GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_REFRESH_THREADS = new GoIntSystemProperty("go.server.authorization.extension.calls.refresh.threads", 4);
 
     public static final GoSystemProperty<String> JETTY_XML_FILE_NAME = new GoStringSystemProperty("jetty.xml.file.name", JETTY_XML);
 
@@ -153,7 +169,10 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<Boolean> AUTO_REGISTER_LOCAL_AGENT_ENABLED = new GoBooleanSystemProperty("go.auto.register.local.agent.enabled", true);
 
     public static final GoSystemProperty<Boolean> GO_SERVER_SHALLOW_CLONE = new GoBooleanSystemProperty("go.server.shallowClone", false);
+    public static final GoSystemProperty<Boolean> GO_SERVER_SHARED_GIT_OBJECT_STORE = new GoBooleanSystemProperty("go.server.git.shared.object.store", false);
+    public static final GoSystemProperty<Long> GO_SERVER_SHARED_GIT_FETCH_WINDOW_IN_MILLIS = new GoLongSystemProperty("go.server.git.shared.fetch.window.millis", 0L);
 
+    public static final GoSystemProperty<Integer> GO_SERVER_ELASTIC_AGENT_ASSIGNMENT_DECISION_CACHE_TTL_IN_SECONDS = new GoIntSystemProperty("go.server.elastic.agent.assignment.decision.cache.ttl.in.secs", 0);
     public static final GoSystemProperty<Integer> MAX_PENDING_AGENTS_ALLOWED = new GoIntSystemProperty("max.pending.agents.allowed", 100);
     public static final GoSystemProperty<Boolean> CHECK_AND_REMOVE_DUPLICATE_MODIFICATIONS = new GoBooleanSystemProperty("go.modifications.removeDuplicates", true);
     public static final GoSystemProperty<Boolean> GO_DIAGNOSTICS_MODE = new GoBooleanSystemProperty("go.diagnostics.mode", false);
@@ -178,6 +197,8 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
 
     private static final GoSystemProperty<Boolean> ENABLE_ANALYTICS_ONLY_FOR_ADMINS = new GoBooleanSystemProperty("go.enable.analytics.only.for.admins", false);
     public static final GoSystemProperty<Long> NOTIFICATION_PLUGIN_MESSAGES_TTL_IN_MILLIS = new GoLongSystemProperty("plugins.notification.message.ttl.millis", MINUTES.toMillis(2));
+    public static final GoSystemProperty<Boolean> NOTIFICATION_PLUGIN_COALESCE_AGENT_STATUS = new GoBooleanSystemProperty("plugins.notification.agent.status.coalesce", false);
+    public static final GoSystemProperty<Integer> NOTIFICATION_PLUGIN_MAX_PENDING_MESSAGES = new GoIntSystemProperty("plugins.notification.max.pending.messages", 0);
     public static final GoSystemProperty<Boolean> ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP = new GoBooleanSystemProperty("allow.everyone.to.view.operate.groups.with.no.authorization.setup", false);
 
     public static final GoSystemProperty<Boolean> ENABLE_HSTS_HEADER = new GoBooleanSystemProperty("gocd.enable.hsts.header", false);
@@ -344,6 +344,31 @@ public class CommandLine {
         return result;
     }
 
+    /**
+     * Like {@link #runOrBomb(ProcessTag, String...)}, but hands each line of standard output to {@code stdOutConsumer}
+     * as it is read rather than collecting it, so memory use does not grow with the size of the output. The consumer
+     * is called on the pumping thread, so a slow consumer holds the process back through its output pipe. Only
+     * standard error is kept on the returned result.
+     */
+    public ConsoleResult runOrBombStreaming(StreamConsumer stdOutConsumer, ProcessTag processTag, String... input) {
+        LOG.debug("Running {}", this);
+        addInput(input);
+        FailFastConsumer output = new FailFastConsumer(stdOutConsumer);
+        InMemoryConsumer errors = new InMemoryConsumer();
+        ProcessWrapper process = execute(new ProcessOutputStreamConsumer<>(output, errors), new EnvironmentVariableContext(), processTag);
+        int returnValue = process.waitForExit();
+
+        ConsoleResult result = new ConsoleResult(returnValue, List.of(), errors.asList(), arguments, secrets);
+
+        if (result.failed()) {
+            throw new CommandLineException(this, result);
+        }
+        if (output.failure != null) {
+            throw result.redactFrom(output.failure);
+        }
+        return result;
+    }
+
     public int run(ConsoleOutputStreamConsumer outputStreamConsumer, ProcessTag processTag, String... input) {
         LOG.debug("Running {}", this);
         addInput(input);
@@ -394,6 +419,31 @@ public class CommandLine {
         return args.toArray(new String[0]);
     }
 
+    /**
+     * Remembers the first failure of the wrapped consumer and discards the rest of the output, so that the process
+     * can still run to completion instead of blocking on a pipe nobody reads any more.
+     */
+    private static class FailFastConsumer implements StreamConsumer {
+        private final StreamConsumer delegate;
+        private volatile RuntimeException failure;
+
+        private FailFastConsumer(StreamConsumer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void consumeLine(String line) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                delegate.consumeLine(line);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+    }
+
     // throws an exception if the specified working directory is non null
     // and not a valid working directory
     private void checkWorkingDir(File dir) {
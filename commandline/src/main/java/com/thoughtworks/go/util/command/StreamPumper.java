@@ -29,13 +29,17 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 public class StreamPumper implements Runnable {
+    // Pumpers spend nearly all of their time blocked reading a pipe, so there is no point tying up a platform thread each
+    private static final ThreadFactory PUMPER_THREADS = Thread.ofVirtual().name("stream-pumper-", 0).factory();
 
     private Reader in;
 
-    private boolean completed;
+    private final CountDownLatch completion = new CountDownLatch(1);
     private final StreamConsumer streamConsumer;
     private final String prefix;
     private long lastHeard;
@@ -61,7 +65,7 @@ public class StreamPumper implements Runnable {
             }
         } catch (Exception ignore) {
         } finally {
-            completed = true;
+            completion.countDown();
         }
     }
 
@@ -78,27 +82,36 @@ public class StreamPumper implements Runnable {
 
 
     public void readToEnd() {
-        while (!completed) {
+        boolean interrupted = false;
+        while (!isCompleted()) {
             try {
-                clock.sleepForMillis(100);
-            } catch (InterruptedException ignored) {
+                completion.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public static StreamPumper pump(InputStream stream, StreamConsumer streamConsumer, String prefix, Charset encoding) {
         StreamPumper pumper = new StreamPumper(stream, streamConsumer, prefix, encoding);
-        new Thread(pumper).start();
+        PUMPER_THREADS.newThread(pumper).start();
         return pumper;
     }
 
+    private boolean isCompleted() {
+        return completion.getCount() == 0;
+    }
+
     private Long timeSinceLastLine(TimeUnit unit) {
         long now = clock.currentTimeMillis();
         return unit.convert(now - lastHeard, TimeUnit.MILLISECONDS);
     }
 
     public boolean didTimeout(long duration, TimeUnit unit) {
-        if (completed) {
+        if (isCompleted()) {
             return false;
         }
         return timeSinceLastLine(unit) > duration;
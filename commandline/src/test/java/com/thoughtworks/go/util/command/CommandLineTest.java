@@ -357,4 +357,31 @@ public class CommandLineTest {
 
         assertThat(output.getAllOutput()).contains("STDERR: ");
     }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldStreamStandardOutputToConsumerWithoutKeepingIt() throws IOException {
+        File file = Files.writeString(temporaryFolder.resolve("test.sh"), "for i in 1 2 3; do echo line$i; done; echo oops >&2", UTF_8).toFile();
+        CommandLine line = CommandLine.createCommandLine("/bin/sh").withArg(file.getAbsolutePath()).withEncoding(UTF_8);
+        InMemoryConsumer lines = new InMemoryConsumer();
+
+        ConsoleResult result = line.runOrBombStreaming(lines, null);
+
+        assertThat(lines.asList()).containsExactly("line1", "line2", "line3");
+        assertThat(result.output()).isEmpty();
+        assertThat(result.error()).containsExactly("STDERR: oops");
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void shouldRunStreamingCommandToCompletionAndRethrowWhenConsumerFails() throws IOException {
+        File file = Files.writeString(temporaryFolder.resolve("test.sh"), "seq 1 100000", UTF_8).toFile();
+        CommandLine line = CommandLine.createCommandLine("/bin/sh").withArg(file.getAbsolutePath()).withEncoding(UTF_8);
+
+        assertThatThrownBy(() -> line.runOrBombStreaming(l -> {
+            throw new IllegalStateException("cannot parse " + l);
+        }, null))
+            .isExactlyInstanceOf(IllegalStateException.class)
+            .hasMessage("cannot parse 1");
+    }
 }
@@ -85,6 +85,16 @@ public class StreamPumperTest {
         assertThat(pumper.didTimeout(1L, TimeUnit.SECONDS)).isFalse();
     }
 
+    @Test
+    public void shouldReturnFromReadToEndAsSoonAsStreamIsExhaustedWhenPumpedOnSharedThreads() {
+        TestConsumer consumer = new TestConsumer();
+        StreamPumper pumper = StreamPumper.pump(new ByteArrayInputStream("line1\nline2".getBytes()), consumer, "", StandardCharsets.UTF_8);
+
+        pumper.readToEnd();
+
+        assertThat(consumer.lines).containsExactly("line1", "line2");
+    }
+
     /**
      * Used by the test to track whether a line actually got consumed or not.
      */
@@ -17,4 +17,7 @@ package com.thoughtworks.go.listener;
 
 public interface PluginRoleChangeListener {
     void onPluginRoleChange();
+
+    default void onPluginRoleChangeFor(String username) {
+    }
 }
@@ -20,6 +20,7 @@ import com.thoughtworks.go.domain.RunIfConfigs;
 import com.thoughtworks.go.domain.builder.Builder;
 import com.thoughtworks.go.domain.config.PluginConfiguration;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.pluggabletask.JobConsoleLoggerInternal;
 import com.thoughtworks.go.plugin.access.pluggabletask.TaskExtension;
 import com.thoughtworks.go.plugin.api.response.execution.ExecutionResult;
@@ -27,6 +28,7 @@ import com.thoughtworks.go.plugin.api.task.*;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.PluginManagerReference;
 import com.thoughtworks.go.util.ReflectionUtil;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.command.EnvironmentVariableContext;
 import com.thoughtworks.go.work.DefaultGoPublisher;
 import org.junit.jupiter.api.AfterEach;
@@ -72,7 +74,7 @@ public class PluggableTaskBuilderTest {
         when(pluggableTask.getPluginConfiguration()).thenReturn(new PluginConfiguration(TEST_PLUGIN_ID, "1.0"));
         Map<String, Map<String, String>> pluginConfig = new HashMap<>();
         when(pluggableTask.configAsMap()).thenReturn(pluginConfig);
-        taskExtension = new TaskExtension(pluginManager, extensionsRegistry);
+        taskExtension = new TaskExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
     }
 
     @AfterEach
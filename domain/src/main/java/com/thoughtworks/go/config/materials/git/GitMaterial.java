@@ -136,6 +136,39 @@ public class GitMaterial extends ScmMaterial implements PasswordAwareMaterial {
         }
     }
 
+    /**
+     * Fetches all branches of this material's repository into a bare repository which may be shared with other
+     * materials pointing to the same URL. Only meant for modification checks on the server; nothing is checked out.
+     */
+    public void fetchIntoSharedRepository(File repositoryDir) {
+        GitCommand gitCommand = new GitCommand(getFingerprint(), repositoryDir, refSpecOrBranch, false, secrets());
+        InMemoryStreamConsumer output = inMemoryConsumer();
+        try {
+            if (!isBareGitRepository(repositoryDir)) {
+                LOG.debug("Invalid shared git repository. Delete folder: {}", repositoryDir);
+                FileUtils.deleteQuietly(repositoryDir);
+                mkdirsParentQuietly(repositoryDir);
+                bombUnless(gitCommand.initBare(output) == 0, "Failed to initialize shared git repository");
+            }
+            gitCommand.fetchAllBranches(output, urlForCommandLine());
+        } catch (Exception e) {
+            throw bomb(e.getMessage() + " " + output.getStdError(), e);
+        }
+    }
+
+    public List<Modification> latestModificationInSharedRepository(File repositoryDir) {
+        return sharedRepositoryGit(repositoryDir).latestFetchedModification();
+    }
+
+    public List<Modification> modificationsSinceInSharedRepository(File repositoryDir, Revision revision) {
+        GitCommand gitCommand = sharedRepositoryGit(repositoryDir);
+        if (gitCommand.containsRevisionInBranch(revision)) {
+            return gitCommand.fetchedModificationsSince(revision);
+        } else {
+            return gitCommand.latestFetchedModification();
+        }
+    }
+
     @Override
     public MaterialInstance createMaterialInstance() {
         return new GitMaterialInstance(url.originalArgument(), userName, refSpecOrBranch, submoduleFolder, UUID.randomUUID().toString());
@@ -397,6 +430,10 @@ public class GitMaterial extends ScmMaterial implements PasswordAwareMaterial {
         return gitCommand;
     }
 
+    private GitCommand sharedRepositoryGit(File repositoryDir) {
+        return new GitCommand(getFingerprint(), repositoryDir, refSpecOrBranch, false, secrets());
+    }
+
     private List<SecretRedactor> secrets() {
         return List.of(redactable -> redactable.next(redactable.value().replace(urlForCommandLine(), getUriForDisplay())));
     }
@@ -428,6 +465,10 @@ public class GitMaterial extends ScmMaterial implements PasswordAwareMaterial {
         return new File(workingFolder, ".git").isDirectory();
     }
 
+    private boolean isBareGitRepository(File repositoryDir) {
+        return new File(repositoryDir, "HEAD").isFile() && new File(repositoryDir, "objects").isDirectory();
+    }
+
     private boolean isRepositoryChanged(GitCommand command, File workingDirectory) {
         UrlArgument currentWorkingUrl = command.workingRepositoryUrl();
         if (LOG.isTraceEnabled()) {
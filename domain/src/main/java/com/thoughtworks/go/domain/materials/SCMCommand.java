@@ -19,6 +19,7 @@ import com.thoughtworks.go.util.MaterialFingerprintTag;
 import com.thoughtworks.go.util.command.CommandLine;
 import com.thoughtworks.go.util.command.ConsoleOutputStreamConsumer;
 import com.thoughtworks.go.util.command.ConsoleResult;
+import com.thoughtworks.go.util.command.StreamConsumer;
 
 public abstract class SCMCommand {
     protected String materialFingerprint;
@@ -35,6 +36,10 @@ public abstract class SCMCommand {
         return commandLine.runOrBomb(new MaterialFingerprintTag(materialFingerprint), input);
     }
 
+    protected ConsoleResult runOrBombStreaming(CommandLine commandLine, StreamConsumer stdOutConsumer, String... input) {
+        return commandLine.runOrBombStreaming(stdOutConsumer, new MaterialFingerprintTag(materialFingerprint), input);
+    }
+
     protected int run(CommandLine commandLine, ConsoleOutputStreamConsumer outputStreamConsumer, String... input) {
         return commandLine.run(outputStreamConsumer, new MaterialFingerprintTag(materialFingerprint), input);
     }
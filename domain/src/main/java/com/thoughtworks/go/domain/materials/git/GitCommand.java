@@ -38,6 +38,7 @@ import java.util.stream.Stream;
 
 import static com.thoughtworks.go.config.materials.git.GitMaterial.UNSHALLOW_TRYOUT_STEP;
 import static com.thoughtworks.go.config.materials.git.RefSpecHelper.REFS_HEADS;
+import static com.thoughtworks.go.config.materials.git.RefSpecHelper.REFS_REMOTES;
 import static com.thoughtworks.go.domain.materials.ModifiedAction.parseGitAction;
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 import static com.thoughtworks.go.util.command.ProcessOutputStreamConsumer.inMemoryConsumer;
@@ -163,6 +164,21 @@ public class GitCommand extends SCMCommand {
         return gitLog("--date=iso-strict", "--no-decorate", "--pretty=medium", "--no-color", format("%s..%s", revision.getRevision(), remoteBranch()));
     }
 
+    /**
+     * Like {@link #latestModification()}, but reads from refs that have already been fetched rather than fetching first.
+     * Used against bare repositories whose fetches are managed (and shared) by the caller.
+     */
+    public List<Modification> latestFetchedModification() {
+        return gitLogWithoutFetch("-1", "--date=iso-strict", "--no-decorate", "--pretty=medium", "--no-color", remoteBranch());
+    }
+
+    /**
+     * Like {@link #modificationsSince(Revision)}, but reads from refs that have already been fetched rather than fetching first.
+     */
+    public List<Modification> fetchedModificationsSince(Revision revision) {
+        return gitLogWithoutFetch("--date=iso-strict", "--no-decorate", "--pretty=medium", "--no-color", format("%s..%s", revision.getRevision(), remoteBranch()));
+    }
+
     public void resetWorkingDir(ConsoleOutputStreamConsumer outputStreamConsumer, Revision revision, boolean shallow) {
         log(outputStreamConsumer, "Reset working directory {}", workingDir);
         cleanAllUnversionedFiles(outputStreamConsumer);
@@ -272,6 +288,29 @@ public class GitCommand extends SCMCommand {
         gc(outputStreamConsumer);
     }
 
+    public int initBare(ConsoleOutputStreamConsumer outputStreamConsumer) {
+        log(outputStreamConsumer, "Initializing bare repository {}", workingDir);
+        return run(git().withArgs("init", "--bare", "--quiet").withArg(workingDir.getAbsolutePath()), outputStreamConsumer);
+    }
+
+    /**
+     * Fetches every branch of the repository at {@code url} into {@code refs/remotes/origin/*} in a single operation,
+     * so that any number of materials tracking different branches of the same repository can share one fetch.
+     */
+    public void fetchAllBranches(ConsoleOutputStreamConsumer outputStreamConsumer, String url) {
+        log(outputStreamConsumer, "Fetching all branches");
+        CommandLine gitFetch = gitWd()
+            .withArgs("fetch", "--prune", "--no-tags", "--recurse-submodules=no")
+            .withArg(new UrlArgument(url))
+            .withArg("+" + REFS_HEADS + "*:" + REFS_REMOTES + "origin/*");
+
+        int result = run(gitFetch, outputStreamConsumer);
+        if (result != 0) {
+            throw new RuntimeException(format("git fetch failed for [%s]", new UrlArgument(url).forDisplay()));
+        }
+        gc(outputStreamConsumer);
+    }
+
     // Unshallow a shallow cloned repository with "git fetch --depth n".
     // Special depth 2147483647 (Integer.MAX_VALUE) are treated as infinite -- fully unshallow
     // https://git-scm.com/docs/git-fetch-pack
@@ -411,11 +450,15 @@ public class GitCommand extends SCMCommand {
             throw new RuntimeException(format("Working directory: %s\n%s", workingDir, outputStreamConsumer.getStdError()), e);
         }
 
+        return gitLogWithoutFetch(args);
+    }
+
+    private List<Modification> gitLogWithoutFetch(String... args) {
         CommandLine gitCmd = gitWd().withArg("log").withArgs(args);
-        ConsoleResult result = runOrBomb(gitCmd);
 
         GitModificationParser parser = new GitModificationParser();
-        List<Modification> mods = parser.parse(result.output());
+        runOrBombStreaming(gitCmd, parser);
+        List<Modification> mods = parser.getModifications();
         for (Modification mod : mods) {
             addModifiedFiles(mod);
         }
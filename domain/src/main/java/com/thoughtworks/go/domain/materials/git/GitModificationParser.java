@@ -17,6 +17,7 @@ package com.thoughtworks.go.domain.materials.git;
 
 import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.util.Dates;
+import com.thoughtworks.go.util.command.StreamConsumer;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -24,7 +25,11 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class GitModificationParser {
+/**
+ * Parses {@code git log --pretty=medium} output. Lines may be fed one at a time as they are produced, so the raw
+ * output of a long history never has to be held in memory.
+ */
+public class GitModificationParser implements StreamConsumer {
     private static final String SPACES = "\\s+";
     private static final String COMMENT_INDENT = "\\s{4}";
     private static final String COMMENT_TEXT = "(.*)";
@@ -49,6 +54,11 @@ public class GitModificationParser {
         return modifications;
     }
 
+    @Override
+    public void consumeLine(String line) {
+        processLine(line);
+    }
+
     public void processLine(String line) {
         Matcher matcher = COMMIT_PATTERN.matcher(line);
         if (matcher.matches()) {
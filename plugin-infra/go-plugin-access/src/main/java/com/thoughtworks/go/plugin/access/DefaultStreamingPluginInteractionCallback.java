@@ -0,0 +1,30 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.access;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+
+public abstract class DefaultStreamingPluginInteractionCallback<T> extends DefaultPluginInteractionCallback<T> implements StreamingPluginInteractionCallback<T> {
+    @Override
+    public T onSuccess(String responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
+        return onSuccess(new StringReader(responseBody), responseHeaders, resolvedExtensionVersion);
+    }
+
+    @Override
+    public abstract T onSuccess(Reader responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion);
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.access;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Understands running requests to a plugin on a bounded set of threads owned by that plugin, so that a plugin which
+ * hangs or slows down only ties up its own threads. When enabled ({@code go.plugin.request.bulkhead.enabled}), a
+ * request which cannot be queued fails straight away and a request which takes longer than the configured timeout
+ * is interrupted. Latencies of requests are recorded per plugin whether or not bulkheads are enabled.
+ * <p>
+ * With bulkheads enabled a request runs on a thread of the plugin rather than the thread which made it. The logging
+ * context (MDC) of the caller is carried over to that thread; no other thread locals of the caller are, so a request
+ * must not rely on them being set.
+ */
+@Component
+public class PluginRequestBulkheads {
+    private static final long[] LATENCY_BUCKETS_IN_MILLIS = {10, 100, 1_000, 10_000, 60_000};
+
+    private final SystemEnvironment systemEnvironment;
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    // requests a plugin makes back into the server while serving a request are not queued behind that request
+    private final ThreadLocal<String> servingPlugin = new ThreadLocal<>();
+
+    @Autowired
+    public PluginRequestBulkheads(SystemEnvironment systemEnvironment) {
+        this.systemEnvironment = systemEnvironment;
+    }
+
+    public <T> T submit(String pluginId, String requestName, Supplier<T> request) {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(pluginId, Bulkhead::new);
+        long startedAt = System.nanoTime();
+        try {
+            if (!systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_BULKHEAD_ENABLED) || pluginId.equals(servingPlugin.get())) {
+                return request.get();
+            }
+            return bulkhead.submit(requestName, request);
+        } finally {
+            bulkhead.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    public Map<String, Map<String, Object>> statistics() {
+        Map<String, Map<String, Object>> statistics = new TreeMap<>();
+        bulkheads.forEach((pluginId, bulkhead) -> statistics.put(pluginId, bulkhead.statistics()));
+        return statistics;
+    }
+
+    private class Bulkhead {
+        private final String pluginId;
+        private final LongAdder[] latencies = new LongAdder[LATENCY_BUCKETS_IN_MILLIS.length + 1];
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private volatile ThreadPoolExecutor executor;
+
+        private Bulkhead(String pluginId) {
+            this.pluginId = pluginId;
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LongAdder();
+            }
+        }
+
+        private <T> T submit(String requestName, Supplier<T> request) {
+            Future<T> result;
+            Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+            try {
+                result = executor().submit(() -> {
+                    servingPlugin.set(pluginId);
+                    if (loggingContext != null) {
+                        MDC.setContextMap(loggingContext);
+                    }
+                    try {
+                        return request.get();
+                    } finally {
+                        MDC.clear();
+                        servingPlugin.remove();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new RuntimeException(format("Plugin with id '%s' is busy serving other requests, could not make request '%s'.", pluginId, requestName), e);
+            }
+
+            long timeout = systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_TIMEOUT_IN_MILLIS);
+            try {
+                return result.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                timedOut.increment();
+                result.cancel(true);
+                throw new RuntimeException(format("Plugin with id '%s' did not respond to request '%s' within %d milliseconds.", pluginId, requestName, timeout), e);
+            } catch (InterruptedException e) {
+                result.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(format("Interrupted while waiting for plugin with id '%s' to respond to request '%s'.", pluginId, requestName), e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        private ThreadPoolExecutor executor() {
+            if (executor == null) {
+                synchronized (this) {
+                    if (executor == null) {
+                        int threads = systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_MAX_CONCURRENT_REQUESTS_PER_PLUGIN);
+                        int queueSize = systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_MAX_QUEUED_REQUESTS_PER_PLUGIN);
+                        ThreadFactory threadFactory = systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_USE_VIRTUAL_THREADS)
+                                ? Thread.ofVirtual().name("plugin-" + pluginId + "-", 0).factory()
+                                : Thread.ofPlatform().name("plugin-" + pluginId + "-", 0).daemon().factory();
+                        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(queueSize, 1)), threadFactory);
+                        pool.allowCoreThreadTimeOut(true);
+                        executor = pool;
+                    }
+                }
+            }
+            return executor;
+        }
+
+        private void record(long millis) {
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_IN_MILLIS.length && millis >= LATENCY_BUCKETS_IN_MILLIS[bucket]) {
+                bucket++;
+            }
+            latencies[bucket].increment();
+        }
+
+        private Map<String, Object> statistics() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < latencies.length; i++) {
+                String label = i < LATENCY_BUCKETS_IN_MILLIS.length ? "< " + LATENCY_BUCKETS_IN_MILLIS[i] + "ms" : ">= " + LATENCY_BUCKETS_IN_MILLIS[i - 1] + "ms";
+                histogram.put(label, latencies[i].sum());
+            }
+
+            ThreadPoolExecutor pool = executor;
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("Latencies", histogram);
+            statistics.put("Active requests", pool == null ? 0 : pool.getActiveCount());
+            statistics.put("Queued requests", pool == null ? 0 : pool.getQueue().size());
+            statistics.put("Rejected requests", rejected.sum());
+            statistics.put("Timed out requests", timedOut.sum());
+            return statistics;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.thoughtworks.go.plugin.api.response.DefaultGoApiResponse;
 import com.thoughtworks.go.plugin.api.response.GoPluginApiResponse;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 
+import java.io.Reader;
 import java.util.List;
 
 import static java.lang.String.format;
@@ -29,11 +30,13 @@ public class PluginRequestHelper {
     private final PluginManager pluginManager;
     private final List<String> goSupportedVersions;
     private final String extensionName;
+    private final PluginRequestBulkheads bulkheads;
 
-    public PluginRequestHelper(PluginManager pluginManager, List<String> goSupportedVersions, String extensionName) {
+    public PluginRequestHelper(PluginManager pluginManager, List<String> goSupportedVersions, String extensionName, PluginRequestBulkheads bulkheads) {
         this.pluginManager = pluginManager;
         this.goSupportedVersions = goSupportedVersions;
         this.extensionName = extensionName;
+        this.bulkheads = bulkheads;
     }
 
     public <T> T submitRequest(String pluginId, String requestName, PluginInteractionCallback<T> pluginInteractionCallback) {
@@ -46,11 +49,16 @@ public class PluginRequestHelper {
             apiRequest.setRequestBody(pluginInteractionCallback.requestBody(resolvedExtensionVersion));
             apiRequest.setRequestParams(pluginInteractionCallback.requestParams(resolvedExtensionVersion));
             apiRequest.setRequestHeaders(pluginInteractionCallback.requestHeaders(resolvedExtensionVersion));
-            GoPluginApiResponse response = pluginManager.submitTo(pluginId, extensionName, apiRequest);
+            GoPluginApiResponse response = bulkheads.submit(pluginId, requestName, () -> pluginManager.submitTo(pluginId, extensionName, apiRequest));
             if (response == null) {
                 throw new RuntimeException("The plugin sent a null response");
             }
             if (DefaultGoApiResponse.SUCCESS_RESPONSE_CODE == response.responseCode()) {
+                if (pluginInteractionCallback instanceof StreamingPluginInteractionCallback<T> streamingCallback) {
+                    try (Reader responseBody = response.responseBodyReader()) {
+                        return streamingCallback.onSuccess(responseBody, response.responseHeaders(), resolvedExtensionVersion);
+                    }
+                }
                 return pluginInteractionCallback.onSuccess(response.responseBody(), response.responseHeaders(), resolvedExtensionVersion);
             }
             pluginInteractionCallback.onFailure(response.responseCode(), response.responseBody(), resolvedExtensionVersion);
@@ -16,7 +16,9 @@
 package com.thoughtworks.go.plugin.access.analytics;
 
 import com.thoughtworks.go.plugin.access.DefaultPluginInteractionCallback;
+import com.thoughtworks.go.plugin.access.DefaultStreamingPluginInteractionCallback;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.PluginRequestHelper;
 import com.thoughtworks.go.plugin.access.analytics.V2.AnalyticsMessageConverterV2;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
@@ -29,6 +31,7 @@ import com.thoughtworks.go.plugin.infra.PluginManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +44,8 @@ public class AnalyticsExtension extends AbstractExtension {
     private final Map<String, AnalyticsMessageConverter> messageHandlerMap = new HashMap<>();
 
     @Autowired
-    public AnalyticsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry) {
-        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, ANALYTICS_EXTENSION), ANALYTICS_EXTENSION);
+    public AnalyticsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, PluginRequestBulkheads bulkheads) {
+        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, ANALYTICS_EXTENSION, bulkheads), ANALYTICS_EXTENSION);
         addHandler(AnalyticsMessageConverterV2.VERSION, new PluginSettingsJsonMessageHandler2_0(), new AnalyticsMessageConverterV2());
     }
 
@@ -61,14 +64,14 @@ public class AnalyticsExtension extends AbstractExtension {
     }
 
     public AnalyticsData getAnalytics(String pluginId, String type, String metricId, Map<String, ?> params) {
-        return pluginRequestHelper.submitRequest(pluginId, REQUEST_GET_ANALYTICS, new DefaultPluginInteractionCallback<>() {
+        return pluginRequestHelper.submitRequest(pluginId, REQUEST_GET_ANALYTICS, new DefaultStreamingPluginInteractionCallback<>() {
             @Override
             public String requestBody(String resolvedExtensionVersion) {
                 return getMessageConverter(resolvedExtensionVersion).getAnalyticsRequestBody(type, metricId, params);
             }
 
             @Override
-            public AnalyticsData onSuccess(String responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
+            public AnalyticsData onSuccess(Reader responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
                 AnalyticsData analyticsData = getMessageConverter(resolvedExtensionVersion).getAnalyticsFromResponseBody(responseBody);
                 analyticsData.setAssetRoot(getCurrentStaticAssetsPath(pluginId));
                 return analyticsData;
@@ -19,6 +19,7 @@ import com.thoughtworks.go.plugin.domain.analytics.AnalyticsData;
 import com.thoughtworks.go.plugin.domain.analytics.Capabilities;
 import com.thoughtworks.go.plugin.domain.common.Image;
 
+import java.io.Reader;
 import java.util.Map;
 
 public interface AnalyticsMessageConverter {
@@ -28,6 +29,8 @@ public interface AnalyticsMessageConverter {
 
     AnalyticsData getAnalyticsFromResponseBody(String responseBody);
 
+    AnalyticsData getAnalyticsFromResponseBody(Reader responseBody);
+
     String getStaticAssetsFromResponseBody(String responseBody);
 
     Image getImageFromResponseBody(String responseBody);
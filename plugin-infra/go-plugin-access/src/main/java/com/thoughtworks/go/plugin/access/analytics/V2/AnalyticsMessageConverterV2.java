@@ -22,6 +22,7 @@ import com.thoughtworks.go.plugin.domain.analytics.AnalyticsData;
 import com.thoughtworks.go.plugin.domain.common.Image;
 import com.thoughtworks.go.util.json.JsonHelper;
 
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -54,6 +55,15 @@ public class AnalyticsMessageConverterV2 implements AnalyticsMessageConverter {
         return analyticsData.toAnalyticsData();
     }
 
+    @Override
+    public AnalyticsData getAnalyticsFromResponseBody(Reader responseBody) {
+        com.thoughtworks.go.plugin.access.analytics.V2.models.AnalyticsData analyticsData = com.thoughtworks.go.plugin.access.analytics.V2.models.AnalyticsData.fromJSON(responseBody);
+
+        analyticsData.validate();
+
+        return analyticsData.toAnalyticsData();
+    }
+
     @Override
     public String getStaticAssetsFromResponseBody(String responseBody) {
         String assets = (String) JsonHelper.fromJson(responseBody, Map.class).get("assets");
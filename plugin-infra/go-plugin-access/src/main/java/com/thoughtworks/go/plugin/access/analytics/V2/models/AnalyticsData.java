@@ -20,6 +20,8 @@ import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import com.thoughtworks.go.util.json.JsonHelper;
 
+import java.io.Reader;
+
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 public class AnalyticsData {
@@ -49,6 +51,10 @@ public class AnalyticsData {
         return JsonHelper.fromJsonExposeOnly(json, AnalyticsData.class);
     }
 
+    public static AnalyticsData fromJSON(Reader json) {
+        return JsonHelper.fromJsonExposeOnly(json, AnalyticsData.class);
+    }
+
     public com.thoughtworks.go.plugin.domain.analytics.AnalyticsData toAnalyticsData() {
         return new com.thoughtworks.go.plugin.domain.analytics.AnalyticsData(data, viewPath);
     }
@@ -20,6 +20,7 @@ import com.thoughtworks.go.domain.ArtifactPlan;
 import com.thoughtworks.go.domain.config.Configuration;
 import com.thoughtworks.go.plugin.access.DefaultPluginInteractionCallback;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.PluginRequestHelper;
 import com.thoughtworks.go.plugin.access.artifact.models.FetchArtifactEnvironmentVariable;
 import com.thoughtworks.go.plugin.access.artifact.models.PublishArtifactResponse;
@@ -47,8 +48,8 @@ public class ArtifactExtension extends AbstractExtension {
     private final Map<String, ArtifactMessageConverter> messageHandlerMap = new HashMap<>();
 
     @Autowired
-    protected ArtifactExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry) {
-        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, ARTIFACT_EXTENSION), ARTIFACT_EXTENSION);
+    protected ArtifactExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, PluginRequestBulkheads bulkheads) {
+        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, ARTIFACT_EXTENSION, bulkheads), ARTIFACT_EXTENSION);
         addHandler(V1, new ArtifactMessageConverterV2(), new PluginSettingsJsonMessageHandler1_0());
         addHandler(V2, new ArtifactMessageConverterV2(), new PluginSettingsJsonMessageHandler1_0());
     }
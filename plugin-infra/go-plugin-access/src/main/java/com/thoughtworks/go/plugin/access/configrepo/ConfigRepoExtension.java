@@ -16,7 +16,9 @@
 package com.thoughtworks.go.plugin.access.configrepo;
 
 import com.thoughtworks.go.plugin.access.DefaultPluginInteractionCallback;
+import com.thoughtworks.go.plugin.access.DefaultStreamingPluginInteractionCallback;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.PluginRequestHelper;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.access.common.settings.PluginSettingsJsonMessageHandler2_0;
@@ -31,6 +33,7 @@ import com.thoughtworks.go.plugin.infra.PluginManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.Reader;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -52,8 +55,8 @@ public class ConfigRepoExtension extends AbstractExtension implements ConfigRepo
     private final Map<String, JsonMessageHandler> messageHandlerMap = new HashMap<>();
 
     @Autowired
-    public ConfigRepoExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry) {
-        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, goSupportedVersions, CONFIG_REPO_EXTENSION), CONFIG_REPO_EXTENSION);
+    public ConfigRepoExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, PluginRequestBulkheads bulkheads) {
+        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, goSupportedVersions, CONFIG_REPO_EXTENSION, bulkheads), CONFIG_REPO_EXTENSION);
 
         registerHandler("3.0", new PluginSettingsJsonMessageHandler2_0());
         messageHandlerMap.put("3.0", new JsonMessageHandler3_0(new GsonCodec(), new ConfigRepoMigrator()));
@@ -101,14 +104,14 @@ public class ConfigRepoExtension extends AbstractExtension implements ConfigRepo
 
     @Override
     public CRParseResult parseDirectory(String pluginId, final String destinationFolder, final Collection<CRConfigurationProperty> configurations) {
-        return pluginRequestHelper.submitRequest(pluginId, REQUEST_PARSE_DIRECTORY, new DefaultPluginInteractionCallback<>() {
+        return pluginRequestHelper.submitRequest(pluginId, REQUEST_PARSE_DIRECTORY, new DefaultStreamingPluginInteractionCallback<>() {
             @Override
             public String requestBody(String resolvedExtensionVersion) {
                 return messageHandlerMap.get(resolvedExtensionVersion).requestMessageForParseDirectory(destinationFolder, configurations);
             }
 
             @Override
-            public CRParseResult onSuccess(String responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
+            public CRParseResult onSuccess(Reader responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
                 return messageHandlerMap.get(resolvedExtensionVersion).responseMessageForParseDirectory(responseBody);
             }
         });
@@ -116,14 +119,14 @@ public class ConfigRepoExtension extends AbstractExtension implements ConfigRepo
 
     @Override
     public CRParseResult parseContent(String pluginId, Map<String, String> content) {
-        return pluginRequestHelper.submitRequest(pluginId, REQUEST_PARSE_CONTENT, new DefaultPluginInteractionCallback<>() {
+        return pluginRequestHelper.submitRequest(pluginId, REQUEST_PARSE_CONTENT, new DefaultStreamingPluginInteractionCallback<>() {
             @Override
             public String requestBody(String resolvedExtensionVersion) {
                 return messageHandlerMap.get(resolvedExtensionVersion).requestMessageForParseContent(content);
             }
 
             @Override
-            public CRParseResult onSuccess(String responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
+            public CRParseResult onSuccess(Reader responseBody, Map<String, String> responseHeaders, String resolvedExtensionVersion) {
                 return messageHandlerMap.get(resolvedExtensionVersion).responseMessageForParseContent(responseBody);
             }
         });
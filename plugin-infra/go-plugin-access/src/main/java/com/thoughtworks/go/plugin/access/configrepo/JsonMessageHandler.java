@@ -21,6 +21,7 @@ import com.thoughtworks.go.plugin.configrepo.contract.CRPipeline;
 import com.thoughtworks.go.plugin.domain.common.Image;
 import com.thoughtworks.go.plugin.domain.configrepo.Capabilities;
 
+import java.io.Reader;
 import java.util.Collection;
 import java.util.Map;
 
@@ -31,8 +32,12 @@ public interface JsonMessageHandler {
 
     CRParseResult responseMessageForParseDirectory(String responseBody);
 
+    CRParseResult responseMessageForParseDirectory(Reader responseBody);
+
     CRParseResult responseMessageForParseContent(String responseBody);
 
+    CRParseResult responseMessageForParseContent(Reader responseBody);
+
     String requestMessageForPipelineExport(CRPipeline pipeline);
 
     ExportedConfig responseMessageForPipelineExport(String responseBody, Map<String, String> headers);
@@ -15,6 +15,8 @@
  */
 package com.thoughtworks.go.plugin.access.configrepo.v3;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.thoughtworks.go.plugin.access.common.models.ImageDeserializer;
 import com.thoughtworks.go.plugin.access.configrepo.ConfigFileList;
 import com.thoughtworks.go.plugin.access.configrepo.ConfigRepoMigrator;
@@ -32,6 +34,11 @@ import com.thoughtworks.go.util.json.JsonHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -39,6 +46,8 @@ import java.util.Map;
 public class JsonMessageHandler3_0 implements JsonMessageHandler {
     public static final int CURRENT_CONTRACT_VERSION = 11;
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonMessageHandler3_0.class);
+    // how much of a streamed response is looked at for 'target_version' before falling back to reading it whole
+    private static final int TARGET_VERSION_LOOKAHEAD = 8 * 1024;
 
     private final GsonCodec codec;
     private final ConfigRepoMigrator migrator;
@@ -132,19 +141,41 @@ public class JsonMessageHandler3_0 implements JsonMessageHandler {
                 }
                 // after migration, json should match contract
                 parseDirectoryResponseMessage = codec.getGson().fromJson(responseBody, ParseDirectoryResponseMessage.class);
-                parseDirectoryResponseMessage.validateResponse(errors);
+                return toParseResult(parseDirectoryResponseMessage, errors);
+            }
+        } catch (Exception ex) {
+            return unexpectedError(ex, errors);
+        }
+    }
 
-                errors.addErrors(parseDirectoryResponseMessage.getPluginErrors());
+    /**
+     * Responses which already match the current contract are parsed straight off the stream. Anything else (older
+     * contract versions needing migration, or a 'target_version' which isn't near the start of the response) is read
+     * whole and handled like a String response.
+     */
+    @Override
+    public CRParseResult responseMessageForParseDirectory(Reader responseBody) {
+        ErrorCollection errors = new ErrorCollection();
+        try {
+            PushbackReader body = new PushbackReader(responseBody, TARGET_VERSION_LOOKAHEAD);
+            char[] head = new char[TARGET_VERSION_LOOKAHEAD];
+            int length = 0;
+            int read;
+            while (length < head.length && (read = body.read(head, length, head.length - length)) != -1) {
+                length += read;
+            }
+            Integer targetVersion = targetVersionIn(head, length);
+            body.unread(head, 0, length);
 
-                return new CRParseResult(parseDirectoryResponseMessage.getEnvironments(), parseDirectoryResponseMessage.getPipelines(), errors);
+            if (targetVersion != null && targetVersion == CURRENT_CONTRACT_VERSION) {
+                return toParseResult(codec.getGson().fromJson(body, ParseDirectoryResponseMessage.class), errors);
             }
+
+            StringWriter wholeBody = new StringWriter();
+            body.transferTo(wholeBody);
+            return responseMessageForParseDirectory(wholeBody.toString());
         } catch (Exception ex) {
-            StringBuilder builder = new StringBuilder();
-            builder.append("Unexpected error when handling plugin response").append('\n');
-            builder.append(ex);
-            errors.addError("Plugin response message", builder.toString());
-            LOGGER.error(builder.toString(), ex);
-            return new CRParseResult(errors);
+            return unexpectedError(ex, errors);
         }
     }
 
@@ -153,6 +184,43 @@ public class JsonMessageHandler3_0 implements JsonMessageHandler {
         return responseMessageForParseDirectory(responseBody);
     }
 
+    @Override
+    public CRParseResult responseMessageForParseContent(Reader responseBody) {
+        return responseMessageForParseDirectory(responseBody);
+    }
+
+    private CRParseResult toParseResult(ParseDirectoryResponseMessage parseDirectoryResponseMessage, ErrorCollection errors) {
+        parseDirectoryResponseMessage.validateResponse(errors);
+
+        errors.addErrors(parseDirectoryResponseMessage.getPluginErrors());
+
+        return new CRParseResult(parseDirectoryResponseMessage.getEnvironments(), parseDirectoryResponseMessage.getPipelines(), errors);
+    }
+
+    private CRParseResult unexpectedError(Exception ex, ErrorCollection errors) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Unexpected error when handling plugin response").append('\n');
+        builder.append(ex);
+        errors.addError("Plugin response message", builder.toString());
+        LOGGER.error(builder.toString(), ex);
+        return new CRParseResult(errors);
+    }
+
+    private static Integer targetVersionIn(char[] head, int length) {
+        try (JsonReader reader = new JsonReader(new CharArrayReader(head, 0, length))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("target_version".equals(reader.nextName())) {
+                    return reader.peek() == JsonToken.NULL ? null : reader.nextInt();
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
     private String migrate(String responseBody, int targetVersion) {
         if (targetVersion > CURRENT_CONTRACT_VERSION) {
             throw new RuntimeException(String.format("Migration to %s is not supported", targetVersion));
@@ -17,6 +17,7 @@ package com.thoughtworks.go.plugin.access.secrets;
 
 import com.thoughtworks.go.config.SecretConfig;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.PluginRequestHelper;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
@@ -44,14 +45,14 @@ public class SecretsExtension extends AbstractExtension {
     private Map<String, VersionedSecretsExtension> secretsExtensionMap = new HashMap<>();
 
     @Autowired
-    public SecretsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry) {
-        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, SECRETS_EXTENSION), SECRETS_EXTENSION);
+    public SecretsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, PluginRequestBulkheads bulkheads) {
+        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, SECRETS_EXTENSION, bulkheads), SECRETS_EXTENSION);
 
         secretsExtensionMap.put(SecretsExtensionV1.VERSION, new SecretsExtensionV1(pluginRequestHelper));
     }
 
-    protected SecretsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, Map<String, VersionedSecretsExtension> secretsExtensionMap) {
-        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, SECRETS_EXTENSION), SECRETS_EXTENSION);
+    protected SecretsExtension(PluginManager pluginManager, ExtensionsRegistry extensionsRegistry, PluginRequestBulkheads bulkheads, Map<String, VersionedSecretsExtension> secretsExtensionMap) {
+        super(pluginManager, extensionsRegistry, new PluginRequestHelper(pluginManager, SUPPORTED_VERSIONS, SECRETS_EXTENSION, bulkheads), SECRETS_EXTENSION);
 
         this.secretsExtensionMap = secretsExtensionMap;
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.plugin.access;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PluginRequestBulkheadsTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SystemEnvironment systemEnvironment;
+    private PluginRequestBulkheads bulkheads;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_BULKHEAD_ENABLED)).thenReturn(true);
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_MAX_CONCURRENT_REQUESTS_PER_PLUGIN)).thenReturn(1);
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_MAX_QUEUED_REQUESTS_PER_PLUGIN)).thenReturn(1);
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_TIMEOUT_IN_MILLIS)).thenReturn(5_000L);
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_USE_VIRTUAL_THREADS)).thenReturn(false);
+        bulkheads = new PluginRequestBulkheads(systemEnvironment);
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldRunRequestsOnTheCallingThreadWhenBulkheadsAreDisabled() {
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_BULKHEAD_ENABLED)).thenReturn(false);
+
+        assertThat(bulkheads.submit("plugin", "request", () -> Thread.currentThread())).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void shouldFailFastOnceAPluginIsSaturatedWithoutAffectingOtherPlugins() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> bulkheads.submit("slow", "hanging", () -> {
+            started.countDown();
+            return awaitRelease();
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        callers.submit(() -> bulkheads.submit("slow", "queued", this::awaitRelease));
+        waitUntil(() -> queued("slow") == 1);
+
+        assertThatCode(() -> bulkheads.submit("slow", "rejected", () -> "never"))
+                .hasMessage("Plugin with id 'slow' is busy serving other requests, could not make request 'rejected'.");
+        assertThat(bulkheads.submit("fast", "request", () -> "done")).isEqualTo("done");
+        assertThat(bulkheads.statistics().get("slow")).containsEntry("Active requests", 1).containsEntry("Rejected requests", 1L);
+    }
+
+    @Test
+    void shouldInterruptARequestWhichTakesLongerThanTheTimeout() {
+        when(systemEnvironment.get(SystemEnvironment.PLUGIN_REQUEST_TIMEOUT_IN_MILLIS)).thenReturn(50L);
+
+        assertThatCode(() -> bulkheads.submit("slow", "hanging", this::awaitRelease))
+                .hasMessage("Plugin with id 'slow' did not respond to request 'hanging' within 50 milliseconds.");
+        assertThat(bulkheads.statistics().get("slow")).containsEntry("Timed out requests", 1L);
+    }
+
+    @Test
+    void shouldRethrowFailuresOfThePluginAndRecordLatencies() {
+        assertThatCode(() -> bulkheads.submit("plugin", "request", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        bulkheads.submit("plugin", "request", () -> "done");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> latencies = (Map<String, Long>) bulkheads.statistics().get("plugin").get("Latencies");
+        assertThat(latencies.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotQueueRequestsAPluginMakesWhileServingARequest() {
+        String nested = bulkheads.submit("plugin", "outer", () -> bulkheads.submit("plugin", "inner", () -> Thread.currentThread().getName()));
+
+        assertThat(nested).startsWith("plugin-plugin-");
+    }
+
+    @Test
+    void shouldCarryTheLoggingContextOfTheCallerOverToThePluginThread() {
+        MDC.put("request", "42");
+        try {
+            assertThat(bulkheads.submit("plugin", "request", () -> MDC.get("request"))).isEqualTo("42");
+        } finally {
+            MDC.remove("request");
+        }
+        assertThat(bulkheads.submit("plugin", "request", () -> MDC.get("request"))).isNull();
+    }
+
+    private String awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+
+    private int queued(String pluginId) {
+        Map<String, Object> statistics = bulkheads.statistics().get(pluginId);
+        return statistics == null ? 0 : (Integer) statistics.get("Queued requests");
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
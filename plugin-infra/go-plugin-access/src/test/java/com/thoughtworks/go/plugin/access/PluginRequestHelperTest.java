@@ -19,6 +19,7 @@ import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
 import com.thoughtworks.go.plugin.api.response.DefaultGoApiResponse;
 import com.thoughtworks.go.plugin.api.response.GoPluginApiResponse;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -41,7 +42,7 @@ public class PluginRequestHelperTest {
     @BeforeEach
     void setup() {
         pluginManager = mock(PluginManager.class);
-        helper = new PluginRequestHelper(pluginManager, List.of("1.0"), extensionName);
+        helper = new PluginRequestHelper(pluginManager, List.of("1.0"), extensionName, new PluginRequestBulkheads(new SystemEnvironment()));
         isSuccessInvoked = new boolean[]{false};
         response = mock(GoPluginApiResponse.class);
         when(pluginManager.isPluginOfType(extensionName, pluginId)).thenReturn(true);
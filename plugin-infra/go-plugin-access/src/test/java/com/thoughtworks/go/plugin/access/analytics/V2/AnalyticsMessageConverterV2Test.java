@@ -20,6 +20,7 @@ import com.thoughtworks.go.util.json.JsonHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -44,6 +45,14 @@ public class AnalyticsMessageConverterV2Test {
         assertEquals("bar.html", actual.getViewPath());
     }
 
+    @Test
+    public void shouldBeAbleToGetAnalyticsDataFromAStreamedResponse() {
+        AnalyticsData actual = converter.getAnalyticsFromResponseBody(new StringReader("{\"data\":\"foo\", \"view_path\":\"bar.html\"}"));
+
+        assertEquals("foo", actual.getData());
+        assertEquals("bar.html", actual.getViewPath());
+    }
+
     @Test
     public void shouldThrowExceptionIfDataKeyIsMissing() {
         String response = "{\"foo\": \"bar\"}";
@@ -16,6 +16,7 @@
 package com.thoughtworks.go.plugin.access.configrepo;
 
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.access.configrepo.v3.JsonMessageHandler3_0;
 import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
@@ -25,6 +26,7 @@ import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
 import com.thoughtworks.go.plugin.configrepo.contract.CRPipeline;
 import com.thoughtworks.go.plugin.domain.configrepo.Capabilities;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +34,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.Reader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +43,7 @@ import java.util.Map;
 import static com.thoughtworks.go.plugin.domain.common.PluginConstants.CONFIG_REPO_EXTENSION;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -65,7 +70,7 @@ public class ConfigRepoExtensionTest {
 
     @BeforeEach
     public void setUp() {
-        extension = new ConfigRepoExtension(pluginManager, extensionsRegistry);
+        extension = new ConfigRepoExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
         extension.getMessageHandlerMap().put("3.0", jsonMessageHandler3);
 
         requestArgumentCaptor = ArgumentCaptor.forClass(GoPluginApiRequest.class);
@@ -86,12 +91,18 @@ public class ConfigRepoExtensionTest {
     @Test
     public void shouldTalkToPluginToGetParsedDirectory() {
         CRParseResult deserializedResponse = new CRParseResult();
-        when(jsonMessageHandler3.responseMessageForParseDirectory(responseBody)).thenReturn(deserializedResponse);
+        List<String> streamedBodies = new ArrayList<>();
+        when(jsonMessageHandler3.responseMessageForParseDirectory(any(Reader.class))).thenAnswer(invocation -> {
+            StringWriter body = new StringWriter();
+            invocation.<Reader>getArgument(0).transferTo(body);
+            streamedBodies.add(body.toString());
+            return deserializedResponse;
+        });
 
         CRParseResult response = extension.parseDirectory(PLUGIN_ID, "dir", null);
 
         assertRequest(requestArgumentCaptor.getValue(), CONFIG_REPO_EXTENSION, "3.0", ConfigRepoExtension.REQUEST_PARSE_DIRECTORY, null);
-        verify(jsonMessageHandler3).responseMessageForParseDirectory(responseBody);
+        assertThat(streamedBodies).containsExactly(responseBody);
         assertSame(response, deserializedResponse);
     }
 
@@ -21,15 +21,18 @@ import com.thoughtworks.go.plugin.configrepo.codec.GsonCodec;
 import com.thoughtworks.go.plugin.configrepo.contract.CRParseResult;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringReader;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class JsonMessageHandler3_0Test {
     private final JsonMessageHandler3_0 handler;
+    private final ConfigRepoMigrator configRepoMigrator;
 
     public JsonMessageHandler3_0Test() {
-        ConfigRepoMigrator configRepoMigrator = mock(ConfigRepoMigrator.class);
+        configRepoMigrator = mock(ConfigRepoMigrator.class);
         handler = new JsonMessageHandler3_0(new GsonCodec(), configRepoMigrator);
     }
 
@@ -74,6 +77,42 @@ public class JsonMessageHandler3_0Test {
                 com.google.gson.JsonSyntaxException"""));
     }
 
+    @Test
+    public void shouldParseAStreamedResponseOfTheCurrentVersionWithoutMigratingIt() {
+        CRParseResult result = handler.responseMessageForParseDirectory(new StringReader("""
+            {
+              "target_version": 11,
+              "environments": [ { "name": "dev" } ],
+              "pipelines": []
+            }"""));
+
+        assertFalse(result.hasErrors());
+        assertThat(result.getEnvironments()).hasSize(1);
+        verifyNoInteractions(configRepoMigrator);
+    }
+
+    @Test
+    public void shouldMigrateAStreamedResponseOfAnOlderVersion() {
+        String responseBody = "{\"target_version\": 10, \"pipelines\": []}";
+        when(configRepoMigrator.migrate(responseBody, 11)).thenReturn("{\"target_version\": 11, \"pipelines\": []}");
+
+        assertFalse(handler.responseMessageForParseDirectory(new StringReader(responseBody)).hasErrors());
+        verify(configRepoMigrator).migrate(responseBody, 11);
+    }
+
+    @Test
+    public void shouldHandleAStreamedResponseWhoseTargetVersionIsFarFromTheStart() {
+        String padding = "x".repeat(20_000);
+
+        assertFalse(handler.responseMessageForParseDirectory(new StringReader("{\"padding\": \"" + padding + "\", \"target_version\": 11}")).hasErrors());
+        assertThat(handler.responseMessageForParseDirectory(new StringReader("{\"padding\": \"" + padding + "\"}")))
+            .satisfies(result -> doesntCorrectlyImplement(result,
+                """
+                Plugin response message;
+                1. missing 'target_version' field
+                """));
+    }
+
     private static void doesntCorrectlyImplement(ConfigFileList result) {
         assertThat(result.hasErrors()).isTrue();
         assertThat(result.getErrors().getErrorCount()).isEqualTo(1);
@@ -17,12 +17,14 @@ package com.thoughtworks.go.plugin.access.elastic;
 
 import com.thoughtworks.go.domain.JobIdentifier;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
 import com.thoughtworks.go.plugin.api.response.DefaultGoPluginApiResponse;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.util.ReflectionUtil;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -52,7 +54,7 @@ public class ElasticAgentExtensionTest {
         extensionsRegistry = mock(ExtensionsRegistry.class);
         requestArgumentCaptor = ArgumentCaptor.forClass(GoPluginApiRequest.class);
         descriptor = mock(GoPluginDescriptor.class);
-        extension = new ElasticAgentExtension(pluginManager, extensionsRegistry);
+        extension = new ElasticAgentExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
 
         when(descriptor.id()).thenReturn(PLUGIN_ID);
 
@@ -89,7 +91,7 @@ public class ElasticAgentExtensionTest {
 
     @Test
     public void shouldExtendAbstractExtension() {
-        assertThat(new ElasticAgentExtension(pluginManager, extensionsRegistry)).isInstanceOf(AbstractExtension.class);
+        assertThat(new ElasticAgentExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()))).isInstanceOf(AbstractExtension.class);
     }
 
     @Test
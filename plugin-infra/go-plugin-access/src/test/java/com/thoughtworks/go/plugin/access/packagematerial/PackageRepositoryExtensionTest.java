@@ -16,6 +16,7 @@
 package com.thoughtworks.go.plugin.access.packagematerial;
 
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.access.common.settings.PluginSettingsConfiguration;
 import com.thoughtworks.go.plugin.access.common.settings.PluginSettingsConstants;
@@ -30,6 +31,7 @@ import com.thoughtworks.go.plugin.api.response.Result;
 import com.thoughtworks.go.plugin.api.response.validation.ValidationError;
 import com.thoughtworks.go.plugin.api.response.validation.ValidationResult;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -72,7 +74,7 @@ public class PackageRepositoryExtensionTest {
 
     @BeforeEach
     public void setUp() {
-        extension = new PackageRepositoryExtension(pluginManager, extensionsRegistry);
+        extension = new PackageRepositoryExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
 
         pluginSettingsConfiguration = new PluginSettingsConfiguration();
 
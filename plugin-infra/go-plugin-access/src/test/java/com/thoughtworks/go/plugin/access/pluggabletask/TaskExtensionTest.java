@@ -16,6 +16,7 @@
 package com.thoughtworks.go.plugin.access.pluggabletask;
 
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.common.AbstractExtension;
 import com.thoughtworks.go.plugin.access.common.settings.PluginSettingsConfiguration;
 import com.thoughtworks.go.plugin.access.common.settings.PluginSettingsConstants;
@@ -32,6 +33,7 @@ import com.thoughtworks.go.plugin.infra.Action;
 import com.thoughtworks.go.plugin.infra.ActionWithReturn;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -62,7 +64,7 @@ public class TaskExtensionTest {
 
     @BeforeEach
     public void setup() {
-        extension = new TaskExtension(pluginManager, extensionsRegistry);
+        extension = new TaskExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
         pluginId = "plugin-id";
         when(pluginManager.resolveExtensionVersion(eq(pluginId), eq(PLUGGABLE_TASK_EXTENSION), any())).thenReturn("1.0");
 
@@ -161,7 +163,7 @@ public class TaskExtensionTest {
     @Test
     public void shouldValidateTask() {
         GoPluginApiResponse response = mock(GoPluginApiResponse.class);
-        TaskExtension jsonBasedTaskExtension = new TaskExtension(pluginManager, extensionsRegistry);
+        TaskExtension jsonBasedTaskExtension = new TaskExtension(pluginManager, extensionsRegistry, new PluginRequestBulkheads(new SystemEnvironment()));
         TaskConfig taskConfig = mock(TaskConfig.class);
 
         when(response.responseCode()).thenReturn(DefaultGoApiResponse.SUCCESS_RESPONSE_CODE);
@@ -17,12 +17,14 @@ package com.thoughtworks.go.plugin.access.secrets;
 
 import com.thoughtworks.go.config.SecretConfig;
 import com.thoughtworks.go.plugin.access.ExtensionsRegistry;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
 import com.thoughtworks.go.plugin.access.secrets.v1.SecretsExtensionV1;
 import com.thoughtworks.go.plugin.domain.secrets.Secret;
 import com.thoughtworks.go.plugin.infra.PluginManager;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.util.ReflectionUtil;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -42,6 +44,7 @@ public class SecretsExtensionTest {
     private static final String PLUGIN_ID = "cd.go.example.plugin";
     protected PluginManager pluginManager;
     private ExtensionsRegistry extensionsRegistry;
+    private final PluginRequestBulkheads bulkheads = new PluginRequestBulkheads(new SystemEnvironment());
     protected GoPluginDescriptor descriptor;
     protected SecretsExtension extension;
 
@@ -50,7 +53,7 @@ public class SecretsExtensionTest {
         pluginManager = mock(PluginManager.class);
         extensionsRegistry = mock(ExtensionsRegistry.class);
         descriptor = mock(GoPluginDescriptor.class);
-        extension = new SecretsExtension(pluginManager, extensionsRegistry);
+        extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads);
 
         when(descriptor.id()).thenReturn(PLUGIN_ID);
         when(pluginManager.getPluginDescriptorFor(PLUGIN_ID)).thenReturn(descriptor);
@@ -75,7 +78,7 @@ public class SecretsExtensionTest {
     void getIcon_shouldDelegateToVersionedExtension() {
         SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
         Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-        extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+        extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
 
         when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
 
@@ -88,7 +91,7 @@ public class SecretsExtensionTest {
     void getSecretsConfigMetadata_shouldDelegateToVersionedExtension() {
         SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
         Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-        extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+        extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
 
         when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
 
@@ -101,7 +104,7 @@ public class SecretsExtensionTest {
     void getSecretsConfigView_shouldDelegateToVersionedExtension() {
         SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
         Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-        extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+        extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
 
         when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
 
@@ -114,7 +117,7 @@ public class SecretsExtensionTest {
     void validateSecretsConfig_shouldDelegateToVersionedExtension() {
         SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
         Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-        extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+        extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
         Map<String, String> configuration = Map.of("key", "val");
 
         when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
@@ -131,7 +134,7 @@ public class SecretsExtensionTest {
             final SecretConfig secretConfig = new SecretConfig("file", "cd.go.secret.file");
             SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
             Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-            extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+            extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
             Set<String> keys = new LinkedHashSet<>(List.of("key1", "key2"));
 
             when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
@@ -151,7 +154,7 @@ public class SecretsExtensionTest {
         void shouldBombIfResolvedSecretContainsAdditionalSecrets() {
             SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
             Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-            extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+            extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
             final Set<String> secretsToLookup = new LinkedHashSet<>(List.of("key1", "key2"));
             final SecretConfig secretConfig = new SecretConfig("file", "cd.go.secret.file");
 
@@ -171,7 +174,7 @@ public class SecretsExtensionTest {
         void shouldBombWhenPluginReturnsPartiallyResolvedSecretParams() {
             SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
             Map<String, VersionedSecretsExtension> secretsExtensionMap = Map.of("1.0", secretsExtensionV1);
-            extension = new SecretsExtension(pluginManager, extensionsRegistry, secretsExtensionMap);
+            extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, secretsExtensionMap);
             final Set<String> secretsToLookup = new LinkedHashSet<>(List.of("key1", "key2", "key3"));
 
             when(pluginManager.resolveExtensionVersion(PLUGIN_ID, SECRETS_EXTENSION, SUPPORTED_VERSIONS)).thenReturn(SecretsExtensionV1.VERSION);
@@ -185,7 +188,7 @@ public class SecretsExtensionTest {
         @Test
         void shouldHandleAndBombIfSecretsResolutionFailsUnexpectedly() {
             SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
-            extension = new SecretsExtension(pluginManager, extensionsRegistry, Map.of("1.0", secretsExtensionV1));
+            extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, Map.of("1.0", secretsExtensionV1));
             final Set<String> secretsToLookup = new LinkedHashSet<>(List.of("key1", "key2"));
             final SecretConfig secretConfig = new SecretConfig("file", "cd.go.secret.file");
 
@@ -200,7 +203,7 @@ public class SecretsExtensionTest {
         @Test
         void shouldRethrowSecretsResolutionFailureExceptionsFromExtension() {
             SecretsExtensionV1 secretsExtensionV1 = mock(SecretsExtensionV1.class);
-            extension = new SecretsExtension(pluginManager, extensionsRegistry, Map.of("1.0", secretsExtensionV1));
+            extension = new SecretsExtension(pluginManager, extensionsRegistry, bulkheads, Map.of("1.0", secretsExtensionV1));
             final Set<String> secretsToLookup = new LinkedHashSet<>(List.of("key1", "key2"));
             final SecretConfig secretConfig = new SecretConfig("file", "cd.go.secret.file");
 
@@ -17,6 +17,7 @@ package com.thoughtworks.go.plugin.access.secrets.v1;
 
 import com.thoughtworks.go.config.SecretConfig;
 import com.thoughtworks.go.domain.packagerepository.ConfigurationPropertyMother;
+import com.thoughtworks.go.plugin.access.PluginRequestBulkheads;
 import com.thoughtworks.go.plugin.access.PluginRequestHelper;
 import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
 import com.thoughtworks.go.plugin.api.request.GoPluginApiRequest;
@@ -28,6 +29,7 @@ import com.thoughtworks.go.plugin.domain.common.Metadata;
 import com.thoughtworks.go.plugin.domain.common.PluginConfiguration;
 import com.thoughtworks.go.plugin.domain.secrets.Secret;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -58,7 +60,7 @@ public class SecretsExtensionV1Test {
 
     @BeforeEach
     void setUp() {
-        PluginRequestHelper pluginRequestHelper = new PluginRequestHelper(pluginManager, List.of("1.0"), SECRETS_EXTENSION);
+        PluginRequestHelper pluginRequestHelper = new PluginRequestHelper(pluginManager, List.of("1.0"), SECRETS_EXTENSION, new PluginRequestBulkheads(new SystemEnvironment()));
         this.requestArgumentCaptor = ArgumentCaptor.forClass(GoPluginApiRequest.class);
         this.secretsExtensionV1 = new SecretsExtensionV1(pluginRequestHelper);
 
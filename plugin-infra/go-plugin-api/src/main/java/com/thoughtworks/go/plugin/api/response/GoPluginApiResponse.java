@@ -15,6 +15,8 @@
  */
 package com.thoughtworks.go.plugin.api.response;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Map;
 
 /**
@@ -43,5 +45,15 @@ public abstract class GoPluginApiResponse {
      * @return response body
      */
     public abstract String responseBody();
-}
 
+    /**
+     * Provides json formatted response body as a stream of characters. Plugins sending large responses may override
+     * this to let Go read the response without first holding it all in memory as a String
+     *
+     * @return response body as a reader
+     */
+    public Reader responseBodyReader() {
+        String responseBody = responseBody();
+        return new StringReader(responseBody == null ? "" : responseBody);
+    }
+}
@@ -35,6 +35,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS;
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_WORK_DIR;
 import static java.lang.Double.parseDouble;
 
@@ -94,7 +95,9 @@ public class DefaultPluginManager implements PluginManager {
 
     @Override
     public void startInfrastructure(boolean shouldPoll) {
-        removeBundleDirectory();
+        if (!systemEnvironment.get(PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS)) {
+            removeBundleDirectory();
+        }
         goPluginOSGiFramework.start();
 
         addPluginChangeListener(new PluginChangeListener() {
@@ -18,7 +18,7 @@ package com.thoughtworks.go.plugin.infra.listeners;
 import com.thoughtworks.go.CurrentGoCDVersion;
 import com.thoughtworks.go.plugin.infra.PluginLoader;
 import com.thoughtworks.go.plugin.infra.monitor.BundleOrPluginFileDetails;
-import com.thoughtworks.go.plugin.infra.monitor.PluginJarChangeListener;
+import com.thoughtworks.go.plugin.infra.monitor.PluginJarScanListener;
 import com.thoughtworks.go.plugin.infra.plugininfo.*;
 import com.thoughtworks.go.util.PerfTimer;
 import com.thoughtworks.go.util.SystemEnvironment;
@@ -31,21 +31,42 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_ACTIVATOR_JAR_PATH;
+import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_EXTRACTION_THREADS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Component
-public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
+public class DefaultPluginJarChangeListener implements PluginJarScanListener {
     private static final String ACTIVATOR_JAR_NAME = GoPluginOSGiManifest.ACTIVATOR_JAR_NAME;
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultPluginJarChangeListener.class);
     private final DefaultPluginRegistry registry;
     private final GoPluginOSGiManifestGenerator osgiManifestGenerator;
     private final PluginLoader pluginLoader;
     private final GoPluginBundleDescriptorBuilder goPluginBundleDescriptorBuilder;
     private final SystemEnvironment systemEnvironment;
+    private final Map<String, Long> loadTimesInMillis = new ConcurrentHashMap<>();
+    private final Map<File, UnpackedJar> jarsUnpackedAheadOfLoading = new ConcurrentHashMap<>();
 
     @Autowired
     public DefaultPluginJarChangeListener(DefaultPluginRegistry registry,
@@ -60,10 +81,55 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
         this.systemEnvironment = systemEnvironment;
     }
 
+    /**
+     * Unpacks newly found plugin jars in parallel ahead of them being loaded one at a time, skipping any jar whose
+     * bundle directory is in use by a plugin which is already loaded.
+     */
+    @Override
+    public void pluginJarsFound(Collection<BundleOrPluginFileDetails> addedPluginJars) {
+        int threads = Math.min(systemEnvironment.get(PLUGIN_EXTRACTION_THREADS), addedPluginJars.size());
+        if (threads <= 1) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("plugin-extraction-", 0).daemon().factory());
+        try {
+            for (BundleOrPluginFileDetails pluginJar : addedPluginJars) {
+                if (registry.getPluginByIdOrFileName(null, pluginJar.file().getName()) != null) {
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        unpackAheadOfLoading(pluginJar);
+                    } catch (Exception e) {
+                        LOGGER.warn("Could not unpack plugin {} ahead of loading it", pluginJar.file(), e);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void unpackAheadOfLoading(BundleOrPluginFileDetails pluginJar) {
+        File file = pluginJar.file();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        String checksum = explodePluginJarToBundleDir(file, pluginJar.extractionLocation());
+        jarsUnpackedAheadOfLoading.put(file, new UnpackedJar(lastModified, length, checksum));
+    }
+
     @Override
     public void pluginJarAdded(BundleOrPluginFileDetails bundleOrPluginFileDetails) {
         final GoPluginBundleDescriptor bundleDescriptor = goPluginBundleDescriptorBuilder.build(bundleOrPluginFileDetails);
 
+        long startedAt = System.currentTimeMillis();
         PerfTimer timer = PerfTimer.start(LOGGER, "Plugin load finished: " + bundleOrPluginFileDetails.file());
         try {
             LOGGER.info("Plugin load starting: {}", bundleOrPluginFileDetails.file());
@@ -74,7 +140,9 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
             LOGGER.info("Plugin validated: {}", bundleOrPluginFileDetails.file());
             addPlugin(bundleOrPluginFileDetails, bundleDescriptor);
         } finally {
+            jarsUnpackedAheadOfLoading.remove(bundleOrPluginFileDetails.file());
             timer.stop();
+            loadTimesInMillis.put(bundleOrPluginFileDetails.file().getName(), System.currentTimeMillis() - startedAt);
         }
     }
 
@@ -82,6 +150,7 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
     public void pluginJarUpdated(BundleOrPluginFileDetails bundleOrPluginFileDetails) {
         final GoPluginBundleDescriptor bundleDescriptor = goPluginBundleDescriptorBuilder.build(bundleOrPluginFileDetails);
 
+        long startedAt = System.currentTimeMillis();
         try {
             LOGGER.info("Plugin update starting: {}", bundleOrPluginFileDetails.file());
 
@@ -92,6 +161,7 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
             removePlugin(bundleDescriptor);
             addPlugin(bundleOrPluginFileDetails, bundleDescriptor);
         } finally {
+            loadTimesInMillis.put(bundleOrPluginFileDetails.file().getName(), System.currentTimeMillis() - startedAt);
             LOGGER.info("Plugin update finished: {}", bundleOrPluginFileDetails.file());
         }
     }
@@ -132,6 +202,8 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
         final GoPluginBundleDescriptor descriptorOfRemovedPlugin = registry.unloadPlugin(descriptor);
         pluginLoader.unloadPlugin(descriptorOfRemovedPlugin);
         FileUtils.deleteQuietly(descriptorOfRemovedPlugin.bundleLocation());
+        FileUtils.deleteQuietly(checksumFileFor(descriptorOfRemovedPlugin.bundleLocation()));
+        loadTimesInMillis.remove(descriptorOfRemovedPlugin.bundleLocation().getName());
         if (descriptorOfRemovedPlugin.bundleLocation().exists()) {
             throw new RuntimeException(String.format("Failed to remove bundle jar %s from bundle location %s", descriptorOfRemovedPlugin.bundleJARFileLocation(), descriptorOfRemovedPlugin.bundleLocation()));
         }
@@ -186,16 +258,70 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
         }
     }
 
-    void explodePluginJarToBundleDir(File file, File location) {
+    /**
+     * @return how long it took to load each plugin jar, by name of the jar
+     */
+    public Map<String, Long> pluginLoadTimesInMillis() {
+        return Map.copyOf(loadTimesInMillis);
+    }
+
+    // a bundle directory unpacked from the same jar before is reused, with only its manifest put back as it was in the jar
+    String explodePluginJarToBundleDir(File file, File location) {
         try {
+            File checksumFile = checksumFileFor(location);
+            String checksum = checksumOf(file);
+            if (location.isDirectory() && checksumFile.isFile() && checksum.equals(Files.readString(checksumFile.toPath(), UTF_8))) {
+                restoreManifest(file, location);
+                return checksum;
+            }
+
+            FileUtils.deleteQuietly(checksumFile);
             wipePluginBundleDirectory(location);
             ZipUtil zipUtil = new ZipUtil();
             zipUtil.unzip(file, location);
+            Files.writeString(checksumFile.toPath(), checksum, UTF_8);
+            return checksum;
         } catch (IOException e) {
             throw new RuntimeException(String.format("Failed to copy plugin jar %s to bundle location %s", file, location), e);
         }
     }
 
+    private void restoreManifest(File file, File location) throws IOException {
+        File manifest = new File(location, MANIFEST);
+        try (ZipFile jar = new ZipFile(file)) {
+            ZipEntry entry = jar.getEntry(MANIFEST);
+            if (entry == null) {
+                Files.deleteIfExists(manifest.toPath());
+                return;
+            }
+            try (InputStream manifestInJar = jar.getInputStream(entry)) {
+                Files.copy(manifestInJar, manifest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static File checksumFileFor(File bundleLocation) {
+        return new File(bundleLocation.getParentFile(), bundleLocation.getName() + ".sha256");
+    }
+
+    // the checksum worked out while unpacking a jar ahead of loading it is used once more, unless the jar has changed since
+    private String checksumOf(File file) throws IOException {
+        UnpackedJar unpacked = jarsUnpackedAheadOfLoading.remove(file);
+        if (unpacked != null && unpacked.lastModified() == file.lastModified() && unpacked.length() == file.length()) {
+            return unpacked.checksum();
+        }
+        return sha256Of(file);
+    }
+
+    private static String sha256Of(File file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     void installActivatorJarToBundleDir(File pluginBundleExplodedDir) {
         URL activatorJar = findAndValidateActivatorJar();
         File pluginActivatorJarDestination = new File(new File(pluginBundleExplodedDir, GoPluginOSGiManifest.PLUGIN_DEPENDENCY_DIR), ACTIVATOR_JAR_NAME);
@@ -228,4 +354,7 @@ public class DefaultPluginJarChangeListener implements PluginJarChangeListener {
         String prefix = String.format(bundleDescriptor.descriptors().size() > 1 ? "Plugins with IDs (%s) are not valid: " : "Plugin with ID (%s) is not valid: ", bundleDescriptor.pluginIDs());
         bundleDescriptor.markAsInvalid(List.of(String.format(prefix + format, values)), null);
     }
+
+    private record UnpackedJar(long lastModified, long length, String checksum) {
+    }
 }
@@ -25,6 +25,7 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -203,7 +204,7 @@ public class DefaultPluginJarLocationMonitor implements PluginJarLocationMonitor
                     .collect(Collectors.toSet());
         }
 
-        public static class DoOnAllListeners implements PluginJarChangeListener {
+        public static class DoOnAllListeners implements PluginJarScanListener {
             private final List<WeakReference<PluginJarChangeListener>> listeners;
 
             public DoOnAllListeners(List<WeakReference<PluginJarChangeListener>> listeners) {
@@ -225,6 +226,15 @@ public class DefaultPluginJarLocationMonitor implements PluginJarLocationMonitor
                 doOnAllPluginJarChangeListener(o -> o.pluginJarRemoved(bundleOrPluginFileDetails));
             }
 
+            @Override
+            public void pluginJarsFound(final Collection<BundleOrPluginFileDetails> addedPluginJars) {
+                doOnAllPluginJarChangeListener(o -> {
+                    if (o instanceof PluginJarScanListener scanListener) {
+                        scanListener.pluginJarsFound(addedPluginJars);
+                    }
+                });
+            }
+
             private void doOnAllPluginJarChangeListener(Consumer<PluginJarChangeListener> closure) {
                 for (WeakReference<PluginJarChangeListener> listener : listeners) {
                     PluginJarChangeListener changeListener = listener.get();
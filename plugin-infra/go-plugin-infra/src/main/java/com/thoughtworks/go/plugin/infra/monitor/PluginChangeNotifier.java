@@ -25,6 +25,13 @@ public class PluginChangeNotifier {
 
         oldPlugins.stream().filter(f -> !currentPluginFiles.contains(f)).forEach(listener::pluginJarRemoved);
 
+        if (listener instanceof PluginJarScanListener scanListener) {
+            List<BundleOrPluginFileDetails> addedPlugins = currentPluginFiles.stream().filter(f -> !oldPlugins.contains(f)).toList();
+            if (!addedPlugins.isEmpty()) {
+                scanListener.pluginJarsFound(addedPlugins);
+            }
+        }
+
         currentPluginFiles.forEach(newPlugin -> {
             int index = oldPlugins.indexOf(newPlugin);
             if (index < 0) {
@@ -44,6 +44,7 @@ import java.util.List;
 import java.util.Map;
 
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_EXTERNAL_PROVIDED_PATH;
+import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS;
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_WORK_DIR;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -76,6 +77,7 @@ class DefaultPluginManagerTest {
 
         when(systemEnvironment.get(PLUGIN_WORK_DIR)).thenReturn(bundleDir.getAbsolutePath());
         when(systemEnvironment.get(PLUGIN_EXTERNAL_PROVIDED_PATH)).thenReturn(pluginExternalDir.getAbsolutePath());
+        when(systemEnvironment.get(PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS)).thenReturn(false);
     }
 
     @Test
@@ -88,6 +90,17 @@ class DefaultPluginManagerTest {
         assertThat(bundleDir).doesNotExist();
     }
 
+    @Test
+    void shouldKeepTheBundleDirectoryAtStartWhenAskedToKeepExtractedBundles() throws Exception {
+        when(systemEnvironment.get(PLUGIN_KEEP_EXTRACTED_BUNDLES_ACROSS_RESTARTS)).thenReturn(true);
+        String pluginJarFile = "descriptor-aware-test-plugin.should.be.kept.jar";
+        copyPluginToTheDirectory(bundleDir, pluginJarFile);
+
+        new DefaultPluginManager(monitor, registry, goPluginOSGiFramework, jarChangeListener, null, systemEnvironment, pluginLoader).startInfrastructure(true);
+
+        assertThat(new File(bundleDir, pluginJarFile)).exists();
+    }
+
     @Test
     void shouldStartOSGiFrameworkBeforeStartingMonitor() {
         new DefaultPluginManager(monitor, registry, goPluginOSGiFramework, jarChangeListener, null, systemEnvironment, pluginLoader).startInfrastructure(true);
@@ -33,6 +33,7 @@ import java.nio.file.Files;
 import java.util.List;
 
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_ACTIVATOR_JAR_PATH;
+import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_EXTRACTION_THREADS;
 import static com.thoughtworks.go.util.SystemEnvironment.PLUGIN_WORK_DIR;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.*;
@@ -603,6 +604,49 @@ class DefaultPluginJarChangeListenerTest {
         when(goPluginBundleDescriptorBuilder.build(new BundleOrPluginFileDetails(pluginJarFile, true, pluginWorkDir))).thenReturn(new GoPluginBundleDescriptor(descriptor));
     }
 
+    @Test
+    void shouldReuseTheBundleDirectoryOfAnUnchangedPluginJarButRestoreItsManifest() throws IOException {
+        File pluginJarFile = new File(pluginWorkDir, PLUGIN_JAR_FILE_NAME);
+        copyPluginToTheDirectory(pluginWorkDir, PLUGIN_JAR_FILE_NAME);
+        File location = new File(bundleDir, PLUGIN_JAR_FILE_NAME);
+
+        listener.explodePluginJarToBundleDir(pluginJarFile, location);
+        File manifest = new File(location, "META-INF/MANIFEST.MF");
+        File leftOver = new File(location, "left-over-from-previous-run");
+        FileUtils.writeStringToFile(leftOver, "", UTF_8);
+        FileUtils.writeStringToFile(manifest, "Bundle-SymbolicName: some.plugin", UTF_8);
+
+        listener.explodePluginJarToBundleDir(pluginJarFile, location);
+
+        assertThat(leftOver).exists();
+        assertThat(Files.readString(manifest.toPath(), UTF_8))
+                .contains("Ant-Version: Apache Ant 1.10.5")
+                .doesNotContain("Bundle-SymbolicName");
+
+        FileUtils.copyFile(pathOfFileInDefaultFiles("valid-plugin-with-multiple-extensions.jar"), pluginJarFile);
+        listener.explodePluginJarToBundleDir(pluginJarFile, location);
+
+        assertThat(leftOver).doesNotExist();
+        assertThat(new File(bundleDir, PLUGIN_JAR_FILE_NAME + ".sha256")).exists();
+    }
+
+    @Test
+    void shouldUnpackNewlyFoundPluginJarsAheadOfLoadingThemButSkipThoseAlreadyLoaded() throws IOException {
+        when(systemEnvironment.get(PLUGIN_EXTRACTION_THREADS)).thenReturn(2);
+        copyPluginToTheDirectory(pluginWorkDir, "new-plugin.jar");
+        copyPluginToTheDirectory(pluginWorkDir, "loaded-plugin.jar");
+        when(registry.getPluginByIdOrFileName(null, "loaded-plugin.jar")).thenReturn(GoPluginDescriptor.builder().id("loaded").build());
+
+        listener.pluginJarsFound(List.of(
+                new BundleOrPluginFileDetails(new File(pluginWorkDir, "new-plugin.jar"), false, bundleDir),
+                new BundleOrPluginFileDetails(new File(pluginWorkDir, "loaded-plugin.jar"), false, bundleDir)));
+
+        assertThat(new File(bundleDir, "new-plugin.jar/plugin.xml")).exists();
+        assertThat(new File(bundleDir, "new-plugin.jar.sha256")).exists();
+        assertThat(new File(bundleDir, "loaded-plugin.jar")).doesNotExist();
+        assertThat(new File(bundleDir, "loaded-plugin.jar.sha256")).doesNotExist();
+    }
+
     private void copyPluginToTheDirectory(File destinationDir, String destinationFilenameOfPlugin) throws IOException {
         FileUtils.copyFile(pathOfFileInDefaultFiles("descriptor-aware-test-plugin.jar"), new File(destinationDir, destinationFilenameOfPlugin));
     }
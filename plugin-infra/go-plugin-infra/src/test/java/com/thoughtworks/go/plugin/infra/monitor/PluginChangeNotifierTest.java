@@ -49,6 +49,22 @@ class PluginChangeNotifierTest {
         verify(listener, never()).pluginJarUpdated(any());
     }
 
+    @Test
+    void shouldTellAScanListenerAboutAllNewlyFoundPluginsBeforeEachOfThemIsAdded() {
+        final PluginJarScanListener listener = mock(PluginJarScanListener.class);
+        BundleOrPluginFileDetails knownPlugin = mock(BundleOrPluginFileDetails.class);
+        BundleOrPluginFileDetails pluginOne = mock(BundleOrPluginFileDetails.class);
+        BundleOrPluginFileDetails pluginTwo = mock(BundleOrPluginFileDetails.class);
+
+        pluginChangeNotifier.notify(listener, List.of(knownPlugin), List.of(knownPlugin, pluginOne, pluginTwo));
+
+        InOrder inOrder = inOrder(listener);
+        inOrder.verify(listener).pluginJarsFound(List.of(pluginOne, pluginTwo));
+        inOrder.verify(listener).pluginJarAdded(pluginOne);
+        inOrder.verify(listener).pluginJarAdded(pluginTwo);
+        verify(listener, never()).pluginJarAdded(knownPlugin);
+    }
+
     @Test
     void shouldNotifyWhenPluginIsUpdated() {
         final PluginJarChangeListener listener = mock(PluginJarChangeListener.class);
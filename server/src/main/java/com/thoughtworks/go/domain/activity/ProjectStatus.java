@@ -25,6 +25,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static java.lang.String.join;
 
@@ -43,6 +44,8 @@ public class ProjectStatus {
     private String webUrl;
     private volatile Users viewers;
     private String cachedXmlRepresentation;
+    // volatile, so that a thread reading the reference also sees the elements of the array written before it
+    private volatile String[] cachedXmlFragments;
 
     public ProjectStatus(String name, String activity, String lastBuildStatus, String lastBuildLabel,
                          Date lastBuildTime, String webUrl) {
@@ -156,6 +159,19 @@ public class ProjectStatus {
         return cachedXmlRepresentation;
     }
 
+    /**
+     * @return the XML representation with links pointing at the given site URL, put together from the pieces of the
+     * XML representation around {@link #SITE_URL_PREFIX}, which are only worked out once
+     */
+    public String xmlRepresentation(String siteUrlPrefix) {
+        String[] fragments = cachedXmlFragments;
+        if (fragments == null) {
+            fragments = xmlRepresentation().split(Pattern.quote(SITE_URL_PREFIX), -1);
+            cachedXmlFragments = fragments;
+        }
+        return join(siteUrlPrefix, fragments);
+    }
+
     public Set<String> getBreakers() {
         return breakers;
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the total number of runs in a history listing for a configurable while
+ * ({@code go.server.history.count.cache.ttl.in.secs}, disabled by default), so paging through a long history does not
+ * count every row of it on each page. Totals served from here may lag behind new runs by up to that while.
+ */
+@Component
+public class HistoryCountCache {
+    private final long timeToLiveInSeconds;
+    private final Cache<List<String>, Integer> counts;
+
+    @Autowired
+    public HistoryCountCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment, Ticker.systemTicker());
+    }
+
+    HistoryCountCache(SystemEnvironment systemEnvironment, Ticker ticker) {
+        this.timeToLiveInSeconds = systemEnvironment.get(SystemEnvironment.GO_SERVER_HISTORY_COUNT_CACHE_TTL_IN_SECONDS);
+        this.counts = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(timeToLiveInSeconds, 0)))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    public int count(String history, String key, Supplier<Integer> exactCount) {
+        if (timeToLiveInSeconds <= 0) {
+            return exactCount.get();
+        }
+        return counts.get(List.of(history, key), ignored -> exactCount.get());
+    }
+}
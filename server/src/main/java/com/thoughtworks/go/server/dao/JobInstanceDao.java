@@ -28,6 +28,12 @@ public interface JobInstanceDao {
 
     List<JobPlan> orderedScheduledBuilds();
 
+    /**
+     * Same as {@link #orderedScheduledBuilds()}, but plans already in memory for a job which is still scheduled are
+     * reused as they are rather than read from the cache and copied again.
+     */
+    List<JobPlan> orderedScheduledBuilds(List<JobPlan> alreadyLoaded);
+
     JobInstances latestCompletedJobs(String pipelineName, String stageName, String jobConfigName, int count);
 
     JobInstance save(long stageId, JobInstance jobInstance);
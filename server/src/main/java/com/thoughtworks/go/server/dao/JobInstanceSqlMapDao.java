@@ -66,6 +66,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
     private final Cloner cloner = ClonerFactory.instance();
     private final ResourceRepository resourceRepository;
     private final ArtifactPlanRepository artifactPlanRepository;
+    private final HistoryCountCache historyCountCache;
 
     @Autowired
     public JobInstanceSqlMapDao(EnvironmentVariableDao environmentVariableDao,
@@ -76,7 +77,8 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
                                 TransactionSynchronizationManager transactionSynchronizationManager,
                                 ResourceRepository resourceRepository,
                                 ArtifactPlanRepository artifactPlanRepository,
-                                JobAgentMetadataDao jobAgentMetadataDao) {
+                                JobAgentMetadataDao jobAgentMetadataDao,
+                                HistoryCountCache historyCountCache) {
         super(goCache, sqlSessionFactory);
         this.environmentVariableDao = environmentVariableDao;
         this.transactionTemplate = transactionTemplate;
@@ -85,6 +87,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
         this.resourceRepository = resourceRepository;
         this.artifactPlanRepository = artifactPlanRepository;
         this.jobAgentMetadataDao = jobAgentMetadataDao;
+        this.historyCountCache = historyCountCache;
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
         this.latestCompletedCache = new LazyCache(createCacheIfRequired(getClass().getName()), transactionSynchronizationManager);
     }
@@ -274,7 +277,8 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     @Override
     public int totalCompletedJobsOnAgent(String uuid) {
-        return getSqlMapClientTemplate().queryForObject("totalCompletedJobsOnAgent", arguments("uuid", uuid).asMap());
+        return historyCountCache.count("completedJobsOnAgent", uuid,
+            () -> getSqlMapClientTemplate().queryForObject("totalCompletedJobsOnAgent", arguments("uuid", uuid).asMap()));
     }
 
     @Override
@@ -403,26 +407,46 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     @Override
     public List<JobPlan> orderedScheduledBuilds() {
+        return orderedScheduledBuilds(List.of());
+    }
+
+    @Override
+    public List<JobPlan> orderedScheduledBuilds(List<JobPlan> alreadyLoaded) {
+        Map<Long, JobPlan> alreadyLoadedByJobId = new HashMap<>();
+        for (JobPlan jobPlan : alreadyLoaded) {
+            alreadyLoadedByJobId.put(jobPlan.getJobId(), jobPlan);
+        }
+
         List<Long> jobIds = getSqlMapClientTemplate().queryForList("scheduledPlanIds");
 
-        List<JobPlan> plans = new ArrayList<>();
+        List<JobPlan> plans = new ArrayList<>(jobIds.size());
         for (Long jobId : jobIds) {
-            String cacheKey = cacheKeyForJobPlan(jobId);
-            synchronized (cacheKey) {
-                JobPlan jobPlan = goCache.get(cacheKey);
-                if (jobPlan == null) {
-                    jobPlan = _loadJobPlan(jobId);
-                }
-                if (jobPlan != null) {
-                    jobPlan = cloner.deepClone(jobPlan);
-                    goCache.put(cacheKey, jobPlan);
-                    plans.add(jobPlan);
-                }
+            JobPlan jobPlan = alreadyLoadedByJobId.get(jobId);
+            if (jobPlan == null) {
+                jobPlan = scheduledPlan(jobId);
+            }
+            if (jobPlan != null) {
+                plans.add(jobPlan);
             }
         }
         return plans;
     }
 
+    private JobPlan scheduledPlan(Long jobId) {
+        String cacheKey = cacheKeyForJobPlan(jobId);
+        synchronized (cacheKey) {
+            JobPlan jobPlan = goCache.get(cacheKey);
+            if (jobPlan == null) {
+                jobPlan = _loadJobPlan(jobId);
+            }
+            if (jobPlan != null) {
+                jobPlan = cloner.deepClone(jobPlan);
+                goCache.put(cacheKey, jobPlan);
+            }
+            return jobPlan;
+        }
+    }
+
     private JobPlan _loadJobPlan(Long jobId) {
         DefaultJobPlan jobPlan = getSqlMapClientTemplate().queryForObject("scheduledPlan", arguments("id", jobId).asMap());
         if (jobPlan == null) {
@@ -77,6 +77,7 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
     private final GoConfigDao configFileDao;
     private final Cloner cloner = ClonerFactory.instance();
     private final Clock timeProvider;
+    private final HistoryCountCache historyCountCache;
 
     @Autowired
     public PipelineSqlMapDao(StageDao stageDao,
@@ -89,7 +90,8 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
                              SystemEnvironment systemEnvironment,
                              GoConfigDao configFileDao,
                              Database database,
-                             TimeProvider timeProvider) {
+                             TimeProvider timeProvider,
+                             HistoryCountCache historyCountCache) {
         super(goCache, sqlSessionFactory);
         this.stageDao = stageDao;
         this.materialRepository = materialRepository;
@@ -98,6 +100,7 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         this.transactionSynchronizationManager = transactionSynchronizationManager;
         this.configFileDao = configFileDao;
         this.timeProvider = timeProvider;
+        this.historyCountCache = historyCountCache;
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
         this.pipelineByBuildIdCache = new LazyCache(createCacheIfRequired(PipelineSqlMapDao.class.getName()), transactionSynchronizationManager);
     }
@@ -562,7 +565,8 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
 
     @Override
     public int count(String pipelineName) {
-        return getSqlMapClientTemplate().queryForObject("getPipelineHistoryCount", pipelineName);
+        return historyCountCache.count("pipelineHistory", pipelineName,
+            () -> getSqlMapClientTemplate().queryForObject("getPipelineHistoryCount", pipelineName));
     }
 
     private Pipeline loadStages(Pipeline pipeline) {
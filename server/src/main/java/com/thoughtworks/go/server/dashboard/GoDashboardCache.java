@@ -19,59 +19,100 @@ import com.thoughtworks.go.config.CaseInsensitiveString;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /* Understands how to cache dashboard statuses, for every pipeline. */
 @Component
 public class GoDashboardCache {
+    static final int MAX_TRACKED_REMOVALS = 1000;
+
     private final TimeStampBasedCounter timeStampBasedCounter;
     /**
-     * Assumption: The put() and replaceAllEntriesInCacheWith() methods, which change this cache,
-     * will always be called from the same thread (queueProcessor in GoDashboardActivityListener). Even get() will be.
-     * So, not surrounding it with a synchronizedMap. Also, uses {@link LinkedHashMap} to preserve insertion order. That
-     * order is not very important in this case, but it comes for free (almost) because of the map.
+     * Assumption: The put(), remove() and replaceAllEntriesInCacheWith() methods, which change this cache, will always
+     * be called from the same thread (queueProcessor in GoDashboardActivityListener). Each change publishes a new
+     * immutable snapshot which shares everything but the changed pipeline's bucket with the previous one, so readers
+     * never see a partial update and a change does not copy the statuses of all pipelines.
      */
-    private final Map<CaseInsensitiveString, GoDashboardPipeline> cache = new LinkedHashMap<>();
-
     private volatile GoDashboardPipelines dashboardPipelines;
+    // changes before this version are not known, either because all entries were replaced or removals were forgotten
+    private volatile long changesTrackedSince;
+    private final ConcurrentLinkedDeque<Removal> removals = new ConcurrentLinkedDeque<>();
 
     @Autowired
     public GoDashboardCache(TimeStampBasedCounter timeStampBasedCounter) {
         this.timeStampBasedCounter = timeStampBasedCounter;
         dashboardPipelines = new GoDashboardPipelines(new HashMap<>(), timeStampBasedCounter);
+        changesTrackedSince = dashboardPipelines.lastUpdatedTimeStamp();
     }
 
     public void put(GoDashboardPipeline pipeline) {
-        cache.put(pipeline.name(), pipeline);
-        cacheHasChanged();
+        dashboardPipelines = dashboardPipelines.with(pipeline, timeStampBasedCounter);
     }
 
     public void remove(CaseInsensitiveString pipelineName) {
-        cache.remove(pipelineName);
+        GoDashboardPipeline removed = dashboardPipelines.find(pipelineName);
+        if (removed == null) {
+            return;
+        }
+
+        GoDashboardPipelines remaining = dashboardPipelines.without(pipelineName, timeStampBasedCounter);
+        removals.addLast(new Removal(removed, remaining.lastUpdatedTimeStamp()));
+        while (removals.size() > MAX_TRACKED_REMOVALS) {
+            changesTrackedSince = removals.removeFirst().version();
+        }
+        dashboardPipelines = remaining;
     }
 
     public void replaceAllEntriesInCacheWith(List<GoDashboardPipeline> newPipelinesToCache) {
-        cache.clear();
-        cache.putAll(createMapFor(newPipelinesToCache));
-        cacheHasChanged();
+        GoDashboardPipelines replaced = new GoDashboardPipelines(createMapFor(newPipelinesToCache), timeStampBasedCounter);
+        changesTrackedSince = replaced.lastUpdatedTimeStamp();
+        removals.clear();
+        dashboardPipelines = replaced;
     }
 
     public GoDashboardPipelines allEntries() {
         return dashboardPipelines;
     }
 
-    private void cacheHasChanged() {
-        dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter);
+    /**
+     * @return the pipelines put into or removed from the cache after the given version of {@link #allEntries()}, or
+     * {@link GoDashboardChanges#unknown(long)} when that version is older than the changes which are tracked
+     */
+    public GoDashboardChanges changesSince(long version) {
+        GoDashboardPipelines current = dashboardPipelines;
+        if (version < changesTrackedSince || version > current.lastUpdatedTimeStamp()) {
+            return GoDashboardChanges.unknown(current.lastUpdatedTimeStamp());
+        }
+
+        List<GoDashboardPipeline> changed = new ArrayList<>();
+        for (GoDashboardPipeline pipeline : current.getPipelines()) {
+            if (pipeline.getLastUpdatedTimeStamp() > version) {
+                changed.add(pipeline);
+            }
+        }
+
+        Map<CaseInsensitiveString, GoDashboardPipeline> removed = new LinkedHashMap<>();
+        for (Removal removal : removals) {
+            if (removal.version() > version && removal.version() <= current.lastUpdatedTimeStamp() && current.find(removal.pipeline().name()) == null) {
+                removed.put(removal.pipeline().name(), removal.pipeline());
+            }
+        }
+        return GoDashboardChanges.of(current.lastUpdatedTimeStamp(), changed, List.copyOf(removed.values()));
     }
 
-    private Map<CaseInsensitiveString, GoDashboardPipeline> createMapFor(List<GoDashboardPipeline> pipelines) {
-        Map<CaseInsensitiveString, GoDashboardPipeline> result = new LinkedHashMap<>();
+    private HashMap<CaseInsensitiveString, GoDashboardPipeline> createMapFor(List<GoDashboardPipeline> pipelines) {
+        HashMap<CaseInsensitiveString, GoDashboardPipeline> result = new HashMap<>();
         for (GoDashboardPipeline pipeline : pipelines) {
             result.put(pipeline.name(), pipeline);
         }
         return result;
     }
+
+    private record Removal(GoDashboardPipeline pipeline, long version) {
+    }
 }
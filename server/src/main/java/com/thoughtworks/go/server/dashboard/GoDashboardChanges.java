@@ -0,0 +1,72 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dashboard;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/* Understands which pipelines on the dashboard changed after a given version of it. */
+public class GoDashboardChanges {
+    private final long version;
+    private final boolean complete;
+    private final List<GoDashboardPipeline> changedPipelines;
+    private final List<GoDashboardPipeline> removedPipelines;
+
+    private GoDashboardChanges(long version, boolean complete, List<GoDashboardPipeline> changedPipelines, List<GoDashboardPipeline> removedPipelines) {
+        this.version = version;
+        this.complete = complete;
+        this.changedPipelines = changedPipelines;
+        this.removedPipelines = removedPipelines;
+    }
+
+    public static GoDashboardChanges of(long version, List<GoDashboardPipeline> changedPipelines, List<GoDashboardPipeline> removedPipelines) {
+        return new GoDashboardChanges(version, true, changedPipelines, removedPipelines);
+    }
+
+    /**
+     * The changes are not known, because they go further back than what is tracked, or a change to the config
+     * replaced the whole dashboard. The whole dashboard has to be fetched again.
+     */
+    public static GoDashboardChanges unknown(long version) {
+        return new GoDashboardChanges(version, false, List.of(), List.of());
+    }
+
+    /**
+     * @return the changes to just those pipelines which match the given test; unknown changes stay unknown
+     */
+    public GoDashboardChanges filter(Predicate<GoDashboardPipeline> test) {
+        if (!complete) {
+            return this;
+        }
+        return new GoDashboardChanges(version, true, changedPipelines.stream().filter(test).toList(), removedPipelines.stream().filter(test).toList());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<GoDashboardPipeline> changedPipelines() {
+        return changedPipelines;
+    }
+
+    public List<GoDashboardPipeline> removedPipelines() {
+        return removedPipelines;
+    }
+}
@@ -17,16 +17,24 @@ package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * An immutable snapshot of the dashboard statuses of all pipelines. Pipelines are spread over a fixed number of
+ * buckets, so that a snapshot with one pipeline changed shares all but one bucket with the snapshot it came from.
+ */
 public class GoDashboardPipelines {
-    private final Map<CaseInsensitiveString, GoDashboardPipeline> pipelines;
+    private static final int BUCKETS = 128;
+
+    private final Map<CaseInsensitiveString, GoDashboardPipeline>[] buckets;
     private final long lastUpdatedTimeStamp;
 
     public GoDashboardPipelines(HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines, TimeStampBasedCounter timeStampBasedCounter) {
-        this.pipelines = pipelines;
+        this(bucketsOf(pipelines), timeStampBasedCounter);
+    }
+
+    private GoDashboardPipelines(Map<CaseInsensitiveString, GoDashboardPipeline>[] buckets, TimeStampBasedCounter timeStampBasedCounter) {
+        this.buckets = buckets;
         this.lastUpdatedTimeStamp = timeStampBasedCounter.getNext();
     }
 
@@ -35,15 +43,64 @@ public class GoDashboardPipelines {
     }
 
     public Collection<GoDashboardPipeline> getPipelines() {
-        return pipelines.values();
+        List<GoDashboardPipeline> pipelines = new ArrayList<>();
+        for (Map<CaseInsensitiveString, GoDashboardPipeline> bucket : buckets) {
+            pipelines.addAll(bucket.values());
+        }
+        return Collections.unmodifiableList(pipelines);
     }
 
     public GoDashboardPipeline find(CaseInsensitiveString name) {
-        return pipelines.get(name);
+        return buckets[bucketFor(name)].get(name);
     }
 
     public boolean isEmpty() {
-        return pipelines.isEmpty();
+        for (Map<CaseInsensitiveString, GoDashboardPipeline> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public GoDashboardPipelines with(GoDashboardPipeline pipeline, TimeStampBasedCounter timeStampBasedCounter) {
+        int index = bucketFor(pipeline.name());
+        Map<CaseInsensitiveString, GoDashboardPipeline> bucket = new HashMap<>(buckets[index]);
+        bucket.put(pipeline.name(), pipeline);
+        return new GoDashboardPipelines(replaceBucket(index, bucket), timeStampBasedCounter);
     }
-}
 
+    public GoDashboardPipelines without(CaseInsensitiveString name, TimeStampBasedCounter timeStampBasedCounter) {
+        int index = bucketFor(name);
+        if (!buckets[index].containsKey(name)) {
+            return this;
+        }
+        Map<CaseInsensitiveString, GoDashboardPipeline> bucket = new HashMap<>(buckets[index]);
+        bucket.remove(name);
+        return new GoDashboardPipelines(replaceBucket(index, bucket), timeStampBasedCounter);
+    }
+
+    private Map<CaseInsensitiveString, GoDashboardPipeline>[] replaceBucket(int index, Map<CaseInsensitiveString, GoDashboardPipeline> bucket) {
+        Map<CaseInsensitiveString, GoDashboardPipeline>[] copy = buckets.clone();
+        copy[index] = Collections.unmodifiableMap(bucket);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<CaseInsensitiveString, GoDashboardPipeline>[] bucketsOf(Map<CaseInsensitiveString, GoDashboardPipeline> pipelines) {
+        Map<CaseInsensitiveString, GoDashboardPipeline>[] buckets = new Map[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new HashMap<>();
+        }
+        pipelines.forEach((name, pipeline) -> buckets[bucketFor(name)].put(name, pipeline));
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = Collections.unmodifiableMap(buckets[i]);
+        }
+        return buckets;
+    }
+
+    private static int bucketFor(CaseInsensitiveString name) {
+        int hash = name.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), BUCKETS);
+    }
+}
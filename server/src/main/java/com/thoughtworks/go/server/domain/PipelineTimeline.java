@@ -41,6 +41,10 @@ public class PipelineTimeline {
 
     private final Map<CaseInsensitiveString, NavigableSet<PipelineTimelineEntry>> naturalOrderPmm = new HashMap<>();
     private final Map<CaseInsensitiveString, List<PipelineTimelineEntry>> scheduleOrderPmm = new HashMap<>();
+    // Indexes over the collections above, so that lookups by id or counter do not have to walk a pipeline's whole history.
+    // Guarded by the lock of the collection they index.
+    private final Map<CaseInsensitiveString, Map<Long, PipelineTimelineEntry>> naturalOrderIndexById = new HashMap<>();
+    private final Map<CaseInsensitiveString, Map<Integer, PipelineTimelineEntry>> scheduleOrderIndexByCounter = new HashMap<>();
     private final ReadWriteLock naturalOrderLock = new ReentrantReadWriteLock();
     private final ReadWriteLock scheduleOrderLock = new ReentrantReadWriteLock();
 
@@ -70,7 +74,9 @@ public class PipelineTimeline {
     public void add(PipelineTimelineEntry pipelineTimelineEntry) {
         CaseInsensitiveString pipelineName = new CaseInsensitiveString(pipelineTimelineEntry.getPipelineName());
         initializedNaturalOrderCollection(pipelineName).add(pipelineTimelineEntry);
+        naturalOrderIndexById.computeIfAbsent(pipelineName, k -> new HashMap<>()).put(pipelineTimelineEntry.getId(), pipelineTimelineEntry);
         initializedScheduleOrderCollection(pipelineName).add(pipelineTimelineEntry);
+        scheduleOrderIndexByCounter.computeIfAbsent(pipelineName, k -> new HashMap<>()).put(pipelineTimelineEntry.getCounter(), pipelineTimelineEntry);
         pipelineTimelineEntry.setInsertedBefore(naturalOrderAfter(pipelineTimelineEntry));
         pipelineTimelineEntry.setInsertedAfter(naturalOrderBefore(pipelineTimelineEntry));
         pipelineTimelineEntry.updateNaturalOrder();
@@ -101,7 +107,10 @@ public class PipelineTimeline {
                     private void rollbackNewEntryFor(PipelineTimelineEntry entry) {
                         CaseInsensitiveString pipelineName = new CaseInsensitiveString(entry.getPipelineName());
                         initializedNaturalOrderCollection(pipelineName).remove(entry);
-                        initializedScheduleOrderCollection(pipelineName).remove(entry);
+                        naturalOrderIndexById.getOrDefault(pipelineName, Collections.emptyMap()).remove(entry.getId());
+                        List<PipelineTimelineEntry> scheduleOrder = initializedScheduleOrderCollection(pipelineName);
+                        scheduleOrder.remove(entry);
+                        reindexCounter(pipelineName, entry.getCounter(), scheduleOrder);
                     }
 
 
@@ -148,16 +157,11 @@ public class PipelineTimeline {
     public PipelineTimelineEntry runBefore(long id, final CaseInsensitiveString pipelineName) {
         naturalOrderLock.readLock().lock();
         try {
-            Set<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
+            Map<Long, PipelineTimelineEntry> entriesById = naturalOrderIndexById.get(pipelineName);
+            if (entriesById == null) {
                 return null;
             }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedAfter();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
+            return entryWithId(entriesById, id).insertedAfter();
         } finally {
             naturalOrderLock.readLock().unlock();
         }
@@ -171,21 +175,37 @@ public class PipelineTimeline {
     public PipelineTimelineEntry runAfter(long id, final CaseInsensitiveString pipelineName) {
         naturalOrderLock.readLock().lock();
         try {
-            Set<PipelineTimelineEntry> treeForPipeline = naturalOrderPmm.get(pipelineName);
-            if (treeForPipeline == null) {
+            Map<Long, PipelineTimelineEntry> entriesById = naturalOrderIndexById.get(pipelineName);
+            if (entriesById == null) {
                 return null;
             }
-            for (PipelineTimelineEntry pipelineTimelineEntry : treeForPipeline) {
-                if (id == pipelineTimelineEntry.getId()) {
-                    return pipelineTimelineEntry.insertedBefore();
-                }
-            }
-            throw new RuntimeException("Cannot find pipeline with id: " + id);
+            return entryWithId(entriesById, id).insertedBefore();
         } finally {
             naturalOrderLock.readLock().unlock();
         }
     }
 
+    private PipelineTimelineEntry entryWithId(Map<Long, PipelineTimelineEntry> entriesById, long id) {
+        PipelineTimelineEntry entry = entriesById.get(id);
+        if (entry == null) {
+            throw new RuntimeException("Cannot find pipeline with id: " + id);
+        }
+        return entry;
+    }
+
+    // Counters are unique per pipeline, bar old data where differently capitalized pipelines share a history.
+    // Like a reverse scan of the schedule order, the index should point at the latest entry with the counter.
+    private void reindexCounter(CaseInsensitiveString pipelineName, int counter, List<PipelineTimelineEntry> scheduleOrder) {
+        Map<Integer, PipelineTimelineEntry> entriesByCounter = scheduleOrderIndexByCounter.getOrDefault(pipelineName, new HashMap<>());
+        entriesByCounter.remove(counter);
+        for (int i = scheduleOrder.size() - 1; i >= 0; i--) {
+            if (scheduleOrder.get(i).getCounter() == counter) {
+                entriesByCounter.put(counter, scheduleOrder.get(i));
+                return;
+            }
+        }
+    }
+
     private void updateMaximumId(long id) {
         maximumId.accumulateAndGet(id, Math::max);
     }
@@ -224,7 +244,9 @@ public class PipelineTimeline {
         acquireAllWriteLocks();
         try {
             naturalOrderPmm.clear();
+            naturalOrderIndexById.clear();
             scheduleOrderPmm.clear();
+            scheduleOrderIndexByCounter.clear();
         } finally {
             releaseAllWriteLocks();
         }
@@ -254,14 +276,8 @@ public class PipelineTimeline {
     public PipelineTimelineEntry getEntryFor(CaseInsensitiveString pipelineName, int pipelineCounter) {
         scheduleOrderLock.readLock().lock();
         try {
-            List<PipelineTimelineEntry> instances = scheduleOrderPmm.get(pipelineName);
-            for (int i = instances.size() - 1; i >= 0; i--) {
-                PipelineTimelineEntry instance = instances.get(i);
-                if (instance.getCounter() == pipelineCounter) {
-                    return instance;
-                }
-            }
-            return null;
+            Map<Integer, PipelineTimelineEntry> entriesByCounter = scheduleOrderIndexByCounter.get(pipelineName);
+            return entriesByCounter == null ? null : entriesByCounter.get(pipelineCounter);
         } finally {
             scheduleOrderLock.readLock().unlock();
         }
@@ -95,9 +95,15 @@ public class DependencyMaterialUpdateNotifier implements StageStatusListener, Co
         if (StageResult.Passed == stage.getResult()) {
             Material material = dependencyMaterials.get(stageIdentifier(stage.getIdentifier().getPipelineName(), stage.getName()));
 
-            if (material != null) {
-                updateMaterial(material);
+            if (material == null) {
+                return;
+            }
+            // A burst of passed stages while an update is running needs only the one retry already queued for it
+            if (retryQueue.contains(material) && materialUpdateService.isInProgress(material)) {
+                LOGGER.debug("[Material Update] Update of dependency material {} already pending, skipping for stage {}", material, stage.getIdentifier());
+                return;
             }
+            updateMaterial(material);
         }
     }
 
@@ -64,10 +64,7 @@ public class DependencyMaterialUpdater implements MaterialUpdater {
         List<Modification> modifications;
         do {
             modifications = dependencyMaterialSourceDao.getPassedStagesAfter(list.getLast().getRevision(), pagination);
-            for (Modification modification : modifications) {
-                MaterialRevision revision = new MaterialRevision(dependencyMaterial, modification);
-                materialRepository.saveMaterialRevision(revision);
-            }
+            saveAsOneRevision(dependencyMaterial, modifications);
             pagination = Pagination.pageByOffsetUnknownTotal(pagination.getOffset() + pagination.getPageSize(), pagination.getPageSize());
         } while (!modifications.isEmpty());
     }
@@ -77,11 +74,19 @@ public class DependencyMaterialUpdater implements MaterialUpdater {
         List<Modification> modifications;
         do {
             modifications = dependencyMaterialSourceDao.getPassedStagesByName(dependencyMaterial, pagination);
-            for (Modification modification : modifications) {
-                MaterialRevision revision = new MaterialRevision(dependencyMaterial, modification);
-                materialRepository.saveMaterialRevision(revision);
-            }
+            saveAsOneRevision(dependencyMaterial, modifications);
             pagination = Pagination.pageByOffsetUnknownTotal(pagination.getOffset() + pagination.getPageSize(), pagination.getPageSize());
         } while (!modifications.isEmpty());
     }
+
+    /**
+     * Stages come oldest first, while a revision lists its modifications newest first and saves them oldest first.
+     * Saving a whole page together looks the material instance up and invalidates its caches once per page.
+     */
+    private void saveAsOneRevision(DependencyMaterial dependencyMaterial, List<Modification> oldestFirst) {
+        if (oldestFirst.isEmpty()) {
+            return;
+        }
+        materialRepository.saveMaterialRevision(new MaterialRevision(dependencyMaterial, oldestFirst.reversed()));
+    }
 }
@@ -16,6 +16,7 @@
 package com.thoughtworks.go.server.materials;
 
 import com.thoughtworks.go.config.materials.SubprocessExecutionContext;
+import com.thoughtworks.go.config.materials.git.GitMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.MaterialRevisions;
 import com.thoughtworks.go.domain.materials.Material;
@@ -39,21 +40,24 @@ class ScmMaterialUpdater implements MaterialUpdater {
     private final LegacyMaterialChecker materialChecker;
     private final SubprocessExecutionContext subprocessExecutionContext;
     private final MaterialService materialService;
+    private final SharedGitObjectStore sharedGitObjectStore;
 
     @Autowired
     ScmMaterialUpdater(MaterialRepository materialRepository, LegacyMaterialChecker materialChecker,
-                       SubprocessExecutionContext subprocessExecutionContext, MaterialService materialService) {
+                       SubprocessExecutionContext subprocessExecutionContext, MaterialService materialService,
+                       SharedGitObjectStore sharedGitObjectStore) {
         this.materialRepository = materialRepository;
         this.materialChecker = materialChecker;
         this.subprocessExecutionContext = subprocessExecutionContext;
         this.materialService = materialService;
+        this.sharedGitObjectStore = sharedGitObjectStore;
     }
 
     @Override
     public void insertLatestOrNewModifications(Material material, MaterialInstance materialInstance, File folder, Modifications list) {
-        List<Modification> newChanges = list.isEmpty() ?
-                materialChecker.findLatestModification(folder, material, subprocessExecutionContext) :
-                materialService.modificationsSince(material, folder, list.latestRevision(material), subprocessExecutionContext);
+        List<Modification> newChanges = sharedGitObjectStore.canHandle(material) ?
+                modificationsFromSharedStore((GitMaterial) material, list) :
+                modificationsFromWorkingDirectory(material, folder, list);
         if (!newChanges.isEmpty()) {
             LOGGER.info("[Material Update] Found '{}' modifications for material '{}' with flyweight '{}' using working directory '{}'", newChanges.size(), material, material.getFingerprint(), folder.getAbsolutePath());
 
@@ -63,6 +67,24 @@ class ScmMaterialUpdater implements MaterialUpdater {
         }
     }
 
+    private List<Modification> modificationsFromWorkingDirectory(Material material, File folder, Modifications list) {
+        return list.isEmpty() ?
+                materialChecker.findLatestModification(folder, material, subprocessExecutionContext) :
+                materialService.modificationsSince(material, folder, list.latestRevision(material), subprocessExecutionContext);
+    }
+
+    private List<Modification> modificationsFromSharedStore(GitMaterial material, Modifications list) {
+        if (!list.isEmpty()) {
+            return sharedGitObjectStore.modificationsSince(material, list.latestRevision(material));
+        }
+        List<Modification> modifications = sharedGitObjectStore.latestModification(material);
+        if (modifications.isEmpty()) {
+            throw new RuntimeException(
+                    String.format("Latest modifications check for the material '%s' returned an empty modification list. This might be because the material might be wrongly configured.", material));
+        }
+        return modifications;
+    }
+
     @Override
     public void addNewMaterialWithModifications(Material material, File folder) {
         MaterialRevisions materialRevisions = materialRepository.findLatestModification(material);
@@ -0,0 +1,114 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.thoughtworks.go.config.materials.git.GitMaterial;
+import com.thoughtworks.go.domain.materials.Material;
+import com.thoughtworks.go.domain.materials.Modification;
+import com.thoughtworks.go.domain.materials.Revision;
+import com.thoughtworks.go.server.service.SecretParamResolver;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.thoughtworks.go.config.materials.git.RefSpecHelper.hasRefSpec;
+import static com.thoughtworks.go.util.CachedDigestUtils.sha256Hex;
+
+/**
+ * Understands how to discover modifications for git materials using one bare repository per remote URL, so that
+ * materials which only differ by branch or filter share a single object store and a single fetch.
+ */
+@Component
+public class SharedGitObjectStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedGitObjectStore.class);
+    static final File SHARED_REPOSITORIES_ROOT = new File("pipelines", "shared-git");
+
+    private final SecretParamResolver secretParamResolver;
+    private final SystemEnvironment systemEnvironment;
+    private final Clock clock;
+    private final ConcurrentMap<String, SharedRepository> repositories = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SharedGitObjectStore(SecretParamResolver secretParamResolver, SystemEnvironment systemEnvironment, Clock clock) {
+        this.secretParamResolver = secretParamResolver;
+        this.systemEnvironment = systemEnvironment;
+        this.clock = clock;
+    }
+
+    public boolean canHandle(Material material) {
+        return systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_OBJECT_STORE)
+            && material instanceof GitMaterial git
+            && git.getSubmoduleFolder() == null
+            && !hasRefSpec(git.getBranch());
+    }
+
+    public List<Modification> latestModification(GitMaterial material) {
+        SharedRepository repository = fetch(material);
+        return material.latestModificationInSharedRepository(repository.folder);
+    }
+
+    public List<Modification> modificationsSince(GitMaterial material, Revision revision) {
+        SharedRepository repository = fetch(material);
+        return material.modificationsSinceInSharedRepository(repository.folder, revision);
+    }
+
+    private SharedRepository fetch(GitMaterial material) {
+        secretParamResolver.resolve(material);
+
+        long requestedAt = clock.currentTimeMillis();
+        SharedRepository repository = repositories.computeIfAbsent(keyFor(material), SharedRepository::new);
+
+        repository.lock.lock();
+        try {
+            long fetchWindow = systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_FETCH_WINDOW_IN_MILLIS);
+            if (repository.lastFetchStartedAt != 0 && repository.lastFetchStartedAt >= requestedAt - fetchWindow) {
+                LOGGER.debug("[Material Update] Reusing fetch of shared repository '{}' for material '{}'", repository.folder, material);
+                return repository;
+            }
+
+            long startedAt = clock.currentTimeMillis();
+            material.fetchIntoSharedRepository(repository.folder);
+            repository.lastFetchStartedAt = startedAt;
+            return repository;
+        } finally {
+            repository.lock.unlock();
+        }
+    }
+
+    // Credentials are deliberately left out; they are only ever passed on the command line of each fetch
+    private String keyFor(GitMaterial material) {
+        return sha256Hex(material.getUrlArgument().originalArgument() + "/" + material.getUserName());
+    }
+
+    private static class SharedRepository {
+        private final File folder;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastFetchStartedAt;
+
+        private SharedRepository(String key) {
+            this.folder = new File(SHARED_REPOSITORIES_ROOT, key);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.thoughtworks.go.util.SystemEnvironment.*;
+
+/**
+ * Keeps track of the notifications posted to each notification plugin which the plugin has not been sent yet.
+ * Optionally coalesces agent status notifications, so that an agent whose status changes several times before its
+ * plugin catches up is only reported once with its latest status ({@code plugins.notification.agent.status.coalesce}),
+ * and drops agent status notifications for a plugin which already has too many notifications pending
+ * ({@code plugins.notification.max.pending.messages}). Stage status notifications are never coalesced or dropped.
+ */
+@Component
+public class PluginNotificationBacklog {
+    private final SystemEnvironment systemEnvironment;
+    private final Clock clock;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<String, Backlog> backlogs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PluginNotificationBacklog(SystemEnvironment systemEnvironment, Clock clock) {
+        this.systemEnvironment = systemEnvironment;
+        this.clock = clock;
+    }
+
+    /**
+     * @return whether the message needs to be posted to the plugin's queue, {@code false} if it was coalesced into a
+     * message which is already pending, or dropped.
+     */
+    public boolean admit(PluginNotificationMessage<?> message) {
+        Backlog backlog = backlogs.computeIfAbsent(message.pluginId(), pluginId -> new Backlog());
+        long now = clock.currentTimeMillis();
+        backlog.forgetExpired(now - systemEnvironment.get(NOTIFICATION_PLUGIN_MESSAGES_TTL_IN_MILLIS));
+        message.posted(sequence.incrementAndGet(), now);
+
+        if (!(message.getData() instanceof AgentNotificationData agent)) {
+            backlog.undelivered.put(message.sequence(), now);
+            return true;
+        }
+
+        if (systemEnvironment.get(NOTIFICATION_PLUGIN_COALESCE_AGENT_STATUS)) {
+            boolean[] post = {false};
+            backlog.latestAgentStatus.compute(agent.getUuid(), (uuid, pending) -> {
+                if (pending != null && backlog.undelivered.containsKey(pending.carrier())) {
+                    backlog.coalesced.increment();
+                    return new PendingAgentStatus(pending.carrier(), message);
+                }
+                post[0] = admitAgentStatus(backlog, message);
+                return post[0] ? new PendingAgentStatus(message.sequence(), message) : null;
+            });
+            return post[0];
+        }
+
+        return admitAgentStatus(backlog, message);
+    }
+
+    /**
+     * @return the message to send to the plugin in place of the one taken off its queue, which is the latest status
+     * of the agent when agent status notifications are coalesced.
+     */
+    public PluginNotificationMessage<?> delivering(PluginNotificationMessage<?> message) {
+        Backlog backlog = backlogs.computeIfAbsent(message.pluginId(), pluginId -> new Backlog());
+        PluginNotificationMessage<?>[] toDeliver = new PluginNotificationMessage<?>[]{message};
+
+        if (message.getData() instanceof AgentNotificationData agent) {
+            backlog.latestAgentStatus.computeIfPresent(agent.getUuid(), (uuid, pending) -> {
+                if (pending.carrier() != message.sequence()) {
+                    return pending;
+                }
+                toDeliver[0] = pending.latest();
+                return null;
+            });
+        }
+
+        backlog.undelivered.remove(message.sequence());
+        backlog.delivered.increment();
+        if (message.postedAt() > 0) {
+            long lag = clock.currentTimeMillis() - message.postedAt();
+            backlog.lastLag.set(lag);
+            backlog.maxLag.accumulate(lag);
+        }
+        return toDeliver[0];
+    }
+
+    public Map<String, Map<String, Object>> statistics() {
+        long expiredBefore = clock.currentTimeMillis() - systemEnvironment.get(NOTIFICATION_PLUGIN_MESSAGES_TTL_IN_MILLIS);
+        Map<String, Map<String, Object>> statistics = new TreeMap<>();
+        backlogs.forEach((pluginId, backlog) -> {
+            backlog.forgetExpired(expiredBefore);
+            statistics.put(pluginId, backlog.statistics());
+        });
+        return statistics;
+    }
+
+    private boolean admitAgentStatus(Backlog backlog, PluginNotificationMessage<?> message) {
+        int maxPending = systemEnvironment.get(NOTIFICATION_PLUGIN_MAX_PENDING_MESSAGES);
+        if (maxPending > 0 && backlog.undelivered.size() >= maxPending) {
+            backlog.dropped.increment();
+            return false;
+        }
+        backlog.undelivered.put(message.sequence(), message.postedAt());
+        return true;
+    }
+
+    private record PendingAgentStatus(long carrier, PluginNotificationMessage<?> latest) {
+    }
+
+    private static class Backlog {
+        // sequence of each message posted to the plugin's queue and not yet taken off it -> when it was posted
+        private final ConcurrentSkipListMap<Long, Long> undelivered = new ConcurrentSkipListMap<>();
+        private final ConcurrentMap<String, PendingAgentStatus> latestAgentStatus = new ConcurrentHashMap<>();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final AtomicLong lastLag = new AtomicLong();
+        private final LongAccumulator maxLag = new LongAccumulator(Math::max, 0);
+
+        // messages which outlive their time to live are discarded by the queue without ever reaching the listener
+        private void forgetExpired(long postedBefore) {
+            Map.Entry<Long, Long> oldest;
+            while ((oldest = undelivered.firstEntry()) != null && oldest.getValue() < postedBefore) {
+                undelivered.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+
+        private Map<String, Object> statistics() {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("Pending notifications", undelivered.size());
+            statistics.put("Delivered notifications", delivered.sum());
+            statistics.put("Coalesced agent status notifications", coalesced.sum());
+            statistics.put("Dropped agent status notifications", dropped.sum());
+            statistics.put("Last delivery lag in millis", lastLag.get());
+            statistics.put("Max delivery lag in millis", maxLag.get());
+            return statistics;
+        }
+    }
+}
@@ -24,6 +24,8 @@ public class PluginNotificationMessage<T extends Serializable> implements Plugin
     private String pluginId;
     private final String requestName;
     private final T data;
+    private long sequence;
+    private long postedAt;
 
     public PluginNotificationMessage(String pluginId, String requestName, T data) {
         this.pluginId = pluginId;
@@ -39,6 +41,19 @@ public class PluginNotificationMessage<T extends Serializable> implements Plugin
         return data;
     }
 
+    void posted(long sequence, long postedAt) {
+        this.sequence = sequence;
+        this.postedAt = postedAt;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long postedAt() {
+        return postedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
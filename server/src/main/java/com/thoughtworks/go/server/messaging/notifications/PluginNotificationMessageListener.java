@@ -31,14 +31,17 @@ public class PluginNotificationMessageListener implements GoMessageListener<Plug
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginNotificationMessageListener.class);
     private final NotificationExtension notificationExtension;
     private final ServerHealthService serverHealthService;
+    private final PluginNotificationBacklog backlog;
 
-    public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService) {
+    public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService, PluginNotificationBacklog backlog) {
         this.notificationExtension = notificationExtension;
         this.serverHealthService = serverHealthService;
+        this.backlog = backlog;
     }
 
     @Override
-    public void onMessage(PluginNotificationMessage<?> message) {
+    public void onMessage(PluginNotificationMessage<?> queuedMessage) {
+        PluginNotificationMessage<?> message = backlog.delivering(queuedMessage);
         HealthStateScope scope = HealthStateScope.aboutPlugin(message.pluginId());
         try {
             if (LOGGER.isDebugEnabled()) {
@@ -30,10 +30,12 @@ import java.util.Map;
 @Component
 public class PluginNotificationsQueueHandler extends PluginAwareMessageQueueHandler<PluginNotificationMessage<?>> {
     private final static String QUEUE_NAME_PREFIX = PluginNotificationsQueueHandler.class.getSimpleName() + ".";
+    private final PluginNotificationBacklog backlog;
 
     @Autowired
     public PluginNotificationsQueueHandler(final MessagingService<GoMessage> messaging, NotificationExtension notificationExtension,
-        PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
+        PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService,
+        PluginNotificationBacklog backlog) {
         super(notificationExtension, messaging, pluginManager, new QueueFactory<PluginNotificationMessage<?>>() {
             @Override
             public PluginAwareMessageQueue<PluginNotificationMessage<?>> create(GoPluginDescriptor pluginDescriptor) {
@@ -43,9 +45,17 @@ public class PluginNotificationsQueueHandler extends PluginAwareMessageQueueHand
             }
 
             public ListenerFactory<PluginNotificationMessage<?>> listener() {
-                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService, backlog);
             }
         });
+        this.backlog = backlog;
+    }
+
+    @Override
+    public void post(PluginNotificationMessage<?> message, long timeToLive) {
+        if (backlog.admit(message)) {
+            super.post(message, timeToLive);
+        }
     }
 
     @TestOnly
@@ -109,4 +109,11 @@ public class SchedulingPerformanceLogger {
             performanceLogger.debug("SCH-SCHEDULED {} {} {} {}", pipelineName, toBeScheduledQueueSize, schedulePipelineStartTime, schedulePipelineEndTime);
         }
     }
+
+    public void scheduledPipelines(int toBeScheduledCount, int scheduledCount, long passStartTime, long passEndTime) {
+        if (performanceLogger.isDebugEnabled()) {
+            long elapsed = Math.max(passEndTime - passStartTime, 1);
+            performanceLogger.debug("SCH-SCHEDULED-PASS {} {} {} {} {}", toBeScheduledCount, scheduledCount, passStartTime, passEndTime, scheduledCount * 1000 / elapsed);
+        }
+    }
 }
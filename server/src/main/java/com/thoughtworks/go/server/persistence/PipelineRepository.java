@@ -138,6 +138,11 @@ public class PipelineRepository extends HibernateDaoSupport {
 
                     lastEntry.addRevision(fingerprint(row), rev(row));
                 }
+
+                // The timeline holds on to these for every pipeline run, and most lists hold a single revision
+                for (PipelineTimelineEntry newPipeline : newPipelines) {
+                    newPipeline.revisions().replaceAll((fingerprint, revisions) -> List.copyOf(revisions));
+                }
                 return newPipelines;
             }
 
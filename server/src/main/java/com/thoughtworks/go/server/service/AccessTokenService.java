@@ -15,6 +15,9 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.thoughtworks.go.config.exceptions.ConflictException;
 import com.thoughtworks.go.config.exceptions.EntityType;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
@@ -24,18 +27,26 @@ import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.exceptions.InvalidAccessTokenException;
 import com.thoughtworks.go.server.exceptions.RevokedAccessTokenException;
 import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.StringUtils.substring;
 
 @Service
@@ -47,12 +58,29 @@ public class AccessTokenService {
     private final AccessTokenDao accessTokenDao;
     private final SecurityService securityService;
     private final ConcurrentMap<Long, Timestamp> accessTokenIdToLastUsedTimestampCache = new ConcurrentHashMap<>();
+    // tokens which have already been checked against their digest, by a keyed hash of the token presented
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final SecretKeySpec verifiedTokenKey;
 
     @Autowired
-    public AccessTokenService(AccessTokenDao accessTokenDao, Clock clock, SecurityService securityService) {
+    public AccessTokenService(AccessTokenDao accessTokenDao, Clock clock, SecurityService securityService, SystemEnvironment systemEnvironment) {
+        this(accessTokenDao, clock, securityService, systemEnvironment, Ticker.systemTicker());
+    }
+
+    AccessTokenService(AccessTokenDao accessTokenDao, Clock clock, SecurityService securityService, SystemEnvironment systemEnvironment, Ticker ticker) {
         this.accessTokenDao = accessTokenDao;
         this.timeProvider = clock;
         this.securityService = securityService;
+
+        int timeToLiveInSeconds = systemEnvironment.get(SystemEnvironment.GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_TTL_IN_SECONDS);
+        this.verifiedTokens = timeToLiveInSeconds <= 0 ? null : Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(Duration.ofSeconds(timeToLiveInSeconds))
+                .maximumSize(systemEnvironment.get(SystemEnvironment.GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_SIZE))
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.verifiedTokenKey = new SecretKeySpec(key, "HmacSHA256");
     }
 
     public AccessToken.AccessTokenWithDisplayValue create(String description, String username, String authConfigId) {
@@ -103,9 +131,7 @@ public class AccessTokenService {
             throw new InvalidAccessTokenException();
         }
 
-        boolean isValid = token.isValidToken(actualToken);
-
-        if (!isValid) {
+        if (!isValid(token, actualToken)) {
             throw new InvalidAccessTokenException();
         }
 
@@ -136,6 +162,7 @@ public class AccessTokenService {
         ACCESS_TOKEN_LOGGER.debug("[Access Token] Revoking access token with id: '{}' for user '{}' with revoked cause '{}'.", fetchedAccessToken.getId(), username, revokeCause);
         fetchedAccessToken.revoke(username, revokeCause, timeProvider.currentSqlTimestamp());
         accessTokenDao.saveOrUpdate(fetchedAccessToken);
+        forgetVerificationsOf(fetchedAccessToken);
 
         ACCESS_TOKEN_LOGGER.debug("[Access Token] Done revoking access token with id: '{}' for user '{}' with revoked cause '{}'.", fetchedAccessToken.getId(), username, revokeCause);
 
@@ -176,6 +203,44 @@ public class AccessTokenService {
         accessTokenDao.updateLastUsedTime(dataInCache);
     }
 
+    /*
+     * Skips deriving the digest of a token which was found valid recently. Only the outcome of comparing the token with
+     * its digest is remembered; the token itself is still loaded on every call, so revocation takes effect at once.
+     */
+    private boolean isValid(AccessToken token, String actualToken) {
+        if (verifiedTokens == null) {
+            return token.isValidToken(actualToken);
+        }
+
+        String key = keyedHashOf(actualToken);
+        VerifiedToken verified = verifiedTokens.getIfPresent(key);
+        if (verified != null && verified.matches(token)) {
+            return true;
+        }
+
+        boolean isValid = token.isValidToken(actualToken);
+        if (isValid) {
+            verifiedTokens.put(key, new VerifiedToken(token.getId(), token.getValue()));
+        }
+        return isValid;
+    }
+
+    private void forgetVerificationsOf(AccessToken token) {
+        if (verifiedTokens != null) {
+            verifiedTokens.asMap().values().removeIf(verified -> verified.id() == token.getId());
+        }
+    }
+
+    private String keyedHashOf(String actualToken) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(verifiedTokenKey);
+            return HexFormat.of().formatHex(mac.doFinal(actualToken.getBytes(UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Map<Long, Timestamp> cloneAndClearCache() {
         synchronized (accessTokenIdToLastUsedTimestampCache) {
             Map<Long, Timestamp> dataInCache = new HashMap<>(accessTokenIdToLastUsedTimestampCache);
@@ -183,4 +248,10 @@ public class AccessTokenService {
             return dataInCache;
         }
     }
+
+    private record VerifiedToken(long id, String digest) {
+        private boolean matches(AccessToken token) {
+            return id == token.getId() && digest.equals(token.getValue());
+        }
+    }
 }
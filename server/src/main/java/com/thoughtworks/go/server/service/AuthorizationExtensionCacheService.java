@@ -15,71 +15,130 @@
  */
 package com.thoughtworks.go.server.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Ticker;
 import com.thoughtworks.go.config.PluginRoleConfig;
 import com.thoughtworks.go.config.SecurityAuthConfig;
 import com.thoughtworks.go.plugin.access.authorization.AuthorizationExtension;
-import com.thoughtworks.go.server.cache.CacheKeyGenerator;
 import com.thoughtworks.go.util.SystemEnvironment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+/**
+ * Caches answers from authorization plugins. Concurrent lookups of the same user wait for a single plugin call. When
+ * {@code go.server.authorization.extension.calls.refresh.after.in.secs} is set to less than the cache timeout, a
+ * lookup of an answer older than that is served from the cache while the answer is refreshed in the background on a
+ * small, bounded pool of threads. A refresh asks the plugin with the auth config and roles of the current config.
+ * The pool is only started when refreshing is turned on, and is shut down with the service.
+ */
 @Component
 public class AuthorizationExtensionCacheService {
-    private final Cache<String, Boolean> isValidUserCache;
-    private final Cache<String, List<String>> getUserRolesCache;
+    private final LoadingCache<ValidUserLookup, Boolean> isValidUserCache;
+    private final LoadingCache<UserRolesLookup, List<String>> getUserRolesCache;
     private final AuthorizationExtension authorizationExtension;
-    private final CacheKeyGenerator cacheKeyGenerator;
+    private final GoConfigService goConfigService;
+    private final Executor refreshExecutor;
+
+    public AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension, GoConfigService goConfigService, Ticker ticker) {
+        this(authorizationExtension, goConfigService, ticker, SystemEnvironment.GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_REFRESH_AFTER_IN_SECONDS.getValue());
+    }
 
-    public AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension, Ticker ticker) {
+    private AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension, GoConfigService goConfigService, Ticker ticker, int refreshAfterSeconds) {
+        this(authorizationExtension, goConfigService, ticker, refreshAfterSeconds,
+                refreshesInBackground(refreshAfterSeconds) ? refreshExecutor(SystemEnvironment.GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_REFRESH_THREADS.getValue()) : null);
+    }
+
+    AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension, GoConfigService goConfigService, Ticker ticker,
+                                       int refreshAfterSeconds, Executor refreshExecutor) {
         this.authorizationExtension = authorizationExtension;
-        isValidUserCache = Caffeine.newBuilder()
-                .ticker(ticker).expireAfterWrite(SystemEnvironment.getGoServerAuthorizationExtensionCallsCacheTimeoutInSeconds(), TimeUnit.SECONDS).build();
-        getUserRolesCache = Caffeine.newBuilder()
-                .ticker(ticker).expireAfterWrite(SystemEnvironment.getGoServerAuthorizationExtensionCallsCacheTimeoutInSeconds(), TimeUnit.SECONDS).build();
-        this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
+        this.goConfigService = goConfigService;
+        this.refreshExecutor = refreshExecutor;
+        isValidUserCache = cache(ticker, refreshAfterSeconds, refreshExecutor, this::askWhetherUserIsValid);
+        getUserRolesCache = cache(ticker, refreshAfterSeconds, refreshExecutor, this::askForUserRoles);
     }
 
     @Autowired
-    public AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension) {
-        this(authorizationExtension, Ticker.systemTicker());
+    public AuthorizationExtensionCacheService(AuthorizationExtension authorizationExtension, GoConfigService goConfigService) {
+        this(authorizationExtension, goConfigService, Ticker.systemTicker());
     }
 
     public boolean isValidUser(String pluginId, String username, SecurityAuthConfig authConfig) {
-        String cacheKey = cacheKeyGenerator.generate("AuthorizationExtension_isValidUser", pluginId, username, authConfig.getId());
-        Boolean fromCache = isValidUserCache.getIfPresent(cacheKey);
+        return isValidUserCache.get(new ValidUserLookup(pluginId, username, authConfig.getId()));
+    }
+
+    public List<String> getUserRoles(String pluginId, String username, SecurityAuthConfig authConfig, List<PluginRoleConfig> pluginRoleConfigs) {
+        Map<String, Map<String, String>> roleConfigurations = pluginRoleConfigs.stream()
+                .collect(Collectors.toMap(role -> role.getName().toString(), role -> role.getConfigurationAsMap(true), (first, second) -> first, TreeMap::new));
+        return getUserRolesCache.get(new UserRolesLookup(pluginId, username, authConfig.getId(), roleConfigurations));
+    }
+
+    public void invalidateCache() {
+        isValidUserCache.invalidateAll();
+        getUserRolesCache.invalidateAll();
+    }
 
-        if (fromCache == null) {
-            fromCache = authorizationExtension.isValidUser(pluginId, username, authConfig);
-            isValidUserCache.put(cacheKey, fromCache);
+    @PreDestroy
+    public void destroy() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
         }
+    }
 
-        return fromCache;
+    private boolean askWhetherUserIsValid(ValidUserLookup lookup) {
+        SecurityAuthConfig authConfig = currentAuthConfig(lookup.authConfigId());
+        return authConfig != null && authorizationExtension.isValidUser(lookup.pluginId(), lookup.username(), authConfig);
     }
 
-    public List<String> getUserRoles(String pluginId, String username, SecurityAuthConfig authConfig, List<PluginRoleConfig> pluginRoleConfigs) {
-        String roleConfigNames = pluginRoleConfigs.stream().map(role -> role.getName().toString()).sorted().collect(Collectors.joining("&&"));
-        String cacheKey = cacheKeyGenerator.generate("AuthorizationExtension_GetUserRoles", pluginId, username, authConfig.getId(), roleConfigNames);
+    private List<String> askForUserRoles(UserRolesLookup lookup) {
+        SecurityAuthConfig authConfig = currentAuthConfig(lookup.authConfigId());
+        if (authConfig == null) {
+            return List.of();
+        }
+        List<PluginRoleConfig> pluginRoleConfigs = goConfigService.security().getRoles().pluginRoleConfigsFor(lookup.authConfigId());
+        return authorizationExtension.getUserRoles(lookup.pluginId(), lookup.username(), authConfig, pluginRoleConfigs);
+    }
 
-        List<String> rolesFromCache = getUserRolesCache.getIfPresent(cacheKey);
+    private SecurityAuthConfig currentAuthConfig(String authConfigId) {
+        return goConfigService.security().securityAuthConfigs().find(authConfigId);
+    }
 
-        if (rolesFromCache == null) {
-            rolesFromCache = authorizationExtension.getUserRoles(pluginId, username, authConfig, pluginRoleConfigs);
-            getUserRolesCache.put(cacheKey, rolesFromCache);
+    private static <K, V> LoadingCache<K, V> cache(Ticker ticker, int refreshAfterSeconds, Executor refreshExecutor, CacheLoader<K, V> loader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .ticker(ticker).expireAfterWrite(SystemEnvironment.getGoServerAuthorizationExtensionCallsCacheTimeoutInSeconds(), TimeUnit.SECONDS);
+        if (refreshesInBackground(refreshAfterSeconds)) {
+            builder.refreshAfterWrite(refreshAfterSeconds, TimeUnit.SECONDS).executor(refreshExecutor);
         }
+        return builder.build(loader);
+    }
 
-        return rolesFromCache;
+    private static boolean refreshesInBackground(int refreshAfterSeconds) {
+        return refreshAfterSeconds > 0 && refreshAfterSeconds < SystemEnvironment.getGoServerAuthorizationExtensionCallsCacheTimeoutInSeconds();
     }
 
-    public void invalidateCache() {
-        isValidUserCache.invalidateAll();
-        getUserRolesCache.invalidateAll();
+    private static ExecutorService refreshExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("authorization-extension-refresh-", 0).daemon().factory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
+    private record ValidUserLookup(String pluginId, String username, String authConfigId) {
+    }
+
+    // the configuration of the roles is part of the key, so that roles changed in the config are asked for afresh
+    private record UserRolesLookup(String pluginId, String username, String authConfigId, Map<String, Map<String, String>> roleConfigurations) {
+    }
 }
@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.thoughtworks.go.util.command.EnvironmentVariableContext.GO_ENVIRONMENT_NAME;
 import static java.lang.String.format;
@@ -172,57 +173,94 @@ public class BuildAssignmentService implements ConfigChangedListener {
             return new DeniedAgentWork(agent.getUuid());
         }
 
-        synchronized (this) {
-//          check to ensure agent is not disabled after entering the synchronized block
-            if (agent.isDisabled()) {
-                return new DeniedAgentWork(agent.getUuid());
-            }
-            //check if agent already has assigned build, if so, reschedule it
-            scheduleService.rescheduleAbandonedBuildIfNecessary(agent.getAgentIdentifier());
-            final JobPlan job = findMatchingJob(agent);
-            if (job != null) {
-                Work buildWork = createWork(agent, job);
-                AgentBuildingInfo buildingInfo = new AgentBuildingInfo(job.getIdentifier().buildLocatorForDisplay(), job.getIdentifier().buildLocator());
-                agentService.building(agent.getUuid(), buildingInfo);
-                if (!NO_WORK.equals(buildWork)) {
-                    LOGGER.info("[Agent Assignment] Assigned job [{}] to agent [{}]", job.getIdentifier(), agent.getAgent().getAgentIdentifier());
-                }
-                return buildWork;
-            }
+        if (!agent.isElastic()) {
+            return assign(agent, () -> findMatchingJob(agent));
+        }
+
+        // elastic agent plugins are consulted outside the lock, so that a slow plugin does not hold up assignment to every other agent
+        Work work = assignFirstAcceptedElasticJob(agent);
+        return work != null ? work : assign(agent, () -> null);
+    }
+
+    // the job is claimed and assigned under one lock, so that a reload of the job plans in between cannot queue it again
+    private synchronized Work assign(AgentInstance agent, Supplier<JobPlan> claimJob) {
+//      check to ensure agent is not disabled after entering the synchronized block
+        if (agent.isDisabled()) {
+            return new DeniedAgentWork(agent.getUuid());
         }
-        return NO_WORK;
+        //check if agent already has assigned build, if so, reschedule it
+        scheduleService.rescheduleAbandonedBuildIfNecessary(agent.getAgentIdentifier());
+        return assignJobToAgent(agent, claimJob.get());
     }
 
+    private synchronized Work assignIfStillQueued(AgentInstance agent, JobPlan jobPlan) {
+        if (agent.isDisabled()) {
+            return new DeniedAgentWork(agent.getUuid());
+        }
+        // another agent may have been handed the job while the plugin was being consulted, in which case the next job is tried
+        if (!jobPlans.contains(jobPlan)) {
+            return null;
+        }
+        return assign(agent, () -> claim(agent, jobPlan));
+    }
+
+    private Work assignJobToAgent(AgentInstance agent, JobPlan job) {
+        if (job == null) {
+            return NO_WORK;
+        }
+        Work buildWork = createWork(agent, job);
+        AgentBuildingInfo buildingInfo = new AgentBuildingInfo(job.getIdentifier().buildLocatorForDisplay(), job.getIdentifier().buildLocator());
+        agentService.building(agent.getUuid(), buildingInfo);
+        if (!NO_WORK.equals(buildWork)) {
+            LOGGER.info("[Agent Assignment] Assigned job [{}] to agent [{}]", job.getIdentifier(), agent.getAgent().getAgentIdentifier());
+        }
+        return buildWork;
+    }
+
+    // elastic agents are matched by assignFirstAcceptedElasticJob instead, as their plugins are consulted outside the lock
     @VisibleForTesting
-    JobPlan findMatchingJob(AgentInstance agent) {
-        List<JobPlan> filteredJobPlans = environmentConfigService.filterJobsByAgent(jobPlans, agent.getUuid());
-        JobPlan match = null;
-        if (!agent.isElastic()) {
-            match = agent.firstMatching(filteredJobPlans);
-        } else {
-            for (JobPlan jobPlan : filteredJobPlans) {
-                try {
-                    if (jobPlan.requiresElasticAgent() && elasticAgentPluginService.shouldAssignWork(agent.elasticAgentMetadata(), environmentConfigService.envForPipeline(jobPlan.getPipelineName()), jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier())) {
-                        match = jobPlan;
-                        break;
-                    }
-                } catch (RulesViolationException | SecretResolutionFailureException e) {
-                    JobInstance instance = jobInstanceService.buildById(jobPlan.getJobId());
-                    JobIdentifier jobIdentifier = jobPlan.getIdentifier();
-                    String failureMessage = format("""
-                        
-                        This job was failed by GoCD. This job is configured to run on an elastic agent, there were errors while resolving secrets for the the associated elastic configurations.
-                        Reasons: %s""", e.getMessage());
-                    consoleService.appendToConsoleLogSafe(jobIdentifier, failureMessage);
-                    scheduleService.failJob(instance);
-                    jobStatusTopic.post(new JobStatusMessage(jobIdentifier, instance.getState(), agent.getUuid()));
+    synchronized JobPlan findMatchingJob(AgentInstance agent) {
+        return claim(agent, agent.firstMatching(environmentConfigService.filterJobsByAgent(jobPlans, agent.getUuid())));
+    }
+
+    private Work assignFirstAcceptedElasticJob(AgentInstance agent) {
+        List<JobPlan> candidates;
+        synchronized (this) {
+            candidates = new ArrayList<>(environmentConfigService.filterJobsByAgent(jobPlans, agent.getUuid()));
+        }
+        for (JobPlan jobPlan : candidates) {
+            if (jobPlan.requiresElasticAgent() && elasticAgentAccepts(agent, jobPlan)) {
+                Work work = assignIfStillQueued(agent, jobPlan);
+                if (work != null) {
+                    return work;
                 }
             }
         }
-        if (match != null) {
-            jobPlans.remove(match);
+        return null;
+    }
+
+    private synchronized JobPlan claim(AgentInstance agent, JobPlan jobPlan) {
+        if (jobPlan == null || agent.isDisabled() || !jobPlans.remove(jobPlan)) {
+            return null;
+        }
+        return jobPlan;
+    }
+
+    private boolean elasticAgentAccepts(AgentInstance agent, JobPlan jobPlan) {
+        try {
+            return elasticAgentPluginService.shouldAssignWork(agent.elasticAgentMetadata(), environmentConfigService.envForPipeline(jobPlan.getPipelineName()), jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier());
+        } catch (RulesViolationException | SecretResolutionFailureException e) {
+            JobInstance instance = jobInstanceService.buildById(jobPlan.getJobId());
+            JobIdentifier jobIdentifier = jobPlan.getIdentifier();
+            String failureMessage = format("""
+                
+                This job was failed by GoCD. This job is configured to run on an elastic agent, there were errors while resolving secrets for the the associated elastic configurations.
+                Reasons: %s""", e.getMessage());
+            consoleService.appendToConsoleLogSafe(jobIdentifier, failureMessage);
+            scheduleService.failJob(instance);
+            jobStatusTopic.post(new JobStatusMessage(jobIdentifier, instance.getState(), agent.getUuid()));
+            return false;
         }
-        return match;
     }
 
     @SuppressWarnings("unused") // used by spring scheduler
@@ -242,7 +280,8 @@ public class BuildAssignmentService implements ConfigChangedListener {
                 elasticAgentPluginService.createAgentsFor(jobPlans, new ArrayList<>());
             } else {
                 List<JobPlan> old = jobPlans;
-                List<JobPlan> newPlan = jobInstanceService.orderedScheduledBuilds();
+                // Only jobs scheduled since the last reload are loaded, the plans of all other queued jobs are kept
+                List<JobPlan> newPlan = jobInstanceService.orderedScheduledBuilds(old);
                 jobPlans = newPlan;
                 elasticAgentPluginService.createAgentsFor(old, newPlan);
             }
@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.thoughtworks.go.config.security.users.Users;
 import com.thoughtworks.go.domain.activity.ProjectStatus;
 import com.thoughtworks.go.domain.cctray.CcTrayCache;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -22,7 +23,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -30,8 +36,12 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 
 @Service
 public class CcTrayService {
+    // upper bound on the size of all documents and ETags kept for the current statuses, in characters
+    private static final long MAX_CACHED_CHARS = 32 * 1024 * 1024;
+
     private final CcTrayCache ccTrayCache;
     private final GoConfigService goConfigService;
+    private volatile RenderedDocuments renderedDocuments = new RenderedDocuments(List.of());
 
     @Autowired
     public CcTrayService(CcTrayCache ccTrayCache, GoConfigService goConfigService) {
@@ -39,33 +49,122 @@ public class CcTrayService {
         this.goConfigService = goConfigService;
     }
 
+    /*
+     * The document for a set of statuses is only rendered once for every site URL prefix and every distinct set of
+     * projects which can be viewed, and reused until the statuses in the cache change.
+     */
     public Appendable renderCCTrayXML(String siteUrlPrefix, String userName, Appendable appendable, Consumer<String> etagConsumer) {
         boolean isSecurityEnabled = goConfigService.isSecurityEnabled();
         List<ProjectStatus> statuses = ccTrayCache.allEntriesInOrder();
+        RenderedDocuments documents = documentsFor(statuses);
 
-        String hashCodes = statuses.stream().map(ProjectStatus::hashCode).map(Object::toString).collect(Collectors.joining("/"));
-        String etag = DigestUtils.sha256Hex(siteUrlPrefix + "/" + hashCodes);
-        etagConsumer.accept(etag);
+        etagConsumer.accept(documents.etag(siteUrlPrefix));
 
         try {
-            appendable.append("""
+            appendable.append(documents.document(siteUrlPrefix, viewableBy(statuses, isSecurityEnabled, userName)));
+        } catch (IOException e) {
+            // ignore. `StringBuilder#append` does not throw
+        }
+
+        return appendable;
+    }
+
+    private RenderedDocuments documentsFor(List<ProjectStatus> statuses) {
+        RenderedDocuments documents = renderedDocuments;
+        if (documents.statuses != statuses) {
+            documents = new RenderedDocuments(statuses);
+            renderedDocuments = documents;
+        }
+        return documents;
+    }
+
+    private static BitSet viewableBy(List<ProjectStatus> statuses, boolean isSecurityEnabled, String userName) {
+        BitSet viewable = new BitSet(statuses.size());
+        if (!isSecurityEnabled) {
+            viewable.set(0, statuses.size());
+            return viewable;
+        }
+
+        // statuses of the pipelines in a group share the viewers of that group
+        Map<Users, Boolean> canView = new IdentityHashMap<>();
+        for (int i = 0; i < statuses.size(); i++) {
+            ProjectStatus status = statuses.get(i);
+            Users viewers = status.viewers();
+            boolean visible = viewers == null ? status.canBeViewedBy(userName) : canView.computeIfAbsent(viewers, users -> status.canBeViewedBy(userName));
+            viewable.set(i, visible);
+        }
+        return viewable;
+    }
+
+    private static class RenderedDocuments {
+        private final List<ProjectStatus> statuses;
+        private final Map<String, String> etags = new ConcurrentHashMap<>();
+        private final Map<DocumentKey, String> documents = new ConcurrentHashMap<>();
+        private final AtomicLong cachedChars = new AtomicLong();
+        private volatile String hashCodes;
+
+        private RenderedDocuments(List<ProjectStatus> statuses) {
+            this.statuses = statuses;
+        }
+
+        private String etag(String siteUrlPrefix) {
+            if (hashCodes == null) {
+                hashCodes = statuses.stream().map(ProjectStatus::hashCode).map(Object::toString).collect(Collectors.joining("/"));
+            }
+            String etag = etags.get(siteUrlPrefix);
+            if (etag != null) {
+                return etag;
+            }
+
+            // the prefix comes from the request, so the tags kept for it are counted against the same budget
+            etag = DigestUtils.sha256Hex(siteUrlPrefix + "/" + hashCodes);
+            if (reserve(siteUrlPrefix.length() + etag.length()) && etags.putIfAbsent(siteUrlPrefix, etag) != null) {
+                release(siteUrlPrefix.length() + etag.length());
+            }
+            return etag;
+        }
+
+        private String document(String siteUrlPrefix, BitSet viewable) {
+            DocumentKey key = new DocumentKey(siteUrlPrefix, viewable);
+            String document = documents.get(key);
+            if (document != null) {
+                return document;
+            }
+
+            document = render(siteUrlPrefix, viewable);
+            if (reserve(document.length()) && documents.putIfAbsent(key, document) != null) {
+                release(document.length());
+            }
+            return document;
+        }
+
+        private boolean reserve(long chars) {
+            if (cachedChars.addAndGet(chars) <= MAX_CACHED_CHARS) {
+                return true;
+            }
+            release(chars);
+            return false;
+        }
+
+        private void release(long chars) {
+            cachedChars.addAndGet(-chars);
+        }
+
+        private String render(String siteUrlPrefix, BitSet viewable) {
+            StringBuilder document = new StringBuilder("""
                 <?xml version="1.0" encoding="utf-8"?>
                 <Projects>
                 """);
-            for (ProjectStatus status : statuses) {
-                if (!isSecurityEnabled || status.canBeViewedBy(userName)) {
-                    String xmlRepresentation = status.xmlRepresentation().replaceAll(ProjectStatus.SITE_URL_PREFIX, siteUrlPrefix);
-                    if (!isBlank(xmlRepresentation)) {
-                        appendable.append("  ").append(xmlRepresentation).append('\n');
-                    }
+            for (int i = viewable.nextSetBit(0); i >= 0; i = viewable.nextSetBit(i + 1)) {
+                String xmlRepresentation = statuses.get(i).xmlRepresentation(siteUrlPrefix);
+                if (!isBlank(xmlRepresentation)) {
+                    document.append("  ").append(xmlRepresentation).append('\n');
                 }
             }
-
-            appendable.append("</Projects>");
-        } catch (IOException e) {
-            // ignore. `StringBuilder#append` does not throw
+            return document.append("</Projects>").toString();
         }
+    }
 
-        return appendable;
+    private record DocumentKey(String siteUrlPrefix, BitSet viewable) {
     }
 }
@@ -15,6 +15,8 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.thoughtworks.go.config.elastic.ClusterProfile;
 import com.thoughtworks.go.config.elastic.ElasticProfile;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
@@ -42,6 +44,7 @@ import com.thoughtworks.go.server.messaging.elasticagents.ServerPingQueueHandler
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
 import com.thoughtworks.go.util.Timeout;
 import org.apache.commons.collections4.SetUtils;
@@ -54,6 +57,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
@@ -85,6 +89,11 @@ public class ElasticAgentPluginService {
     private final SecretParamResolver secretParamResolver;
     private final JobInstanceSqlMapDao jobInstanceSqlMapDao;
     private final JobStatusTopic jobStatusTopic;
+    private final Duration acceptedAssignmentsTtl = Duration.ofSeconds(Math.max(SystemEnvironment.GO_SERVER_ELASTIC_AGENT_ASSIGNMENT_DECISION_CACHE_TTL_IN_SECONDS.getValue(), 0));
+    private final Cache<AssignmentDecisionKey, Boolean> acceptedAssignments = Caffeine.newBuilder()
+            .expireAfterWrite(acceptedAssignmentsTtl)
+            .maximumSize(10_000)
+            .build();
 
     @Value("${go.elasticplugin.heartbeat.interval}")
     private long elasticPluginHeartBeatInterval;
@@ -203,12 +212,10 @@ public class ElasticAgentPluginService {
         jobsThatRequireAgent.addAll(starvingJobs);
 
         List<JobPlan> plansThatRequireElasticAgent = jobsThatRequireAgent.stream().filter(isElasticAgent()).toList();
-//      messageTimeToLive is lesser than the starvation threshold to ensure there are no duplicate create agent message
-        long messageTimeToLive = goConfigService.elasticJobStarvationThreshold() - 10000;
 
+        Map<ElasticAgentDemand, List<JobPlan>> demand = new LinkedHashMap<>();
         for (JobPlan plan : plansThatRequireElasticAgent) {
             jobCreationTimeMap.put(plan.getJobId(), timeProvider.currentTimeMillis());
-            ElasticProfile elasticProfile = plan.getElasticProfile();
             ClusterProfile clusterProfile = plan.getClusterProfile();
             JobIdentifier jobIdentifier = plan.getIdentifier();
             if (clusterProfile == null) {
@@ -223,20 +230,7 @@ public class ElasticAgentPluginService {
                 scheduleService.cancelJob(jobIdentifier);
             } else if (elasticAgentPluginRegistry.has(clusterProfile.getPluginId())) {
                 String environment = environmentConfigService.envForPipeline(plan.getPipelineName());
-                try {
-                    resolveSecrets(clusterProfile, elasticProfile);
-                    createAgentQueue.post(new CreateAgentMessage(ephemeralAutoRegisterKeyService.autoRegisterKey(), environment, elasticProfile, clusterProfile, jobIdentifier), messageTimeToLive);
-                    serverHealthService.removeByScope(scopeForJob(jobIdentifier));
-                } catch (RulesViolationException | SecretResolutionFailureException e) {
-                    JobInstance jobInstance = jobInstanceSqlMapDao.buildById(plan.getJobId());
-                    String failureMessage = format("""
-                        
-                        This job was failed by GoCD. This job is configured to run on an elastic agent, there were errors while resolving secrets for the the associated elastic configurations.
-                        Reasons: %s""", e.getMessage());
-                    consoleService.appendToConsoleLogSafe(jobIdentifier, failureMessage);
-                    scheduleService.failJob(jobInstance);
-                    jobStatusTopic.post(new JobStatusMessage(jobIdentifier, jobInstance.getState(), plan.getAgentUuid()));
-                }
+                demand.computeIfAbsent(ElasticAgentDemand.of(plan, environment), key -> new ArrayList<>()).add(plan);
             } else {
                 String jobConfigIdentifier = jobIdentifier.jobConfigIdentifier().toString();
                 String description = format("Plugin [%s] associated with %s is missing. Either the plugin is not " +
@@ -247,13 +241,71 @@ public class ElasticAgentPluginService {
                 LOGGER.error(description);
             }
         }
+
+        demand.forEach(this::requestAgentsFor);
+    }
+
+    // Jobs which share profiles and an environment have their secrets resolved just once. Each job still gets its own
+    // message, so that the plugin's create agent threads work on them concurrently and each create call has the whole
+    // message time to live.
+    private void requestAgentsFor(ElasticAgentDemand demand, List<JobPlan> plans) {
+//      messageTimeToLive is lesser than the starvation threshold to ensure there are no duplicate create agent message
+        long messageTimeToLive = goConfigService.elasticJobStarvationThreshold() - 10000;
+        ElasticProfile elasticProfile = plans.getFirst().getElasticProfile();
+        ClusterProfile clusterProfile = plans.getFirst().getClusterProfile();
+        try {
+            resolveSecrets(clusterProfile, elasticProfile);
+            for (JobPlan plan : plans) {
+                JobIdentifier jobIdentifier = plan.getIdentifier();
+                createAgentQueue.post(new CreateAgentMessage(ephemeralAutoRegisterKeyService.autoRegisterKey(), demand.environment(), elasticProfile, clusterProfile, jobIdentifier), messageTimeToLive);
+                serverHealthService.removeByScope(scopeForJob(jobIdentifier));
+            }
+        } catch (RulesViolationException | SecretResolutionFailureException e) {
+            for (JobPlan plan : plans) {
+                JobIdentifier jobIdentifier = plan.getIdentifier();
+                JobInstance jobInstance = jobInstanceSqlMapDao.buildById(plan.getJobId());
+                String failureMessage = format("""
+                    
+                    This job was failed by GoCD. This job is configured to run on an elastic agent, there were errors while resolving secrets for the the associated elastic configurations.
+                    Reasons: %s""", e.getMessage());
+                consoleService.appendToConsoleLogSafe(jobIdentifier, failureMessage);
+                scheduleService.failJob(jobInstance);
+                jobStatusTopic.post(new JobStatusMessage(jobIdentifier, jobInstance.getState(), plan.getAgentUuid()));
+            }
+        }
     }
 
+    /**
+     * Asks the plugin whether the elastic agent can run the job. When
+     * {@code go.server.elastic.agent.assignment.decision.cache.ttl.in.secs} is set, a yes is remembered for that long
+     * for the same agent, job, environment and (unresolved) elastic and cluster profile configuration, so that asking
+     * again while the job is still queued does not cost another plugin round-trip. A no is never remembered, as the
+     * plugin may well say yes on the next work poll of the agent. Plugins tie an agent to the job it was created for,
+     * so the answer for one job is never reused for another.
+     */
     public boolean shouldAssignWork(ElasticAgentMetadata metadata, String environment, ElasticProfile elasticProfile, ClusterProfile clusterProfile, JobIdentifier identifier) {
         if (clusterProfile == null || !Strings.CS.equals(clusterProfile.getPluginId(), metadata.elasticPluginId())) {
             return false;
         }
 
+        if (acceptedAssignmentsTtl.isZero()) {
+            return askPluginWhetherToAssignWork(metadata, environment, elasticProfile, clusterProfile, identifier);
+        }
+
+        AssignmentDecisionKey key = new AssignmentDecisionKey(metadata, identifier, environment,
+                elasticProfile.getId(), elasticProfile.getConfigurationAsMap(true),
+                clusterProfile.getId(), clusterProfile.getConfigurationAsMap(true));
+        if (acceptedAssignments.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean accepted = askPluginWhetherToAssignWork(metadata, environment, elasticProfile, clusterProfile, identifier);
+        if (accepted) {
+            acceptedAssignments.put(key, true);
+        }
+        return accepted;
+    }
+
+    private boolean askPluginWhetherToAssignWork(ElasticAgentMetadata metadata, String environment, ElasticProfile elasticProfile, ClusterProfile clusterProfile, JobIdentifier identifier) {
         resolveSecrets(clusterProfile, elasticProfile);
         Map<String, String> clusterProfileProperties = clusterProfile.getConfigurationAsMap(true, true);
         GoPluginDescriptor pluginDescriptor = pluginManager.getPluginDescriptorFor(metadata.elasticPluginId());
@@ -386,4 +438,20 @@ public class ElasticAgentPluginService {
         }
         secretParamResolver.resolve(elasticProfile);
     }
+
+    private record ElasticAgentDemand(String clusterProfileId, Map<String, String> clusterProfileConfiguration,
+                                      String elasticProfileId, Map<String, String> elasticProfileConfiguration,
+                                      String environment) {
+        private static ElasticAgentDemand of(JobPlan plan, String environment) {
+            ClusterProfile clusterProfile = plan.getClusterProfile();
+            ElasticProfile elasticProfile = plan.getElasticProfile();
+            return new ElasticAgentDemand(clusterProfile.getId(), clusterProfile.getConfigurationAsMap(true),
+                    elasticProfile.getId(), elasticProfile.getConfigurationAsMap(true), environment);
+        }
+    }
+
+    private record AssignmentDecisionKey(ElasticAgentMetadata agent, JobIdentifier job, String environment,
+                                         String elasticProfileId, Map<String, String> elasticProfileConfiguration,
+                                         String clusterProfileId, Map<String, String> clusterProfileConfiguration) {
+    }
 }
@@ -52,9 +52,10 @@ public class GoDashboardService {
         List<GoDashboardEnvironment> environments = new ArrayList<>();
 
         final Users admins = superAdmins();
+        final Map<String, Boolean> viewableGroups = new HashMap<>();
 
         goConfigService.getEnvironments().forEach(environment -> {
-            GoDashboardEnvironment env = dashboardEnvironmentFor(environment, filter, user, admins, allPipelines);
+            GoDashboardEnvironment env = dashboardEnvironmentFor(environment, filter, user, admins, allPipelines, viewableGroups);
 
             if (env.hasPipelines()) {
                 environments.add(env);
@@ -82,6 +83,22 @@ public class GoDashboardService {
         return pipelineGroups;
     }
 
+    /**
+     * @return the version of the dashboard which the pipeline groups and environments are currently built from
+     */
+    public long dashboardVersion() {
+        return cache.allEntries().lastUpdatedTimeStamp();
+    }
+
+    /**
+     * @return the pipelines the user can see, through the given filter, which changed or went away after the given
+     * version of the dashboard
+     */
+    public GoDashboardChanges changesSince(long version, DashboardFilter filter, Username user) {
+        return cache.changesSince(version).filter(pipeline ->
+            filter.isPipelineVisible(pipeline.name()) && pipeline.canBeViewedBy(user.getUsername().toString()));
+    }
+
     public void updateCacheForPipeline(CaseInsensitiveString pipelineName) {
         PipelineConfigs group = goConfigService.findGroupByPipeline(pipelineName);
         if (group == null) {
@@ -105,14 +122,18 @@ public class GoDashboardService {
         return dashboardCurrentStateLoader.hasEverLoadedCurrentState();
     }
 
-    private GoDashboardEnvironment dashboardEnvironmentFor(EnvironmentConfig environment, DashboardFilter filter, Username user, Users allowedUsers, GoDashboardPipelines allPipelines) {
+    /*
+     * Every pipeline in a group shares the viewers of that group, so whether the user can view a pipeline is only
+     * worked out once for each group, no matter how many environments or pipelines of that group there are.
+     */
+    private GoDashboardEnvironment dashboardEnvironmentFor(EnvironmentConfig environment, DashboardFilter filter, Username user, Users allowedUsers, GoDashboardPipelines allPipelines, Map<String, Boolean> viewableGroups) {
         List<CaseInsensitiveString> pipelinesInEnv = environment.getPipelineNames();
         GoDashboardEnvironment env = new GoDashboardEnvironment(environment.name().toString(), allowedUsers, !pipelinesInEnv.isEmpty());
 
         pipelinesInEnv.forEach(pipelineName -> {
             GoDashboardPipeline pipeline = allPipelines.find(pipelineName);
 
-            if (null != pipeline && pipeline.canBeViewedBy(user.getUsername().toString()) && filter.isPipelineVisible(pipelineName)) {
+            if (null != pipeline && filter.isPipelineVisible(pipelineName) && canBeViewedBy(pipeline, user, viewableGroups)) {
                 env.addPipeline(pipeline);
             }
         });
@@ -120,6 +141,13 @@ public class GoDashboardService {
         return env;
     }
 
+    private boolean canBeViewedBy(GoDashboardPipeline pipeline, Username user, Map<String, Boolean> viewableGroups) {
+        if (pipeline.groupName() == null) {
+            return pipeline.canBeViewedBy(user.getUsername().toString());
+        }
+        return viewableGroups.computeIfAbsent(pipeline.groupName(), groupName -> pipeline.canBeViewedBy(user.getUsername().toString()));
+    }
+
     private GoDashboardPipelineGroup dashboardPipelineGroupFor(PipelineConfigs pipelineGroup, DashboardFilter filter, Username user, GoDashboardPipelines allPipelines) {
         Permissions groupPermissions = resolvePermissionsForPipelineGroup(pipelineGroup, allPipelines);
         GoDashboardPipelineGroup goDashboardPipelineGroup = new GoDashboardPipelineGroup(pipelineGroup.getGroup(), groupPermissions, !pipelineGroup.isEmpty());
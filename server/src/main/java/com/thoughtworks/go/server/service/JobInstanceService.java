@@ -169,6 +169,10 @@ public class JobInstanceService implements JobPlanLoader, ConfigChangedListener
         return jobInstanceDao.orderedScheduledBuilds();
     }
 
+    public List<JobPlan> orderedScheduledBuilds(List<JobPlan> alreadyLoaded) {
+        return jobInstanceDao.orderedScheduledBuilds(alreadyLoaded);
+    }
+
     public List<WaitingJobPlan> waitingJobPlans(Username username) {
         List<JobPlan> jobPlans = orderedScheduledBuilds();
         return jobPlans.stream()
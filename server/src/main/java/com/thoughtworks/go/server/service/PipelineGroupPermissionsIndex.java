@@ -0,0 +1,158 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.config.PipelineConfig;
+import com.thoughtworks.go.config.PipelineConfigs;
+import com.thoughtworks.go.listener.PluginRoleChangeListener;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Understands which pipeline groups of the current config a user may view or operate, kept as a bitset over those
+ * groups, so that checking one more pipeline or group for a user is a bit test rather than another walk over the
+ * authorization and roles of that group. Enabled by {@code go.server.permissions.index.enabled}.
+ * <p>
+ * The groups a user is granted are worked out the first time they are asked for, and are dropped along with the
+ * whole index once the config changes, or for a single user once the plugin roles of that user change.
+ */
+@Component
+public class PipelineGroupPermissionsIndex implements PluginRoleChangeListener {
+    public enum Permission {
+        VIEW, OPERATE
+    }
+
+    private final boolean enabled;
+    private volatile Snapshot snapshot;
+    // grants worked out while plugin roles of a user changed might be for the roles before the change
+    private final AtomicLong pluginRoleChanges = new AtomicLong();
+
+    @Autowired
+    public PipelineGroupPermissionsIndex(PluginRoleService pluginRoleService, SystemEnvironment systemEnvironment) {
+        this(systemEnvironment);
+        pluginRoleService.register(this);
+    }
+
+    PipelineGroupPermissionsIndex(SystemEnvironment systemEnvironment) {
+        this.enabled = systemEnvironment.get(SystemEnvironment.GO_SERVER_PERMISSIONS_INDEX_ENABLED);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasGroup(CruiseConfig cruiseConfig, String groupName) {
+        return snapshotOf(cruiseConfig).groupIndexes.containsKey(groupName.toLowerCase());
+    }
+
+    public String groupNameOf(CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
+        return snapshotOf(cruiseConfig).pipelineGroups.get(pipelineName);
+    }
+
+    /**
+     * @param grantedGroups supplies the test of whether a group is granted to the user, asked for only when the groups
+     *                      granted to the user with this permission are not known yet
+     */
+    public boolean isGranted(CruiseConfig cruiseConfig, String groupName, CaseInsensitiveString username, Permission permission,
+                             boolean everyoneIsAllowedIfNoAuthIsDefined, Supplier<Predicate<PipelineConfigs>> grantedGroups) {
+        Snapshot current = snapshotOf(cruiseConfig);
+        Integer groupIndex = current.groupIndexes.get(groupName.toLowerCase());
+        if (groupIndex == null) {
+            throw new IllegalArgumentException(String.format("Pipeline group '%s' is not part of the config", groupName));
+        }
+
+        Grant grant = new Grant(username, permission, everyoneIsAllowedIfNoAuthIsDefined);
+        BitSet granted = current.grants.get(grant);
+        if (granted == null) {
+            long pluginRoleChangesBefore = pluginRoleChanges.get();
+            granted = current.groupsMatching(grantedGroups.get());
+            if (pluginRoleChanges.get() == pluginRoleChangesBefore) {
+                current.grants.putIfAbsent(grant, granted);
+                if (pluginRoleChanges.get() != pluginRoleChangesBefore) {
+                    current.grants.remove(grant, granted);
+                }
+            }
+        }
+        return granted.get(groupIndex);
+    }
+
+    @Override
+    public void onPluginRoleChange() {
+        pluginRoleChanges.incrementAndGet();
+        snapshot = null;
+    }
+
+    @Override
+    public void onPluginRoleChangeFor(String username) {
+        pluginRoleChanges.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current != null) {
+            CaseInsensitiveString user = new CaseInsensitiveString(username);
+            current.grants.keySet().removeIf(grant -> grant.username().equals(user));
+        }
+    }
+
+    private Snapshot snapshotOf(CruiseConfig cruiseConfig) {
+        Snapshot current = snapshot;
+        if (current == null || current.cruiseConfig != cruiseConfig) {
+            current = new Snapshot(cruiseConfig);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private record Grant(CaseInsensitiveString username, Permission permission, boolean everyoneIsAllowedIfNoAuthIsDefined) {
+    }
+
+    private static class Snapshot {
+        private final CruiseConfig cruiseConfig;
+        private final List<PipelineConfigs> groups = new ArrayList<>();
+        private final Map<String, Integer> groupIndexes = new HashMap<>();
+        private final Map<CaseInsensitiveString, String> pipelineGroups = new HashMap<>();
+        private final ConcurrentMap<Grant, BitSet> grants = new ConcurrentHashMap<>();
+
+        private Snapshot(CruiseConfig cruiseConfig) {
+            this.cruiseConfig = cruiseConfig;
+            for (PipelineConfigs group : cruiseConfig.getGroups()) {
+                groupIndexes.putIfAbsent(group.getGroup().toLowerCase(), groups.size());
+                groups.add(group);
+                for (PipelineConfig pipeline : group) {
+                    pipelineGroups.putIfAbsent(pipeline.name(), group.getGroup());
+                }
+            }
+        }
+
+        private BitSet groupsMatching(Predicate<PipelineConfigs> grantedGroups) {
+            BitSet granted = new BitSet(groups.size());
+            for (int i = 0; i < groups.size(); i++) {
+                if (grantedGroups.test(groups.get(i))) {
+                    granted.set(i);
+                }
+            }
+            return granted;
+        }
+    }
+}
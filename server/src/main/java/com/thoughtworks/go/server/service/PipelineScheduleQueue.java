@@ -87,6 +87,10 @@ public class PipelineScheduleQueue {
         return new HashMap<>(toBeScheduled);
     }
 
+    public int numberOfPipelinesToBeScheduled() {
+        return toBeScheduled.size();
+    }
+
     public void finishSchedule(CaseInsensitiveString pipelineName, BuildCause buildCause, BuildCause newCause) {
         synchronized (mutexForPipelineName(pipelineName)) {
             if (buildCause.equals(toBeScheduled.get(pipelineName))) {
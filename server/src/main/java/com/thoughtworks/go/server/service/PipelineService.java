@@ -37,6 +37,8 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.OptionalInt;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.IntSupplier;
 
 import static com.thoughtworks.go.util.SystemEnvironment.RESOLVE_FANIN_MAX_BACK_TRACK_LIMIT;
@@ -54,6 +56,7 @@ public class PipelineService implements UpstreamPipelineResolver {
     private final MaterialRepository materialRepository;
     private final MaterialConfigConverter materialConfigConverter;
     private final IntSupplier maxBackTrackLimit;
+    private final ConcurrentMap<CaseInsensitiveString, FanInGraph> fanInGraphs = new ConcurrentHashMap<>();
 
     @Autowired
     public PipelineService(PipelineSqlMapDao pipelineDao, StageService stageService, PipelineLockService pipelineLockService, PipelineTimeline pipelineTimeline, MaterialRepository materialRepository,
@@ -208,12 +211,24 @@ public class PipelineService implements UpstreamPipelineResolver {
     /* DIAMOND BEGIN */
 
     public MaterialRevisions getRevisionsBasedOnDependencies(MaterialRevisions actualRevisions, CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
-        FanInGraph fanInGraph = new FanInGraph(cruiseConfig, pipelineName, materialRepository, pipelineDao, materialConfigConverter, maxBackTrackLimit);
+        FanInGraph fanInGraph = fanInGraphFor(cruiseConfig, pipelineName);
         final MaterialRevisions computedRevisions = fanInGraph.computeRevisions(actualRevisions, pipelineTimeline);
         fillUpNonOverridableRevisions(actualRevisions, computedRevisions);
         return restoreOriginalMaterialConfigAndMaterialOrderUsingFingerprint(actualRevisions, computedRevisions);
     }
 
+    private FanInGraph fanInGraphFor(CruiseConfig cruiseConfig, CaseInsensitiveString pipelineName) {
+        FanInGraph fanInGraph = fanInGraphs.get(pipelineName);
+        if (fanInGraph != null && fanInGraph.isBuiltFrom(cruiseConfig)) {
+            return fanInGraph;
+        }
+        // Graphs built from an older config are of no further use, and each of them would keep that config around
+        fanInGraphs.values().removeIf(graph -> !graph.isBuiltFrom(cruiseConfig));
+        fanInGraph = new FanInGraph(cruiseConfig, pipelineName, materialRepository, pipelineDao, materialConfigConverter, maxBackTrackLimit);
+        fanInGraphs.put(pipelineName, fanInGraph);
+        return fanInGraph;
+    }
+
     private void fillUpNonOverridableRevisions(MaterialRevisions actualRevisions, MaterialRevisions computedRevisions) {
         for (int i = 0; i < actualRevisions.numberOfRevisions(); i++) {
             MaterialRevision actualRev = actualRevisions.getMaterialRevision(i);
@@ -49,6 +49,7 @@ public class PluginRoleService implements ConfigChangedListener, PluginChangeLis
                 pluginRoleUsersStore.assignRole(username, pluginRoleConfig);
             }
         }
+        notifyListenersOfChangeFor(username);
     }
 
     public void register(PluginRoleChangeListener listener) {
@@ -61,6 +62,12 @@ public class PluginRoleService implements ConfigChangedListener, PluginChangeLis
         }
     }
 
+    private void notifyListenersOfChangeFor(String username) {
+        for (PluginRoleChangeListener listener : listeners) {
+            listener.onPluginRoleChangeFor(username);
+        }
+    }
+
     public void invalidateRolesFor(String pluginId) {
         List<PluginRoleConfig> pluginRoles = goConfigService.security().getPluginRoles(pluginId);
 
@@ -76,6 +83,7 @@ public class PluginRoleService implements ConfigChangedListener, PluginChangeLis
 
     public void revokeAllRolesFor(String username) {
         pluginRoleUsersStore.revokeAllRolesFor(username);
+        notifyListenersOfChangeFor(username);
     }
 
     @Override
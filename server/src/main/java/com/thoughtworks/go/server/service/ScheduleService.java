@@ -19,6 +19,8 @@ import com.thoughtworks.go.config.Agents;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.PipelineConfig;
 import com.thoughtworks.go.config.StageConfig;
+import com.thoughtworks.go.config.elastic.ClusterProfile;
+import com.thoughtworks.go.config.elastic.ElasticProfile;
 import com.thoughtworks.go.config.exceptions.NotAuthorizedException;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.config.exceptions.StageNotFoundException;
@@ -54,6 +56,7 @@ import org.springframework.transaction.support.TransactionSynchronizationAdapter
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
@@ -153,20 +156,32 @@ public class ScheduleService {
     public void autoSchedulePipelinesFromRequestBuffer() {
         synchronized (autoScheduleMutex) {
             try {
-                for (Entry<CaseInsensitiveString, BuildCause> entry : pipelineScheduleQueue.toBeScheduled().entrySet()) {
+                Map<CaseInsensitiveString, BuildCause> toBeScheduled = pipelineScheduleQueue.toBeScheduled();
+                if (toBeScheduled.isEmpty()) {
+                    return;
+                }
+
+                long batchStartTime = System.currentTimeMillis();
+                // Profiles are listed once for the whole pass rather than once per pipeline
+                Map<String, ElasticProfile> elasticProfiles = elasticProfileService.listAll();
+                Map<String, ClusterProfile> clusterProfiles = clusterProfilesService.listAll();
+                int scheduledCount = 0;
+                for (Entry<CaseInsensitiveString, BuildCause> entry : toBeScheduled.entrySet()) {
                     CaseInsensitiveString pipelineName = entry.getKey();
                     BuildCause buildCause = entry.getValue();
 
                     LOGGER.info("[Pipeline Schedule] Scheduling pipeline {} with build cause {}", pipelineName, buildCause);
 
                     long schedulingStartTime = System.currentTimeMillis();
-                    Pipeline pipeline = schedulePipeline(pipelineName, buildCause);
+                    Pipeline pipeline = schedulePipeline(pipelineName, buildCause, elasticProfiles, clusterProfiles);
                     long schedulingEndTime = System.currentTimeMillis();
 
                     if (pipeline != null) {
-                        schedulingPerformanceLogger.scheduledPipeline(pipelineName, pipelineScheduleQueue.toBeScheduled().size(), schedulingStartTime, schedulingEndTime);
+                        scheduledCount++;
+                        schedulingPerformanceLogger.scheduledPipeline(pipelineName, pipelineScheduleQueue.numberOfPipelinesToBeScheduled(), schedulingStartTime, schedulingEndTime);
                     }
                 }
+                schedulingPerformanceLogger.scheduledPipelines(toBeScheduled.size(), scheduledCount, batchStartTime, System.currentTimeMillis());
             } catch (Throwable e) {
                 LOGGER.error("[Pipeline Schedule] An exception occurred while scheduling the pipeline.", e);
             }
@@ -174,11 +189,17 @@ public class ScheduleService {
     }
 
     Pipeline schedulePipeline(final CaseInsensitiveString pipelineName, final BuildCause buildCause) {
+        return schedulePipeline(pipelineName, buildCause, elasticProfileService.listAll(), clusterProfilesService.listAll());
+    }
+
+    Pipeline schedulePipeline(final CaseInsensitiveString pipelineName, final BuildCause buildCause,
+                              Map<String, ElasticProfile> elasticProfiles, Map<String, ClusterProfile> clusterProfiles) {
         try {
             PipelineConfig pipelineConfig = goConfigService.pipelineConfigNamed(pipelineName);
 
             if (canSchedule(pipelineConfig)) {
-                final Pipeline pipelineInstance = pipelineScheduleQueue.createPipeline(buildCause, pipelineConfig, schedulingContext(buildCause.getApprover(), pipelineConfig, pipelineConfig.getFirst()),
+                SchedulingContext context = schedulingContext(buildCause.getApprover(), pipelineConfig, pipelineConfig.getFirst(), elasticProfiles, clusterProfiles);
+                final Pipeline pipelineInstance = pipelineScheduleQueue.createPipeline(buildCause, pipelineConfig, context,
                         goConfigService.getCurrentConfig().getMd5(), timeProvider);
                 serverHealthService.update(stageSchedulingSuccessfulState(pipelineName.toString(), CaseInsensitiveString.str(pipelineConfig.getFirst().name())));
                 return pipelineInstance;
@@ -237,8 +258,13 @@ public class ScheduleService {
     }
 
     private SchedulingContext schedulingContext(String username, PipelineConfig pipelineConfig, StageConfig stageConfig) {
+        return schedulingContext(username, pipelineConfig, stageConfig, elasticProfileService.listAll(), clusterProfilesService.listAll());
+    }
+
+    private SchedulingContext schedulingContext(String username, PipelineConfig pipelineConfig, StageConfig stageConfig,
+                                                Map<String, ElasticProfile> elasticProfiles, Map<String, ClusterProfile> clusterProfiles) {
         Agents availableAgents = environmentConfigService.agentsForPipeline(pipelineConfig.name());
-        SchedulingContext context = new DefaultSchedulingContext(username, availableAgents, elasticProfileService.listAll(), clusterProfilesService.listAll());
+        SchedulingContext context = new DefaultSchedulingContext(username, availableAgents, elasticProfiles, clusterProfiles);
         context = context.overrideEnvironmentVariables(pipelineConfig.getVariables());
         context = context.overrideEnvironmentVariables(stageConfig.getVariables());
         return context;
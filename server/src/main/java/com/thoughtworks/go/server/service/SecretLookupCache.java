@@ -0,0 +1,122 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.thoughtworks.go.config.SecretConfig;
+import com.thoughtworks.go.plugin.domain.secrets.Secret;
+import com.thoughtworks.go.security.CryptoException;
+import com.thoughtworks.go.security.GoCipher;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Remembers the values of secrets looked up from secrets plugins for a configurable while
+ * ({@code go.server.secrets.cache.ttl.in.secs}, disabled by default). Values are only ever held encrypted with the
+ * server's cipher, and concurrent lookups of the same secrets wait for a single plugin call instead of each making
+ * their own. Any change to a secret config's plugin or properties makes its cached secrets unreachable.
+ */
+@Component
+public class SecretLookupCache {
+    private final long timeToLiveInSeconds;
+    private final GoCipher goCipher;
+    private final AsyncCache<SecretKey, String> encryptedSecrets;
+
+    @Autowired
+    public SecretLookupCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment, new GoCipher(), Ticker.systemTicker());
+    }
+
+    SecretLookupCache(SystemEnvironment systemEnvironment, GoCipher goCipher, Ticker ticker) {
+        this.timeToLiveInSeconds = systemEnvironment.get(SystemEnvironment.GO_SERVER_SECRETS_CACHE_TTL_IN_SECONDS);
+        this.goCipher = goCipher;
+        this.encryptedSecrets = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(timeToLiveInSeconds, 0)))
+                .maximumSize(10_000)
+                .buildAsync();
+    }
+
+    public List<Secret> lookup(SecretConfig secretConfig, Set<String> keys, Function<Set<String>, List<Secret>> lookupSecrets) {
+        if (timeToLiveInSeconds <= 0) {
+            return lookupSecrets.apply(keys);
+        }
+
+        Map<String, String> configuration = secretConfig.getConfiguration().getConfigurationAsMap(true);
+        List<SecretKey> secretKeys = keys.stream().map(key -> new SecretKey(secretConfig.getId(), secretConfig.getPluginId(), configuration, key)).toList();
+        try {
+            return encryptedSecrets.getAll(secretKeys, (missing, executor) -> lookupAndEncrypt(missing, lookupSecrets))
+                    .join()
+                    .entrySet()
+                    .stream()
+                    .map(entry -> new Secret(entry.getKey().key(), decrypt(entry.getValue())))
+                    .toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Map<SecretKey, String>> lookupAndEncrypt(Set<? extends SecretKey> missing, Function<Set<String>, List<Secret>> lookupSecrets) {
+        try {
+            SecretKey any = missing.iterator().next();
+            Set<String> keys = missing.stream().map(SecretKey::key).collect(toSet());
+            Map<SecretKey, String> looked = lookupSecrets.apply(keys).stream()
+                    .collect(toMap(secret -> any.forKey(secret.getKey()), secret -> encrypt(secret.getValue())));
+            return CompletableFuture.completedFuture(looked);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private String encrypt(String value) {
+        try {
+            return goCipher.encrypt(value);
+        } catch (CryptoException e) {
+            throw new RuntimeException("Could not encrypt secret for caching", e);
+        }
+    }
+
+    private String decrypt(String value) {
+        try {
+            return goCipher.decrypt(value);
+        } catch (CryptoException e) {
+            throw new RuntimeException("Could not decrypt cached secret", e);
+        }
+    }
+
+    private record SecretKey(String secretConfigId, String pluginId, Map<String, String> configuration, String key) {
+        private SecretKey forKey(String otherKey) {
+            return new SecretKey(secretConfigId, pluginId, configuration, otherKey);
+        }
+    }
+}
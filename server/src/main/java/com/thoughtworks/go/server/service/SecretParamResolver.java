@@ -48,12 +48,14 @@ public class SecretParamResolver {
     private final SecretsExtension secretsExtension;
     private final GoConfigService goConfigService;
     private final RulesService rulesService;
+    private final SecretLookupCache secretLookupCache;
 
     @Autowired
-    public SecretParamResolver(SecretsExtension secretsExtension, GoConfigService goConfigService, RulesService rulesService) {
+    public SecretParamResolver(SecretsExtension secretsExtension, GoConfigService goConfigService, RulesService rulesService, SecretLookupCache secretLookupCache) {
         this.secretsExtension = secretsExtension;
         this.goConfigService = goConfigService;
         this.rulesService = rulesService;
+        this.secretLookupCache = secretLookupCache;
     }
 
     public void resolve(List<Material> materials) {
@@ -186,7 +188,9 @@ public class SecretParamResolver {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Resolving secret params '{}' using secret config '{}'", secretParamMap.keySet(), secretConfig.getId());
             }
-            List<Secret> resolvedSecrets = secretsExtension.lookupSecrets(secretConfig.getPluginId(), secretConfig, secretParamMap.keySet());
+            // all params referring to one secret config are looked up with a single plugin call
+            List<Secret> resolvedSecrets = secretLookupCache.lookup(secretConfig, secretParamMap.keySet(),
+                    keys -> secretsExtension.lookupSecrets(secretConfig.getPluginId(), secretConfig, keys));
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Resolved secret size '{}'", resolvedSecrets.size());
                 LOGGER.debug("Updating secret params '{}' with values.", secretParamMap.keySet());
@@ -25,6 +25,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static com.thoughtworks.go.util.SystemEnvironment.ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP;
 
@@ -32,15 +33,17 @@ import static com.thoughtworks.go.util.SystemEnvironment.ALLOW_EVERYONE_TO_VIEW_
 public class SecurityService {
     private final SystemEnvironment systemEnvironment;
     private final GoConfigService goConfigService;
+    private final PipelineGroupPermissionsIndex permissionsIndex;
 
     @Autowired
-    public SecurityService(GoConfigService goConfigService, SystemEnvironment systemEnvironment) {
+    public SecurityService(GoConfigService goConfigService, SystemEnvironment systemEnvironment, PipelineGroupPermissionsIndex permissionsIndex) {
         this.goConfigService = goConfigService;
         this.systemEnvironment = systemEnvironment;
+        this.permissionsIndex = permissionsIndex;
     }
 
     public boolean hasViewPermissionForPipeline(Username username, String pipelineName) {
-        String groupName = goConfigService.findGroupNameByPipeline(new CaseInsensitiveString(pipelineName));
+        String groupName = findGroupNameByPipeline(new CaseInsensitiveString(pipelineName));
         if (groupName == null) {
             return true;
         }
@@ -55,6 +58,12 @@ public class SecurityService {
         }
 
         CaseInsensitiveString username = new CaseInsensitiveString(userName);
+        if (permissionsIndex.isEnabled() && permissionsIndex.hasGroup(cruiseConfig, pipelineGroupName)) {
+            boolean everyoneIsAllowedToViewIfNoAuthIsDefined = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+            return permissionsIndex.isGranted(cruiseConfig, pipelineGroupName, username, PipelineGroupPermissionsIndex.Permission.VIEW, everyoneIsAllowedToViewIfNoAuthIsDefined,
+                    () -> groupsGranted(username, group -> group.hasViewPermission(username, new UserRoleMatcherImpl(cruiseConfig.server().security()), everyoneIsAllowedToViewIfNoAuthIsDefined)));
+        }
+
         if (isUserAdmin(new Username(username))) {
             return true;
         }
@@ -64,6 +73,20 @@ public class SecurityService {
         return isUserAdminOfGroup(username, group) || group.hasViewPermission(username, new UserRoleMatcherImpl(cruiseConfig.server().security()), everyoneIsAllowedToViewIfNoAuthIsDefined);
     }
 
+    private Predicate<PipelineConfigs> groupsGranted(CaseInsensitiveString username, Predicate<PipelineConfigs> grantedByGroupAuthorization) {
+        if (isUserAdmin(new Username(username))) {
+            return group -> true;
+        }
+        return group -> isUserAdminOfGroup(username, group) || grantedByGroupAuthorization.test(group);
+    }
+
+    private String findGroupNameByPipeline(CaseInsensitiveString pipelineName) {
+        if (permissionsIndex.isEnabled()) {
+            return permissionsIndex.groupNameOf(goConfigService.getCurrentConfig(), pipelineName);
+        }
+        return goConfigService.findGroupNameByPipeline(pipelineName);
+    }
+
     private boolean isUserAdminOfGroup(final CaseInsensitiveString userName, PipelineConfigs group) {
         return goConfigService.isUserAdminOfGroup(userName, group);
     }
@@ -77,7 +100,7 @@ public class SecurityService {
     }
 
     public boolean hasOperatePermissionForPipeline(final CaseInsensitiveString username, String pipelineName) {
-        String groupName = goConfigService.findGroupNameByPipeline(new CaseInsensitiveString(pipelineName));
+        String groupName = findGroupNameByPipeline(new CaseInsensitiveString(pipelineName));
         if (groupName == null) {
             return true;
         }
@@ -85,7 +108,7 @@ public class SecurityService {
     }
 
     public boolean hasAdminPermissionsForPipeline(Username username, CaseInsensitiveString pipelineName) {
-        String groupName = goConfigService.findGroupNameByPipeline(pipelineName);
+        String groupName = findGroupNameByPipeline(pipelineName);
         if (groupName == null) {
             return true;
         }
@@ -100,6 +123,12 @@ public class SecurityService {
             return true;
         }
 
+        if (permissionsIndex.isEnabled() && permissionsIndex.hasGroup(cruiseConfig, groupName)) {
+            boolean everyoneIsAllowedToOperateIfNoAuthIsDefined = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+            return permissionsIndex.isGranted(cruiseConfig, groupName, username, PipelineGroupPermissionsIndex.Permission.OPERATE, everyoneIsAllowedToOperateIfNoAuthIsDefined,
+                    () -> groupsGranted(username, group -> group.hasOperatePermission(username, new UserRoleMatcherImpl(cruiseConfig.server().security()), everyoneIsAllowedToOperateIfNoAuthIsDefined)));
+        }
+
         if (isUserAdmin(new Username(username))) {
             return true;
         }
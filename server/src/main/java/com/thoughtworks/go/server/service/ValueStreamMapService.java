@@ -15,6 +15,9 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rits.cloning.Cloner;
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.CruiseConfig;
 import com.thoughtworks.go.config.PipelineConfig;
@@ -23,6 +26,7 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.config.materials.dependency.DependencyMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.Stage;
 import com.thoughtworks.go.domain.buildcause.BuildCause;
 import com.thoughtworks.go.domain.materials.Material;
 import com.thoughtworks.go.domain.materials.MaterialConfig;
@@ -30,6 +34,8 @@ import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.domain.materials.dependency.DependencyMaterialRevision;
 import com.thoughtworks.go.domain.valuestreammap.*;
 import com.thoughtworks.go.i18n.LocalizedMessage;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.presentation.models.ValueStreamMapPresentationModel;
@@ -40,15 +46,17 @@ import com.thoughtworks.go.server.valuestreammap.RunStagesPopulator;
 import com.thoughtworks.go.server.valuestreammap.UnrunStagesPopulator;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.HealthStateType;
+import com.thoughtworks.go.util.ClonerFactory;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toSet;
 
 @Service
 public class ValueStreamMapService {
@@ -62,9 +70,18 @@ public class ValueStreamMapService {
     private final SecurityService securityService;
     private static final Logger LOGGER = LoggerFactory.getLogger(ValueStreamMapService.class);
 
+    private final boolean cacheGraphs;
+    // graphs of pipeline instances, before anything specific to the user is added, for each revision of the config
+    private final Cache<GraphKey, CachedGraph> graphs;
+    // counts changes to the merged config, including those which come from config repositories
+    private final AtomicLong configChanges = new AtomicLong();
+    private final AtomicLong stageStatusChanges = new AtomicLong();
+    private final Cloner cloner = ClonerFactory.instance();
+
     @Autowired
     public ValueStreamMapService(PipelineService pipelineService, MaterialRepository materialRepository, GoConfigService goConfigService, DownstreamInstancePopulator downstreamInstancePopulator,
-                                 RunStagesPopulator runStagesPopulator, UnrunStagesPopulator unrunStagePopulator, SecurityService securityService) {
+                                 RunStagesPopulator runStagesPopulator, UnrunStagesPopulator unrunStagePopulator, SecurityService securityService,
+                                 StageService stageService, SystemEnvironment systemEnvironment) {
         this.pipelineService = pipelineService;
         this.materialRepository = materialRepository;
         this.goConfigService = goConfigService;
@@ -72,6 +89,37 @@ public class ValueStreamMapService {
         this.runStagesPopulator = runStagesPopulator;
         this.unrunStagePopulator = unrunStagePopulator;
         this.securityService = securityService;
+        int cacheSize = systemEnvironment.get(SystemEnvironment.GO_SERVER_VALUE_STREAM_MAP_CACHE_SIZE);
+        this.cacheGraphs = cacheSize > 0;
+        this.graphs = Caffeine.newBuilder().maximumSize(Math.max(cacheSize, 0)).build();
+        stageService.addStageStatusListener(this::stageStatusChanged);
+        goConfigService.register(new ConfigChangedListener() {
+            @Override
+            public void onConfigChange(CruiseConfig newCruiseConfig) {
+                configChanged();
+            }
+        });
+        goConfigService.register(new EntityConfigChangedListener<Object>() {
+            @Override
+            public void onEntityConfigChange(Object entity) {
+                configChanged();
+            }
+        });
+    }
+
+    private void configChanged() {
+        configChanges.incrementAndGet();
+        graphs.invalidateAll();
+    }
+
+    /**
+     * A cached graph shows the instances of every pipeline in it, so it goes stale as soon as any stage of those
+     * pipelines changes.
+     */
+    void stageStatusChanged(Stage stage) {
+        stageStatusChanges.incrementAndGet();
+        CaseInsensitiveString pipelineName = new CaseInsensitiveString(stage.getIdentifier().getPipelineName());
+        graphs.asMap().values().removeIf(graph -> graph.pipelines().contains(pipelineName));
     }
 
     public ValueStreamMapPresentationModel getValueStreamMap(CaseInsensitiveString pipelineName, int counter, Username username, LocalizedOperationResult result) {
@@ -93,10 +141,51 @@ public class ValueStreamMapService {
     }
 
     private ValueStreamMap buildValueStreamMap(CaseInsensitiveString pipelineName, int counter, Username username, LocalizedOperationResult result) {
+        // read before the config, which is replaced before the listeners are told about the change
+        long configChangesBefore = configChanges.get();
         CruiseConfig cruiseConfig = goConfigService.currentCruiseConfig();
+        GraphKey key;
+        try {
+            key = new GraphKey(configChangesBefore, pipelineNameWithSameCaseAsConfig(pipelineName, cruiseConfig), counter);
+        } catch (RecordNotFoundException e) {
+            result.notFound("Pipeline '" + pipelineName + "' with counter '" + counter + "' not found.", HealthStateType.general(HealthStateScope.forPipeline(pipelineName.toString())));
+            return null;
+        }
+
+        CachedGraph cachedGraph = graphs.getIfPresent(key);
+        ValueStreamMap valueStreamMap;
+        if (cachedGraph != null) {
+            valueStreamMap = cloner.deepClone(cachedGraph.graph());
+        } else {
+            long stageStatusChangesBeforeBuilding = stageStatusChanges.get();
+            valueStreamMap = buildValueStreamMapOfInstances(key.pipelineName(), counter, cruiseConfig, result);
+            if (valueStreamMap == null) {
+                return null;
+            }
+            cacheUnlessStale(key, valueStreamMap, stageStatusChangesBeforeBuilding);
+        }
+        removeRevisionsBasedOnPermissionAndCurrentConfig(valueStreamMap, username);
+
+        return valueStreamMap;
+    }
+
+    private void cacheUnlessStale(GraphKey key, ValueStreamMap valueStreamMap, long stageStatusChangesBeforeBuilding) {
+        if (!cacheGraphs || stageStatusChanges.get() != stageStatusChangesBeforeBuilding) {
+            return;
+        }
+        Set<CaseInsensitiveString> pipelines = valueStreamMap.allNodes().stream()
+                .filter(node -> node instanceof PipelineDependencyNode)
+                .map(node -> new CaseInsensitiveString(node.getName()))
+                .collect(toSet());
+        graphs.put(key, new CachedGraph(cloner.deepClone(valueStreamMap), pipelines));
+        if (stageStatusChanges.get() != stageStatusChangesBeforeBuilding) {
+            graphs.invalidate(key);
+        }
+    }
+
+    private ValueStreamMap buildValueStreamMapOfInstances(CaseInsensitiveString pipelineName, int counter, CruiseConfig cruiseConfig, LocalizedOperationResult result) {
         BuildCause buildCauseForPipeline;
         try {
-            pipelineName = pipelineNameWithSameCaseAsConfig(pipelineName, cruiseConfig);
             buildCauseForPipeline = pipelineService.buildCauseFor(pipelineName.toString(), counter);
         } catch (RecordNotFoundException e) {
             result.notFound("Pipeline '" + pipelineName + "' with counter '" + counter + "' not found.", HealthStateType.general(HealthStateScope.forPipeline(pipelineName.toString())));
@@ -115,8 +204,6 @@ public class ValueStreamMapService {
             return null;
         }
         addInstanceInformationToTheGraph(valueStreamMap);
-        removeRevisionsBasedOnPermissionAndCurrentConfig(valueStreamMap, username);
-
         valueStreamMap.addWarningIfBuiltFromInCompatibleRevisions();
 
         return valueStreamMap;
@@ -258,4 +345,10 @@ public class ValueStreamMapService {
         runStagesPopulator.apply(valueStreamMap);
         unrunStagePopulator.apply(valueStreamMap);
     }
+
+    private record GraphKey(long configChanges, CaseInsensitiveString pipelineName, int counter) {
+    }
+
+    private record CachedGraph(ValueStreamMap graph, Set<CaseInsensitiveString> pipelines) {
+    }
 }
@@ -50,6 +50,9 @@ class DependencyFanInNode extends FanInNode<DependencyMaterialConfig> {
     }
 
     void initialize(FanInGraphContext context) {
+        currentRevision = null;
+        scmMaterialsByStageId.clear();
+        currentCount = 0;
         totalInstanceCount = context.pipelineTimeline().instanceCount(materialConfig.getPipelineName());
         maxBackTrackLimit = context.maxBackTrackLimit().getAsInt();
     }
@@ -137,27 +140,30 @@ class DependencyFanInNode extends FanInNode<DependencyMaterialConfig> {
     }
 
     private @Nullable Pair<StageIdentifier, List<FaninScmMaterial>> getRevisionNthFor(int n, FanInGraphContext context) {
-        List<FaninScmMaterial> scmMaterials = new ArrayList<>();
-        PipelineTimeline pipelineTimeline = context.pipelineTimeline();
-        Queue<PipelineTimelineEntry.Revision> revisionQueue = new LinkedList<>();
-        PipelineTimelineEntry entry = pipelineTimeline.instanceFor(materialConfig.getPipelineName(), totalInstanceCount - n);
-
-        Set<CaseInsensitiveString> visitedNodes = new HashSet<>();
+        PipelineTimelineEntry entry = context.pipelineTimeline().instanceFor(materialConfig.getPipelineName(), totalInstanceCount - n);
 
         StageIdentifier dependentStageIdentifier = dependentStageIdentifier(context, entry, CaseInsensitiveString.str(materialConfig.getStageName()));
-        if (!StageIdentifier.NULL.equals(dependentStageIdentifier)) {
-            addToRevisionQueue(entry, revisionQueue, scmMaterials, context, visitedNodes);
-        } else {
+        if (StageIdentifier.NULL.equals(dependentStageIdentifier)) {
             return null;
         }
 
+        List<FaninScmMaterial> scmMaterials = context.upstreamScmMaterials().get(entry, e -> upstreamScmMaterialsOf(e, context));
+        return new Pair<>(dependentStageIdentifier, scmMaterials);
+    }
+
+    private List<FaninScmMaterial> upstreamScmMaterialsOf(PipelineTimelineEntry entry, FanInGraphContext context) {
+        List<FaninScmMaterial> scmMaterials = new ArrayList<>();
+        PipelineTimeline pipelineTimeline = context.pipelineTimeline();
+        Queue<PipelineTimelineEntry.Revision> revisionQueue = new LinkedList<>();
+        Set<CaseInsensitiveString> visitedNodes = new HashSet<>();
+
+        addToRevisionQueue(entry, revisionQueue, scmMaterials, context, visitedNodes);
         for (PipelineTimelineEntry.Revision revision; (revision = revisionQueue.poll()) != null; ){
             DependencyMaterialRevision dmr = DependencyMaterialRevision.create(revision.revision(), null);
             PipelineTimelineEntry pte = pipelineTimeline.getEntryFor(new CaseInsensitiveString(dmr.getPipelineName()), dmr.getPipelineCounter());
             addToRevisionQueue(pte, revisionQueue, scmMaterials, context, visitedNodes);
         }
-
-        return new Pair<>(dependentStageIdentifier, scmMaterials);
+        return scmMaterials;
     }
 
     private boolean validateAllScmRevisionsAreSameWithinAFingerprint(Pair<StageIdentifier, List<FaninScmMaterial>> pIdScmPair) {
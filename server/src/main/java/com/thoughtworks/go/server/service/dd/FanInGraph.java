@@ -59,6 +59,8 @@ public class FanInGraph {
     private final DependencyFanInNode root;
     private final CaseInsensitiveString pipelineName;
     private final IntSupplier maxBackTrackLimit;
+    private final Map<DependencyMaterialConfig, Set<MaterialConfig>> pipelineScmDepMap;
+    private final UpstreamScmMaterialsCache upstreamScmMaterials = new UpstreamScmMaterialsCache();
 
     public FanInGraph(CruiseConfig cruiseConfig, CaseInsensitiveString root, MaterialRepository materialRepository, PipelineDao pipelineDao,
                       MaterialConfigConverter materialConfigConverter, IntSupplier maxBackTrackLimit) {
@@ -73,6 +75,11 @@ public class FanInGraph {
         this.root = (DependencyFanInNode) FanInNode.create(new DependencyMaterialConfig(target.name(), target.getFirst().name()));
 
         buildGraph(target);
+        this.pipelineScmDepMap = getPipelineScmDepMap();
+    }
+
+    public boolean isBuiltFrom(CruiseConfig cruiseConfig) {
+        return this.cruiseConfig == cruiseConfig;
     }
 
     private void buildGraph(PipelineConfig target) {
@@ -115,6 +122,11 @@ public class FanInGraph {
         scmMaterialSet.addAll(scmMaterialFingerprintSet);
     }
 
+    @TestOnly
+    int upstreamInstancesWalked() {
+        return upstreamScmMaterials.size();
+    }
+
     @TestOnly
     List<ScmMaterialConfig> getScmMaterials() {
         List<ScmMaterialConfig> scmMaterials = new ArrayList<>();
@@ -140,7 +152,11 @@ public class FanInGraph {
         return dependencyMaterialListMap;
     }
 
-    public MaterialRevisions computeRevisions(MaterialRevisions actualRevisions, PipelineTimeline pipelineTimeline) {
+    /**
+     * Nodes hold the state of a resolution, so resolutions using the same graph take turns. The graph itself and the
+     * upstream revisions of every pipeline instance walked so far are kept for the next resolution.
+     */
+    public synchronized MaterialRevisions computeRevisions(MaterialRevisions actualRevisions, PipelineTimeline pipelineTimeline) {
         assertAllDirectDependenciesArePresentInInput(actualRevisions, pipelineName);
 
         FanInNode.ByType children = FanInNode.ByType.from(root.children);
@@ -264,14 +280,19 @@ public class FanInGraph {
     }
 
     private Collection<StageIdFaninScmMaterialPair> findScmRevisionsThatDiffer(List<StageIdFaninScmMaterialPair> pIdScmMaterialList) {
+        Map<StageIdFaninScmMaterialPair, List<StageIdFaninScmMaterialPair>> pairsByFingerprint = new HashMap<>();
+        for (StageIdFaninScmMaterialPair pIdScmPair : pIdScmMaterialList) {
+            pairsByFingerprint.computeIfAbsent(pIdScmPair, k -> new ArrayList<>()).add(pIdScmPair);
+        }
+
         for (final StageIdFaninScmMaterialPair pIdScmPair : pIdScmMaterialList) {
-            List<StageIdFaninScmMaterialPair> matWithSameFingerprint = pIdScmMaterialList.stream().filter(pIdScmPair::equals).toList();
-            Optional<StageIdFaninScmMaterialPair> withDifferentRevision = matWithSameFingerprint.stream()
-                .filter(pair ->
+            List<StageIdFaninScmMaterialPair> matWithSameFingerprint = pairsByFingerprint.get(pIdScmPair);
+            boolean hasDifferentRevision = matWithSameFingerprint.stream()
+                .anyMatch(pair ->
                     pair.stageIdentifier() != pIdScmPair.stageIdentifier() && !pair.faninScmMaterial().revision().equals(pIdScmPair.faninScmMaterial().revision())
-                ).findFirst();
+                );
 
-            if (withDifferentRevision.isPresent()) {
+            if (hasDifferentRevision) {
                 return matWithSameFingerprint;
             }
         }
@@ -297,10 +318,11 @@ public class FanInGraph {
         return new FanInGraphContext(
             fingerprintScmMaterialMap,
             pipelineTimeline,
-            getPipelineScmDepMap(),
+            pipelineScmDepMap,
             fingerprintDepMaterialMap,
             pipelineDao,
-            maxBackTrackLimit);
+            maxBackTrackLimit,
+            upstreamScmMaterials);
     }
 
     private Collection<MaterialRevision> getMaterialsFromCurrentPipeline(List<MaterialRevision> finalRevisionsForScmChildren, MaterialRevisions actualRevisions) {
@@ -30,7 +30,8 @@ record FanInGraphContext(
     Map<DependencyMaterialConfig, Set<MaterialConfig>> pipelineScmDepMap,
     Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap,
     PipelineDao pipelineDao,
-    IntSupplier maxBackTrackLimit
+    IntSupplier maxBackTrackLimit,
+    UpstreamScmMaterialsCache upstreamScmMaterials
 ) {
     boolean isDependencyMaterial(String fingerprint) {
         return fingerprintDepMaterialMap.containsKey(fingerprint);
@@ -0,0 +1,55 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.dd;
+
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers the SCM revisions reachable upstream of a pipeline instance for one fan-in graph, so that repeated
+ * resolutions only walk the timeline for instances they have not seen before.
+ */
+class UpstreamScmMaterialsCache {
+    static final int MAX_ENTRIES = 1024;
+
+    private final Map<Long, Upstream> upstreamById = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Upstream> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    synchronized List<FaninScmMaterial> get(PipelineTimelineEntry entry, Function<PipelineTimelineEntry, List<FaninScmMaterial>> walker) {
+        Upstream upstream = upstreamById.get(entry.getId());
+        // A reloaded timeline hands out new entries, so anything remembered for an older instance is walked again
+        if (upstream == null || upstream.entry() != entry) {
+            upstream = new Upstream(entry, List.copyOf(walker.apply(entry)));
+            upstreamById.put(entry.getId(), upstream);
+        }
+        return upstream.scmMaterials();
+    }
+
+    synchronized int size() {
+        return upstreamById.size();
+    }
+
+    private record Upstream(PipelineTimelineEntry entry, List<FaninScmMaterial> scmMaterials) {
+    }
+}
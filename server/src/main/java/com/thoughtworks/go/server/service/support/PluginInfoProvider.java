@@ -17,8 +17,10 @@ package com.thoughtworks.go.server.service.support;
 
 import com.thoughtworks.go.plugin.domain.common.CombinedPluginInfo;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.plugin.infra.listeners.DefaultPluginJarChangeListener;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.service.plugins.builder.DefaultPluginInfoFinder;
+import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -29,11 +31,13 @@ public class PluginInfoProvider implements ServerInfoProvider {
 
     private final DefaultPluginInfoFinder pluginInfoFinder;
     private final PluginManager pluginManager;
+    private final DefaultPluginJarChangeListener pluginJarChangeListener;
 
     @Autowired
-    public PluginInfoProvider(DefaultPluginInfoFinder pluginInfoFinder, PluginManager pluginManager) {
+    public PluginInfoProvider(DefaultPluginInfoFinder pluginInfoFinder, PluginManager pluginManager, DefaultPluginJarChangeListener pluginJarChangeListener) {
         this.pluginInfoFinder = pluginInfoFinder;
         this.pluginManager = pluginManager;
+        this.pluginJarChangeListener = pluginJarChangeListener;
     }
 
     @Override
@@ -45,9 +49,15 @@ public class PluginInfoProvider implements ServerInfoProvider {
     public Map<String, Object> asJsonCompatibleMap() {
         List<Map<String, Object>> plugins = new ArrayList<>();
         List<GoPluginDescriptor> goPluginDescriptors = pluginManager.plugins();
+        Map<String, Long> loadTimesInMillis = pluginJarChangeListener.pluginLoadTimesInMillis();
         for (GoPluginDescriptor goPluginDescriptor : goPluginDescriptors) {
             CombinedPluginInfo combinedPluginInfo = pluginInfoFinder.pluginInfoFor(goPluginDescriptor.id());
             Map<String, Object> pluginJson = getPluginJson(combinedPluginInfo, goPluginDescriptor);
+            String pluginJarName = FilenameUtils.getName(goPluginDescriptor.pluginJarFileLocation());
+            Long loadTimeInMillis = pluginJarName == null ? null : loadTimesInMillis.get(pluginJarName);
+            if (loadTimeInMillis != null) {
+                pluginJson.put("load_time_in_millis", loadTimeInMillis);
+            }
             plugins.add(pluginJson);
         }
         Map<String, Object> json = new LinkedHashMap<>();
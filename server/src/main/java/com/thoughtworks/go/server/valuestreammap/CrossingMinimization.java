@@ -19,8 +19,8 @@ import com.thoughtworks.go.domain.valuestreammap.Node;
 import com.thoughtworks.go.domain.valuestreammap.NodeLevelMap;
 
 import java.util.*;
+import java.util.function.Function;
 
-import static java.lang.Math.abs;
 import static java.util.Collections.sort;
 
 public class CrossingMinimization {
@@ -47,36 +47,29 @@ public class CrossingMinimization {
     private void reorderByMinDepth(TraversalDirection traversalDirection) {
         while (traversalDirection.hasNext()) {
             List<Node> nodesAtLevel = traversalDirection.next();
+            SlopeAccumulator remainingSlopes = new SlopeAccumulator(nodesAtLevel, traversalDirection::getRelatedNodesAtPreviousLevel);
             int depth = 1;
-            for (int i = 0; i < nodesAtLevel.size(); i++) {
-                Node currentNode = nodesAtLevel.get(i);
-
+            for (Node currentNode : nodesAtLevel) {
                 List<Node> relatedNodesAtPreviousLevel = traversalDirection.getRelatedNodesAtPreviousLevel(currentNode);
-                int leastDepth = minDepth(relatedNodesAtPreviousLevel);
+                /*
+                 * A node with no related nodes at the previous level has always been given a least depth of
+                 * Integer.MAX_VALUE, so moving it all the way down is weighed up like any other move, with slopes that
+                 * wrap around in int arithmetic. Existing layouts depend on which way that goes, so it is kept as is.
+                 */
+                int leastDepth = relatedNodesAtPreviousLevel.isEmpty() ? Integer.MAX_VALUE : minDepth(relatedNodesAtPreviousLevel);
                 if (depth < leastDepth) {
-                    List<Node> nodesRemaining = nodesAtLevel.subList(i, nodesAtLevel.size());
-                    int initialSlope = calculateSlope(depth - currentNode.getDepth(), nodesRemaining, traversalDirection);
-                    int newSlope = calculateSlope(leastDepth - depth, nodesRemaining, traversalDirection);
+                    int initialSlope = remainingSlopes.slope(depth - currentNode.getDepth());
+                    int newSlope = remainingSlopes.slope(leastDepth - depth);
                     if (newSlope < initialSlope) {
                         depth = leastDepth;
                     }
                 }
+                remainingSlopes.remove(currentNode);
                 currentNode.setDepth(depth++);
             }
         }
     }
 
-    private int calculateSlope(int depthOffset, List<Node> nodes, TraversalDirection traversalDirection) {
-        int totalSlope = 0;
-        for (Node node : nodes) {
-            for (Node relatedNode : traversalDirection.getRelatedNodesAtPreviousLevel(node)) {
-                totalSlope += abs(node.getDepth() + depthOffset - relatedNode.getDepth());
-            }
-        }
-        return totalSlope;
-    }
-
-
     private int minDepth(List<Node> nodes) {
         int min = Integer.MAX_VALUE;
         for (Node node : nodes) {
@@ -230,6 +223,82 @@ public class CrossingMinimization {
         }
     }
 
+    /**
+     * Keeps the total slope of the edges from the nodes of a level which have not been placed yet, so that it can be
+     * worked out for any shift of those nodes in logarithmic time instead of by visiting every remaining edge. Each
+     * edge is held as the difference between the depth of its node and that of its related node, in a Fenwick tree
+     * of counts and sums indexed by the rank of that difference among all the differences at the level.
+     */
+    static class SlopeAccumulator {
+        private final Function<Node, List<Node>> relatedNodesAtPreviousLevel;
+        private final int[] differences;
+        private final int[] counts;
+        private final long[] sums;
+
+        SlopeAccumulator(List<Node> nodes, Function<Node, List<Node>> relatedNodesAtPreviousLevel) {
+            this.relatedNodesAtPreviousLevel = relatedNodesAtPreviousLevel;
+            this.differences = nodes.stream()
+                    .flatMapToInt(node -> relatedNodesAtPreviousLevel.apply(node).stream().mapToInt(relatedNode -> node.getDepth() - relatedNode.getDepth()))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            this.counts = new int[differences.length + 1];
+            this.sums = new long[differences.length + 1];
+            for (Node node : nodes) {
+                update(node, 1);
+            }
+        }
+
+        void remove(Node node) {
+            update(node, -1);
+        }
+
+        /*
+         * The sum of |difference + offset| over every remaining edge, as adding up Math.abs of each in int arithmetic
+         * works it out. Taken modulo 2^32, the absolute value of a sum which wraps around is that sum itself where it
+         * lies below Integer.MIN_VALUE or between 0 and Integer.MAX_VALUE before wrapping, and its negation elsewhere.
+         */
+        int slope(int offset) {
+            long belowMinValue = shiftedSumOfDifferencesBelow((long) Integer.MIN_VALUE - offset, offset);
+            long belowZero = shiftedSumOfDifferencesBelow(-(long) offset, offset);
+            long upToMaxValue = shiftedSumOfDifferencesBelow((long) Integer.MAX_VALUE - offset + 1, offset);
+            long all = shiftedSumOfDifferencesBelow(Long.MAX_VALUE, offset);
+            return (int) (2 * belowMinValue - 2 * belowZero + 2 * upToMaxValue - all);
+        }
+
+        // the sum of difference + offset over the remaining edges whose difference is below the given bound
+        private long shiftedSumOfDifferencesBelow(long bound, int offset) {
+            long count = 0;
+            long sum = 0;
+            for (int i = rankOfFirstDifferenceNotBelow(bound); i > 0; i -= i & -i) {
+                count += counts[i];
+                sum += sums[i];
+            }
+            return sum + count * offset;
+        }
+
+        private int rankOfFirstDifferenceNotBelow(long bound) {
+            if (bound <= Integer.MIN_VALUE) {
+                return 0;
+            }
+            if (bound > Integer.MAX_VALUE) {
+                return differences.length;
+            }
+            int index = Arrays.binarySearch(differences, (int) bound);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private void update(Node node, int sign) {
+            for (Node relatedNode : relatedNodesAtPreviousLevel.apply(node)) {
+                int difference = node.getDepth() - relatedNode.getDepth();
+                for (int i = Arrays.binarySearch(differences, difference) + 1; i < counts.length; i += i & -i) {
+                    counts[i] += sign;
+                    sums[i] += (long) sign * difference;
+                }
+            }
+        }
+    }
+
     private static class NodeBaryCentre implements Comparable<NodeBaryCentre> {
         private final Node node;
         private final float averageDepth;
@@ -133,6 +133,26 @@ public class JobInstanceSqlMapDaoCachingTest {
         verify(mockTemplate, times(2)).queryForList(eq("scheduledPlanIds"));
     }
 
+    @Test
+    public void orderedScheduledBuilds_shouldReuseAlreadyLoadedPlansOfJobsWhichAreStillScheduled() {
+        when(mockTemplate.queryForList(eq("scheduledPlanIds"))).thenReturn(List.of(2L, 3L));
+
+        final DefaultJobPlan firstJob = jobPlan(1);
+        final DefaultJobPlan secondJob = jobPlan(2);
+        final DefaultJobPlan thirdJob = jobPlan(3);
+        when(mockTemplate.queryForObject("scheduledPlan", Map.of("id", 3L))).thenReturn(thirdJob);
+
+        jobInstanceDao.setSqlMapClientTemplate(mockTemplate);
+
+        List<JobPlan> plans = jobInstanceDao.orderedScheduledBuilds(List.of(firstJob, secondJob));
+
+        assertThat(plans).isEqualTo(List.of(secondJob, thirdJob));
+        assertThat(plans.getFirst()).isSameAs(secondJob);
+
+        verify(mockTemplate, never()).queryForObject("scheduledPlan", Map.of("id", 2L));
+        verify(mockTemplate, times(1)).queryForObject("scheduledPlan", Map.of("id", 3L));
+    }
+
     @Test
     public void updateStatus_shouldRemoveCachedJobPlan() {
         when(mockTemplate.queryForList(eq("scheduledPlanIds"))).thenReturn(List.of(1L));
@@ -92,7 +92,7 @@ public class MaterialDatabaseDependencyUpdaterTest {
             healthService,
             transactionTemplate,
             new DependencyMaterialUpdater(dependencyMaterialSourceDao, materialRepository),
-            new ScmMaterialUpdater(materialRepository, legacyMaterialChecker, subprocessExecutionContext, materialService),
+            new ScmMaterialUpdater(materialRepository, legacyMaterialChecker, subprocessExecutionContext, materialService, mock(SharedGitObjectStore.class)),
             null, null, materialExpansionService, goConfigService);
     }
 
@@ -235,6 +235,25 @@ public class MaterialDatabaseDependencyUpdaterTest {
         }
     }
 
+    @Test
+    public void shouldSaveNewRunsOfUpstreamStageOldestFirstAndSkipThoseAlreadySaved() {
+        DependencyMaterial dependencyMaterial = new DependencyMaterial(new CaseInsensitiveString("pipeline-name"), new CaseInsensitiveString("stage-name"));
+
+        stubStageServiceGetHistory(stages(9, 10));
+        updater.updateMaterial(dependencyMaterial);
+
+        stubStageServiceGetHistoryAfter(null, 10, stages(10, 11, 12));
+        updater.updateMaterial(dependencyMaterial);
+
+        MaterialInstance materialInstance = materialRepository.findMaterialInstance(dependencyMaterial);
+        List<String> revisionsNewestFirst = materialRepository.getModificationsFor(materialInstance, Pagination.pageByOffset(0, 10, 10)).stream().map(Modification::getRevision).toList();
+        assertThat(revisionsNewestFirst).containsExactly(
+            "pipeline-name/12/stage-name/0",
+            "pipeline-name/11/stage-name/0",
+            "pipeline-name/10/stage-name/0",
+            "pipeline-name/9/stage-name/0");
+    }
+
     @Test
     public void shouldUpdateMaterialCorrectlyIfCaseOfPipelineNameIsDifferentInConfigurationOfDependencyMaterial() {
 
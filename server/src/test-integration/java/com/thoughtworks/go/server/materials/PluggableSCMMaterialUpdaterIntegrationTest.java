@@ -121,7 +121,7 @@ public class PluggableSCMMaterialUpdaterIntegrationTest {
         data.put("k1", "v1");
         when(scmExtension.getLatestRevision(any(), any(), any(), any())).thenReturn(new MaterialPollResult(data, new SCMRevision()));
         mockSCMExtensionInPoller();
-        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService);
+        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService, mock(SharedGitObjectStore.class));
         pluggableSCMMaterialUpdater = new PluggableSCMMaterialUpdater(materialRepository, scmMaterialUpdater, transactionTemplate);
 
         transactionTemplate.execute(transactionStatus -> {
@@ -146,7 +146,7 @@ public class PluggableSCMMaterialUpdaterIntegrationTest {
         newData.put("k2", "v2");
         when(scmExtension.latestModificationSince(any(), any(), any(), any(), any())).thenReturn(new MaterialPollResult(newData, new SCMRevision()));
         mockSCMExtensionInPoller();
-        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService);
+        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService, mock(SharedGitObjectStore.class));
         pluggableSCMMaterialUpdater = new PluggableSCMMaterialUpdater(materialRepository, scmMaterialUpdater, transactionTemplate);
 
         transactionTemplate.execute(transactionStatus -> {
@@ -119,6 +119,41 @@ public class FanInPerformanceTest {
         assertThat(finalRevisions).isEqualTo(given);
     }
 
+    @Test
+    @Timeout(value = 4, unit = MINUTES)
+    public void shouldResolveRepeatedSchedulingChecksForMeshQuickly() {
+        int numberOfNodesPerLevel = 10;
+        int numberOfLevels = 10;
+        int numberOfInstancesForUpstream = 1;
+        int numberOfSchedulingChecks = 50;
+
+        ScmMaterial svn = u.wf((ScmMaterial) MaterialsMother.defaultMaterials().getFirst(), "folder1");
+        String[] svn_revs = {"svn_1"};
+        u.checkinInOrder(svn, svn_revs);
+
+        PipelineConfig upstreamConfig = graphGenerator.createPipelineWithInstances("upstream", new ArrayList<>(), numberOfInstancesForUpstream);
+        PipelineConfig currentConfig = graphGenerator.createMesh(upstreamConfig, "current", "up", numberOfInstancesForUpstream, numberOfNodesPerLevel, numberOfLevels);
+
+        List<MaterialRevision> revisions = new ArrayList<>();
+        revisions.add(u.mr(svn, true, "svn_1"));
+        for (int i = 1; i <= numberOfNodesPerLevel; i++) {
+            String pipelineName = String.format("pipeline_%s_%d_%d", "up", numberOfLevels, i);
+            revisions.add(u.mr(new DependencyMaterial(new CaseInsensitiveString(pipelineName), new CaseInsensitiveString("stage")), true, pipelineName + "/1/stage/1"));
+        }
+        MaterialRevisions given = new MaterialRevisions(revisions);
+        CruiseConfig cruiseConfig = configHelper.currentConfig();
+        pipelineTimeline.update();
+
+        assertThat(pipelineService.getRevisionsBasedOnDependencies(given, cruiseConfig, currentConfig.name())).isEqualTo(given);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numberOfSchedulingChecks; i++) {
+            assertThat(pipelineService.getRevisionsBasedOnDependencies(given, cruiseConfig, currentConfig.name())).isEqualTo(given);
+        }
+        long timeTaken = (System.currentTimeMillis() - start) / 1000;
+        assertThat(timeTaken).isLessThan(10L);
+    }
+
     private MaterialRevisions getRevisionsBasedOnDependencies(CaseInsensitiveString pipeline, CruiseConfig cruiseConfig, MaterialRevisions given) {
         pipelineTimeline.update();
         return pipelineService.getRevisionsBasedOnDependencies(given, cruiseConfig, pipeline);
@@ -0,0 +1,84 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dao;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HistoryCountCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger rows = new AtomicInteger(10);
+    private final AtomicInteger countQueries = new AtomicInteger();
+    private SystemEnvironment systemEnvironment;
+
+    @BeforeEach
+    void setUp() {
+        systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_HISTORY_COUNT_CACHE_TTL_IN_SECONDS)).thenReturn(30);
+    }
+
+    @Test
+    void shouldCountEveryTimeWhenCachingIsDisabled() {
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_HISTORY_COUNT_CACHE_TTL_IN_SECONDS)).thenReturn(0);
+        HistoryCountCache cache = new HistoryCountCache(systemEnvironment, ticker);
+
+        cache.count("pipelineHistory", "up42", this::count);
+        rows.incrementAndGet();
+
+        assertThat(cache.count("pipelineHistory", "up42", this::count)).isEqualTo(11);
+        assertThat(countQueries).hasValue(2);
+    }
+
+    @Test
+    void shouldServeTheSameCountUntilItExpires() {
+        HistoryCountCache cache = new HistoryCountCache(systemEnvironment, ticker);
+
+        cache.count("pipelineHistory", "up42", this::count);
+        rows.incrementAndGet();
+        assertThat(cache.count("pipelineHistory", "up42", this::count)).isEqualTo(10);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(cache.count("pipelineHistory", "up42", this::count)).isEqualTo(11);
+        assertThat(countQueries).hasValue(2);
+    }
+
+    @Test
+    void shouldCountEachHistorySeparately() {
+        HistoryCountCache cache = new HistoryCountCache(systemEnvironment, ticker);
+
+        cache.count("pipelineHistory", "up42", this::count);
+        cache.count("completedJobsOnAgent", "up42", this::count);
+        cache.count("pipelineHistory", "down42", this::count);
+
+        assertThat(countQueries).hasValue(3);
+    }
+
+    private Integer count() {
+        countQueries.incrementAndGet();
+        return rows.get();
+    }
+}
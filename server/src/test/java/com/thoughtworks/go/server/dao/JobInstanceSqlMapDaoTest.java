@@ -67,7 +67,7 @@ class JobInstanceSqlMapDaoTest {
         GoCache goCache = new StubGoCache(new TestTransactionSynchronizationManager());
         jobInstanceSqlMapDao = new JobInstanceSqlMapDao(environmentVariableDao, goCache, transactionTemplate, null,
             cache, transactionSynchronizationManager, resourceRepository,
-            artifactPlanRepository, jobAgentMetadataDao);
+            artifactPlanRepository, jobAgentMetadataDao, new HistoryCountCache(new SystemEnvironment()));
         jobInstanceSqlMapDao.setSqlMapClientTemplate(template);
     }
 
@@ -39,6 +39,7 @@ import com.thoughtworks.go.server.transaction.SqlMapClientTemplate;
 import com.thoughtworks.go.server.transaction.TestTransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -79,7 +80,7 @@ class PipelineSqlMapDaoCachingTest {
         transactionTemplate = mock(TransactionTemplate.class);
         GoConfigDao configFileDao = mock(GoConfigDao.class);
         pipelineDao = new PipelineSqlMapDao(null, repository, goCache, mock(EnvironmentVariableDao.class), transactionTemplate, null,
-                transactionSynchronizationManager, null, configFileDao, mock(Database.class), mock(TimeProvider.class));
+                transactionSynchronizationManager, null, configFileDao, mock(Database.class), mock(TimeProvider.class), new HistoryCountCache(new SystemEnvironment()));
         pipelineDao.setSqlMapClientTemplate(mockTemplate);
         Session session = mock(Session.class);
         when(mockSessionFactory.getCurrentSession()).thenReturn(session);
@@ -22,6 +22,7 @@ import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.transaction.SqlMapClientTemplate;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -46,7 +47,7 @@ class PipelineSqlMapDaoTest {
         materialRepository = mock(MaterialRepository.class);
         GoConfigDao configFileDao = mock(GoConfigDao.class);
         TimeProvider timeProvider = mock(TimeProvider.class);
-        pipelineSqlMapDao = new PipelineSqlMapDao(null, materialRepository, goCache, null, null, null, null, null, configFileDao, null, timeProvider);
+        pipelineSqlMapDao = new PipelineSqlMapDao(null, materialRepository, goCache, null, null, null, null, null, configFileDao, null, timeProvider, new HistoryCountCache(new SystemEnvironment()));
         pipelineSqlMapDao.setSqlMapClientTemplate(sqlMapClientTemplate);
     }
 
@@ -16,6 +16,10 @@
 package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.Everyone;
+import com.thoughtworks.go.util.TestingClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -84,6 +88,64 @@ public class GoDashboardCacheTest {
         assertThat(cache.allEntries().find(cis("pipeline5"))).isSameAs(pipeline5);
     }
 
+    @Test
+    public void shouldBeAbleToRemoveAPipelineWithoutChangingEntriesAlreadyHandedOut() {
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2");
+        cache.put(pipeline1);
+        cache.put(pipeline2);
+        GoDashboardPipelines before = cache.allEntries();
+
+        cache.remove(cis("pipeline1"));
+
+        assertThat(cache.allEntries().find(cis("pipeline1"))).isNull();
+        assertThat(cache.allEntries().find(cis("pipeline2"))).isSameAs(pipeline2);
+        assertThat(before.find(cis("pipeline1"))).isSameAs(pipeline1);
+    }
+
+    @Test
+    public void shouldKnowWhichPipelinesChangedOrWentAwaySinceAVersion() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock());
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter), pipeline("pipeline2", counter), pipeline("pipeline3", counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        GoDashboardPipeline newPipeline1 = pipeline("pipeline1", counter);
+        cache.put(newPipeline1);
+        cache.remove(cis("pipeline2"));
+
+        GoDashboardChanges changes = cache.changesSince(version);
+        assertThat(changes.isComplete()).isTrue();
+        assertThat(changes.version()).isEqualTo(cache.allEntries().lastUpdatedTimeStamp());
+        assertThat(changes.changedPipelines()).containsExactly(newPipeline1);
+        assertThat(changes.removedPipelines()).extracting(GoDashboardPipeline::name).containsExactly(cis("pipeline2"));
+
+        assertThat(cache.changesSince(cache.allEntries().lastUpdatedTimeStamp()).changedPipelines()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotKnowChangesFromBeforeAllEntriesWereReplacedOrBeyondTheTrackedRemovals() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new TestingClock());
+        cache = new GoDashboardCache(counter);
+        cache.put(pipeline("pipeline1", counter));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        cache.replaceAllEntriesInCacheWith(List.of(pipeline("pipeline1", counter)));
+        assertThat(cache.changesSince(version).isComplete()).isFalse();
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        for (int i = 0; i <= GoDashboardCache.MAX_TRACKED_REMOVALS; i++) {
+            cache.put(pipeline("pipeline-" + i, counter));
+            cache.remove(cis("pipeline-" + i));
+        }
+        assertThat(cache.changesSince(version).isComplete()).isFalse();
+        assertThat(cache.changesSince(cache.allEntries().lastUpdatedTimeStamp()).isComplete()).isTrue();
+    }
+
+    private GoDashboardPipeline pipeline(String name, TimeStampBasedCounter counter) {
+        return GoDashboardPipelineMother.pipeline(name, "group1", new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE), counter);
+    }
+
     private CaseInsensitiveString cis(String value) {
         return new CaseInsensitiveString(value);
     }
@@ -35,7 +35,11 @@ public class GoDashboardPipelineMother {
     }
 
     public static GoDashboardPipeline pipeline(String pipelineName, String groupName, Permissions permissions) {
+        return pipeline(pipelineName, groupName, permissions, new TimeStampBasedCounter(new SystemTimeClock()));
+    }
+
+    public static GoDashboardPipeline pipeline(String pipelineName, String groupName, Permissions permissions, Counter counter) {
         return new GoDashboardPipeline(new PipelineModel(pipelineName, false, false, notPaused()),
-                permissions, groupName, new TimeStampBasedCounter(new SystemTimeClock()), PipelineConfigMother.pipelineConfig(pipelineName));
+                permissions, groupName, counter, PipelineConfigMother.pipelineConfig(pipelineName));
     }
 }
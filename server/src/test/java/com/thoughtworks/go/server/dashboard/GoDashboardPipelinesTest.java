@@ -15,10 +15,12 @@
  */
 package com.thoughtworks.go.server.dashboard;
 
+import com.thoughtworks.go.config.CaseInsensitiveString;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 
+import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -31,4 +33,25 @@ public class GoDashboardPipelinesTest {
         GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(new HashMap<>(), provider);
         assertThat(goDashboardPipelines.lastUpdatedTimeStamp()).isEqualTo(100L);
     }
+
+    @Test
+    public void shouldLeaveTheSnapshotItCameFromUntouchedWhenAPipelineChanges() {
+        TimeStampBasedCounter provider = mock(TimeStampBasedCounter.class);
+        when(provider.getNext()).thenReturn(1L, 2L, 3L);
+        HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines = new HashMap<>();
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1");
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2");
+        pipelines.put(pipeline1.name(), pipeline1);
+        pipelines.put(pipeline2.name(), pipeline2);
+        GoDashboardPipelines original = new GoDashboardPipelines(pipelines, provider);
+
+        GoDashboardPipeline newPipeline1 = pipeline("PIPELINE1");
+        GoDashboardPipelines updated = original.with(newPipeline1, provider).without(new CaseInsensitiveString("pipeline2"), provider);
+
+        assertThat(original.find(new CaseInsensitiveString("pipeline1"))).isSameAs(pipeline1);
+        assertThat(original.getPipelines()).containsExactlyInAnyOrder(pipeline1, pipeline2);
+        assertThat(updated.find(new CaseInsensitiveString("pipeline1"))).isSameAs(newPipeline1);
+        assertThat(updated.getPipelines()).containsExactly(newPipeline1);
+        assertThat(updated.lastUpdatedTimeStamp()).isEqualTo(3L);
+    }
 }
@@ -265,6 +265,37 @@ public class PipelineTimelineTest {
         assertThat(timeline.runAfter(2, new CaseInsensitiveString("not-present"))).isNull();
     }
 
+    @Test
+    public void shouldFailToFindBeforeAndAfterForUnknownIdOfAKnownPipeline() {
+        PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        timeline.add(first);
+
+        assertThatThrownBy(() -> timeline.runBefore(42, new CaseInsensitiveString(pipelineName)))
+            .hasMessage("Cannot find pipeline with id: 42");
+        assertThatThrownBy(() -> timeline.runAfter(42, new CaseInsensitiveString(pipelineName)))
+            .hasMessage("Cannot find pipeline with id: 42");
+    }
+
+    @Test
+    public void shouldFindEntriesByCounterAndForgetThemUponRollback() {
+        stubTransactionSynchronization();
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_COMMITTED, true);
+        final PipelineTimeline timeline = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
+        stubPipelineRepository(timeline, true, first, second);
+        timeline.update();
+
+        setupTransactionTemplateStub(TransactionSynchronization.STATUS_ROLLED_BACK, false);
+        stubPipelineRepository(timeline, false, third);
+        timeline.update();
+
+        CaseInsensitiveString name = new CaseInsensitiveString(pipelineName);
+        assertThat(timeline.getEntryFor(name, 1)).isEqualTo(first);
+        assertThat(timeline.getEntryFor(name, 2)).isEqualTo(second);
+        assertThat(timeline.getEntryFor(name, 3)).isNull();
+        assertThat(timeline.getEntryFor(new CaseInsensitiveString("not-present"), 1)).isNull();
+        assertThatThrownBy(() -> timeline.runBefore(third.getId(), name)).hasMessage("Cannot find pipeline with id: 3");
+    }
+
     @Test
     public void shouldCreateANaturalOrderingHalfWayBetweenEachPipeline() {
         PipelineTimeline mods = new PipelineTimeline(pipelineRepository, transactionTemplate, transactionSynchronizationManager);
@@ -206,6 +206,31 @@ public class DependencyMaterialUpdateNotifierTest {
         verify(materialUpdateService, atMost(2)).updateMaterial(dependencyMaterial);
     }
 
+    @Test
+    public void shouldCoalesceStageChangesWhileAnUpdateOfTheMaterialIsAlreadyPending() {
+        Stage stage = StageMother.passedStageInstance("Stage1", "plan", "Pipeline1");
+        DependencyMaterial dependencyMaterial = MaterialsMother.dependencyMaterial(stage.getIdentifier().getPipelineName(), stage.getName());
+        Set<DependencyMaterialConfig> schedulableMaterialConfigs = Set.of((DependencyMaterialConfig) dependencyMaterial.config());
+
+        when(goConfigService.getSchedulableDependencyMaterials()).thenReturn(schedulableMaterialConfigs);
+        when(materialConfigConverter.toMaterial(dependencyMaterial.config())).thenReturn(dependencyMaterial);
+        when(materialUpdateService.updateMaterial(dependencyMaterial)).thenReturn(false);
+        when(materialUpdateService.isInProgress(dependencyMaterial)).thenReturn(true);
+
+        notifier = new DependencyMaterialUpdateNotifier(goConfigService, materialConfigConverter, materialUpdateService, serverHealthService);
+        notifier.initialize();
+
+        notifier.stageStatusChanged(stage);
+        notifier.stageStatusChanged(stage);
+        notifier.stageStatusChanged(stage);
+
+        verify(materialUpdateService, times(1)).updateMaterial(dependencyMaterial);
+
+        notifier.onMaterialUpdate(dependencyMaterial);
+
+        verify(materialUpdateService, times(2)).updateMaterial(dependencyMaterial);
+    }
+
     @Test
     public void shouldDoNothingIfMaterialUpdateIsDisabled() {
         Stage stage = StageMother.passedStageInstance("Stage1", "plan", "Pipeline1");
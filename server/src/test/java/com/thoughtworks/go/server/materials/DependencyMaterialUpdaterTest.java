@@ -0,0 +1,101 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterial;
+import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.materials.Modification;
+import com.thoughtworks.go.domain.materials.Modifications;
+import com.thoughtworks.go.server.dao.DependencyMaterialSourceDao;
+import com.thoughtworks.go.server.persistence.MaterialRepository;
+import com.thoughtworks.go.server.util.Pagination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DependencyMaterialUpdaterTest {
+    private static final int PAGE_SIZE = MaterialDatabaseUpdater.STAGES_PER_PAGE;
+
+    @Mock
+    private DependencyMaterialSourceDao dependencyMaterialSourceDao;
+    @Mock
+    private MaterialRepository materialRepository;
+
+    private final DependencyMaterial material = new DependencyMaterial(new CaseInsensitiveString("up"), new CaseInsensitiveString("stage"));
+    private DependencyMaterialUpdater updater;
+
+    @BeforeEach
+    public void setUp() {
+        updater = new DependencyMaterialUpdater(dependencyMaterialSourceDao, materialRepository);
+    }
+
+    @Test
+    public void shouldSaveEachPageOfPassedStagesAsOneRevisionListingTheNewestStageFirst() {
+        when(dependencyMaterialSourceDao.getPassedStagesByName(material, Pagination.pageByOffsetUnknownTotal(0, PAGE_SIZE))).thenReturn(List.of(stage(1), stage(2), stage(3)));
+        when(dependencyMaterialSourceDao.getPassedStagesByName(material, Pagination.pageByOffsetUnknownTotal(PAGE_SIZE, PAGE_SIZE))).thenReturn(List.of(stage(4)));
+        when(dependencyMaterialSourceDao.getPassedStagesByName(material, Pagination.pageByOffsetUnknownTotal(2 * PAGE_SIZE, PAGE_SIZE))).thenReturn(List.of());
+
+        updater.addNewMaterialWithModifications(material, null);
+
+        assertThat(savedRevisions()).containsExactly(
+                List.of("up/3/stage/1", "up/2/stage/1", "up/1/stage/1"),
+                List.of("up/4/stage/1"));
+    }
+
+    @Test
+    public void shouldSaveOnlyThePassedStagesAfterTheLatestKnownOneNewestFirst() {
+        when(dependencyMaterialSourceDao.getPassedStagesAfter("up/2/stage/1", Pagination.pageByOffsetUnknownTotal(0, PAGE_SIZE))).thenReturn(List.of(stage(3), stage(4)));
+        when(dependencyMaterialSourceDao.getPassedStagesAfter("up/2/stage/1", Pagination.pageByOffsetUnknownTotal(PAGE_SIZE, PAGE_SIZE))).thenReturn(List.of());
+
+        updater.insertLatestOrNewModifications(material, null, null, new Modifications(stage(2)));
+
+        assertThat(savedRevisions()).containsExactly(List.of("up/4/stage/1", "up/3/stage/1"));
+        verify(dependencyMaterialSourceDao, never()).getPassedStagesByName(any(), any());
+    }
+
+    @Test
+    public void shouldNotSaveAnythingWhenNoStageHasPassed() {
+        when(dependencyMaterialSourceDao.getPassedStagesByName(material, Pagination.pageByOffsetUnknownTotal(0, PAGE_SIZE))).thenReturn(List.of());
+
+        updater.insertLatestOrNewModifications(material, null, null, new Modifications());
+
+        verifyNoInteractions(materialRepository);
+    }
+
+    private List<List<String>> savedRevisions() {
+        ArgumentCaptor<MaterialRevision> captor = ArgumentCaptor.forClass(MaterialRevision.class);
+        verify(materialRepository, atLeastOnce()).saveMaterialRevision(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(revision -> assertThat(revision.getMaterial()).isEqualTo(material));
+        return captor.getAllValues().stream()
+                .map(revision -> revision.getModifications().stream().map(Modification::getRevision).toList())
+                .toList();
+    }
+
+    private static Modification stage(int pipelineCounter) {
+        return new Modification(new Date(), String.format("up/%d/stage/1", pipelineCounter), "LABEL-" + pipelineCounter, (long) pipelineCounter);
+    }
+}
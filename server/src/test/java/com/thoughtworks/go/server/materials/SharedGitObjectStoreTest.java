@@ -0,0 +1,128 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.thoughtworks.go.config.materials.git.GitMaterial;
+import com.thoughtworks.go.config.materials.mercurial.HgMaterial;
+import com.thoughtworks.go.server.service.SecretParamResolver;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SharedGitObjectStoreTest {
+    private SystemEnvironment systemEnvironment;
+    private Clock clock;
+    private SharedGitObjectStore store;
+
+    @BeforeEach
+    public void setUp() {
+        systemEnvironment = mock(SystemEnvironment.class);
+        clock = mock(Clock.class);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_OBJECT_STORE)).thenReturn(true);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_FETCH_WINDOW_IN_MILLIS)).thenReturn(0L);
+        store = new SharedGitObjectStore(mock(SecretParamResolver.class), systemEnvironment, clock);
+    }
+
+    @Test
+    public void shouldOnlyHandlePlainGitMaterialsWhenEnabled() {
+        assertThat(store.canHandle(new GitMaterial("https://example.com/repo.git", "main"))).isTrue();
+        assertThat(store.canHandle(new GitMaterial("https://example.com/repo.git", "refs/pull/1/head:pr"))).isFalse();
+        assertThat(store.canHandle(new HgMaterial("https://example.com/repo", null))).isFalse();
+
+        GitMaterial submodule = new GitMaterial("https://example.com/repo.git");
+        submodule.setSubmoduleFolder("sub");
+        assertThat(store.canHandle(submodule)).isFalse();
+
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_OBJECT_STORE)).thenReturn(false);
+        assertThat(store.canHandle(new GitMaterial("https://example.com/repo.git", "main"))).isFalse();
+    }
+
+    @Test
+    public void shouldShareRepositoryFolderBetweenBranchesOfTheSameUrl() {
+        GitMaterial main = spyOn(new GitMaterial("https://example.com/repo.git", "main"));
+        GitMaterial release = spyOn(new GitMaterial("https://example.com/repo.git", "release"));
+        GitMaterial other = spyOn(new GitMaterial("https://example.com/other.git", "main"));
+        when(clock.currentTimeMillis()).thenReturn(1L, 2L, 3L, 4L, 5L, 6L);
+
+        store.latestModification(main);
+        store.latestModification(release);
+        store.latestModification(other);
+
+        File mainFolder = fetchedFolder(main);
+        assertThat(fetchedFolder(release)).isEqualTo(mainFolder);
+        assertThat(fetchedFolder(other)).isNotEqualTo(mainFolder);
+        assertThat(mainFolder.getParentFile()).isEqualTo(SharedGitObjectStore.SHARED_REPOSITORIES_ROOT);
+    }
+
+    @Test
+    public void shouldReuseAFetchWhichStartedAfterTheUpdateWasRequested() {
+        GitMaterial main = spyOn(new GitMaterial("https://example.com/repo.git", "main"));
+        GitMaterial release = spyOn(new GitMaterial("https://example.com/repo.git", "release"));
+
+        when(clock.currentTimeMillis()).thenReturn(10L, 10L);
+        store.latestModification(main);
+
+        when(clock.currentTimeMillis()).thenReturn(10L);
+        store.latestModification(release);
+
+        when(clock.currentTimeMillis()).thenReturn(11L, 11L);
+        store.latestModification(release);
+
+        verify(main, times(1)).fetchIntoSharedRepository(any());
+        verify(release, times(1)).fetchIntoSharedRepository(any());
+    }
+
+    @Test
+    public void shouldReuseFetchesWithinTheConfiguredWindow() {
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SHARED_GIT_FETCH_WINDOW_IN_MILLIS)).thenReturn(1000L);
+        GitMaterial main = spyOn(new GitMaterial("https://example.com/repo.git", "main"));
+        GitMaterial release = spyOn(new GitMaterial("https://example.com/repo.git", "release"));
+
+        when(clock.currentTimeMillis()).thenReturn(100L, 100L);
+        store.latestModification(main);
+
+        when(clock.currentTimeMillis()).thenReturn(900L);
+        store.latestModification(release);
+
+        when(clock.currentTimeMillis()).thenReturn(1200L, 1200L);
+        store.latestModification(release);
+
+        verify(main, times(1)).fetchIntoSharedRepository(any());
+        verify(release, times(1)).fetchIntoSharedRepository(any());
+    }
+
+    private GitMaterial spyOn(GitMaterial material) {
+        GitMaterial spy = spy(material);
+        doNothing().when(spy).fetchIntoSharedRepository(any());
+        doReturn(List.of()).when(spy).latestModificationInSharedRepository(any());
+        return spy;
+    }
+
+    private File fetchedFolder(GitMaterial material) {
+        ArgumentCaptor<File> captor = ArgumentCaptor.forClass(File.class);
+        verify(material).fetchIntoSharedRepository(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.TestingClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static com.thoughtworks.go.plugin.access.notification.NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION;
+import static com.thoughtworks.go.plugin.access.notification.NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PluginNotificationBacklogTest {
+    private final TestingClock clock = new TestingClock();
+    private SystemEnvironment systemEnvironment;
+    private PluginNotificationBacklog backlog;
+
+    @BeforeEach
+    public void setUp() {
+        systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.NOTIFICATION_PLUGIN_MESSAGES_TTL_IN_MILLIS)).thenReturn(60_000L);
+        when(systemEnvironment.get(SystemEnvironment.NOTIFICATION_PLUGIN_COALESCE_AGENT_STATUS)).thenReturn(true);
+        when(systemEnvironment.get(SystemEnvironment.NOTIFICATION_PLUGIN_MAX_PENDING_MESSAGES)).thenReturn(0);
+        backlog = new PluginNotificationBacklog(systemEnvironment, clock);
+    }
+
+    @Test
+    public void shouldDeliverOnlyTheLatestStatusOfAnAgentWhoseStatusChangedWhileItsNotificationWasPending() {
+        PluginNotificationMessage<?> idle = agentStatus("agent-1", "Idle");
+        PluginNotificationMessage<?> building = agentStatus("agent-1", "Building");
+        PluginNotificationMessage<?> otherAgent = agentStatus("agent-2", "Idle");
+
+        assertThat(backlog.admit(idle)).isTrue();
+        assertThat(backlog.admit(building)).isFalse();
+        assertThat(backlog.admit(otherAgent)).isTrue();
+
+        assertThat(backlog.delivering(idle)).isSameAs(building);
+        assertThat(backlog.delivering(otherAgent)).isSameAs(otherAgent);
+        assertThat(backlog.admit(agentStatus("agent-1", "Idle"))).isTrue();
+        assertThat(backlog.statistics().get("plugin")).containsEntry("Coalesced agent status notifications", 1L);
+    }
+
+    @Test
+    public void shouldNotCoalesceIntoANotificationWhichExpiredBeforeBeingDelivered() {
+        backlog.admit(agentStatus("agent-1", "Idle"));
+        clock.addSeconds(61);
+
+        assertThat(backlog.admit(agentStatus("agent-1", "Building"))).isTrue();
+    }
+
+    @Test
+    public void shouldDropAgentStatusButNotStageStatusNotificationsOncePluginHasTooManyPending() {
+        when(systemEnvironment.get(SystemEnvironment.NOTIFICATION_PLUGIN_COALESCE_AGENT_STATUS)).thenReturn(false);
+        when(systemEnvironment.get(SystemEnvironment.NOTIFICATION_PLUGIN_MAX_PENDING_MESSAGES)).thenReturn(2);
+
+        assertThat(backlog.admit(agentStatus("agent-1", "Idle"))).isTrue();
+        assertThat(backlog.admit(new PluginNotificationMessage<>("plugin", STAGE_STATUS_CHANGE_NOTIFICATION, "stage"))).isTrue();
+        assertThat(backlog.admit(agentStatus("agent-2", "Idle"))).isFalse();
+        assertThat(backlog.admit(new PluginNotificationMessage<>("plugin", STAGE_STATUS_CHANGE_NOTIFICATION, "stage"))).isTrue();
+
+        assertThat(backlog.statistics().get("plugin"))
+            .containsEntry("Pending notifications", 3)
+            .containsEntry("Dropped agent status notifications", 1L);
+    }
+
+    @Test
+    public void shouldRecordHowLongNotificationsWaitedToBeDelivered() {
+        PluginNotificationMessage<?> message = agentStatus("agent-1", "Idle");
+        backlog.admit(message);
+        clock.addMillis(1500);
+
+        backlog.delivering(message);
+
+        assertThat(backlog.statistics().get("plugin"))
+            .containsEntry("Pending notifications", 0)
+            .containsEntry("Delivered notifications", 1L)
+            .containsEntry("Last delivery lag in millis", 1500L);
+    }
+
+    private PluginNotificationMessage<AgentNotificationData> agentStatus(String uuid, String state) {
+        AgentNotificationData data = new AgentNotificationData(uuid, "host", false, "127.0.0.1", "linux", "100", "Enabled", state, state, new Date());
+        return new PluginNotificationMessage<>("plugin", AGENT_STATUS_CHANGE_NOTIFICATION, data);
+    }
+}
@@ -20,6 +20,8 @@ import com.thoughtworks.go.plugin.api.response.Result;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
+import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.SystemTimeClock;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -33,7 +35,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldNotifyPluginOnMessage() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationBacklog(new SystemEnvironment(), new SystemTimeClock()));
 
         PluginNotificationMessage<?> message = new PluginNotificationMessage<>("pid", "request-name", "data");
         when(notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData())).thenReturn(new Result());
@@ -47,7 +49,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldAddErrorReturnedByPluginToHealthMessage() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationBacklog(new SystemEnvironment(), new SystemTimeClock()));
 
         PluginNotificationMessage<?> message = new PluginNotificationMessage<>("pid", "request-name", "data");
         Result result = new Result();
@@ -68,7 +70,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldHandleExceptionDuringPluginNotificationCorrectly() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationBacklog(new SystemEnvironment(), new SystemTimeClock()));
 
         PluginNotificationMessage<?> message = new PluginNotificationMessage<>("pid", "request-name", "data");
         when(notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData())).thenThrow(new RuntimeException("error!"));
@@ -20,8 +20,11 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.domain.AccessToken;
 import com.thoughtworks.go.server.dao.AccessTokenDao;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.exceptions.InvalidAccessTokenException;
+import com.thoughtworks.go.server.exceptions.RevokedAccessTokenException;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
 import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TestingClock;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +37,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.Timestamp;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.thoughtworks.go.helper.AccessTokenMother.randomAccessTokenForUser;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,6 +50,9 @@ class AccessTokenServiceTest {
     private AccessTokenDao accessTokenDao;
     @Mock
     private SecurityService securityService;
+    @Mock
+    private SystemEnvironment systemEnvironment;
+    private final AuthorizationExtensionCacheServiceTest.FakeTicker ticker = new AuthorizationExtensionCacheServiceTest.FakeTicker();
     private AccessTokenService accessTokenService;
     private HttpLocalizedOperationResult result;
     private String username;
@@ -54,7 +61,9 @@ class AccessTokenServiceTest {
 
     @BeforeEach
     void setUp() {
-        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_TTL_IN_SECONDS)).thenReturn(300);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_SIZE)).thenReturn(100);
+        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService, systemEnvironment, ticker);
         result = new HttpLocalizedOperationResult();
 
         username = "Bob";
@@ -123,6 +132,59 @@ class AccessTokenServiceTest {
         verifyNoMoreInteractions(accessTokenDao);
     }
 
+    @Nested
+    class FindByAccessToken {
+        private AccessToken.AccessTokenWithDisplayValue created;
+        private AccessToken token;
+
+        @BeforeEach
+        void setUp() {
+            created = AccessToken.create("description", username, authConfigId, clock);
+            created.setId(42);
+            token = spy(created);
+            when(accessTokenDao.findAccessTokenBySaltId(created.getSaltId())).thenReturn(token);
+        }
+
+        @Test
+        void shouldOnlyDeriveTheDigestOfATokenOnceWhileItIsRemembered() {
+            assertThat(accessTokenService.findByAccessToken(created.getDisplayValue())).isSameAs(token);
+            assertThat(accessTokenService.findByAccessToken(created.getDisplayValue())).isSameAs(token);
+            verify(token, times(1)).isValidToken(created.getDisplayValue());
+
+            ticker.advance(301, TimeUnit.SECONDS);
+            accessTokenService.findByAccessToken(created.getDisplayValue());
+            verify(token, times(2)).isValidToken(created.getDisplayValue());
+        }
+
+        @Test
+        void shouldNotRememberATokenWhichIsNotValid() {
+            String wrongToken = created.getSaltId() + "x".repeat(32);
+
+            assertThatCode(() -> accessTokenService.findByAccessToken(wrongToken)).isInstanceOf(InvalidAccessTokenException.class);
+            assertThatCode(() -> accessTokenService.findByAccessToken(wrongToken)).isInstanceOf(InvalidAccessTokenException.class);
+            verify(token, times(2)).isValidToken(wrongToken);
+        }
+
+        @Test
+        void shouldRejectARememberedTokenOnceItIsRevoked() {
+            accessTokenService.findByAccessToken(created.getDisplayValue());
+            token.revoke("admin", "no longer needed", clock.currentSqlTimestamp());
+
+            assertThatCode(() -> accessTokenService.findByAccessToken(created.getDisplayValue())).isInstanceOf(RevokedAccessTokenException.class);
+        }
+
+        @Test
+        void shouldDeriveTheDigestOfEveryTokenWhenVerificationsAreNotRemembered() {
+            when(systemEnvironment.get(SystemEnvironment.GO_SERVER_ACCESS_TOKEN_VERIFICATION_CACHE_TTL_IN_SECONDS)).thenReturn(0);
+            accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService, systemEnvironment, ticker);
+
+            accessTokenService.findByAccessToken(created.getDisplayValue());
+            accessTokenService.findByAccessToken(created.getDisplayValue());
+
+            verify(token, times(2)).isValidToken(created.getDisplayValue());
+        }
+    }
+
     @Nested
     class OnTimer {
 
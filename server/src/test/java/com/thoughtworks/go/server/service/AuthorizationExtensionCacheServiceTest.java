@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.service;
 import com.github.benmanes.caffeine.cache.Ticker;
 import com.thoughtworks.go.config.PluginRoleConfig;
 import com.thoughtworks.go.config.SecurityAuthConfig;
+import com.thoughtworks.go.config.SecurityConfig;
 import com.thoughtworks.go.plugin.access.authorization.AuthorizationExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,9 +28,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.thoughtworks.go.domain.packagerepository.ConfigurationPropertyMother.create;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -40,14 +44,20 @@ class AuthorizationExtensionCacheServiceTest {
     private final SecurityAuthConfig authConfig = new SecurityAuthConfig("ldap", "cd.go.ldap");
     private final FakeTicker ticker = new FakeTicker();
 
+    private final SecurityConfig securityConfig = new SecurityConfig();
+
     @Mock
     private AuthorizationExtension authorizationExtension;
+    @Mock
+    private GoConfigService goConfigService;
 
     AuthorizationExtensionCacheService service;
 
     @BeforeEach
     void setUp() {
-        service = new AuthorizationExtensionCacheService(authorizationExtension, ticker);
+        securityConfig.securityAuthConfigs().add(authConfig);
+        when(goConfigService.security()).thenReturn(securityConfig);
+        service = new AuthorizationExtensionCacheService(authorizationExtension, goConfigService, ticker);
     }
 
     @Test
@@ -137,6 +147,56 @@ class AuthorizationExtensionCacheServiceTest {
         verify(authorizationExtension, times(2)).getUserRoles(pluginId, username, authConfig, pluginRoleConfigs);
     }
 
+    @Test
+    void shouldServeCachedUserRolesWhileRefreshingThemOnceTheyAreOlderThanTheRefreshInterval() {
+        service = new AuthorizationExtensionCacheService(authorizationExtension, goConfigService, ticker, 10, Runnable::run);
+        List<PluginRoleConfig> pluginRoleConfigs = Collections.emptyList();
+        when(authorizationExtension.getUserRoles(pluginId, username, authConfig, pluginRoleConfigs)).thenReturn(List.of("admin"), List.of("viewer"));
+
+        assertThat(service.getUserRoles(pluginId, username, authConfig, pluginRoleConfigs)).containsExactly("admin");
+        ticker.advance(11, TimeUnit.SECONDS);
+        assertThat(service.getUserRoles(pluginId, username, authConfig, pluginRoleConfigs)).containsExactly("admin");
+        assertThat(service.getUserRoles(pluginId, username, authConfig, pluginRoleConfigs)).containsExactly("viewer");
+
+        verify(authorizationExtension, times(2)).getUserRoles(pluginId, username, authConfig, pluginRoleConfigs);
+    }
+
+    @Test
+    void shouldRefreshUserRolesWithTheAuthConfigAndRolesOfTheCurrentConfig() {
+        service = new AuthorizationExtensionCacheService(authorizationExtension, goConfigService, ticker, 10, Runnable::run);
+        PluginRoleConfig role = new PluginRoleConfig("admins", "ldap", create("group", "admins"));
+        securityConfig.addRole(role);
+        when(authorizationExtension.getUserRoles(pluginId, username, authConfig, List.of(role))).thenReturn(List.of("admins"));
+        assertThat(service.getUserRoles(pluginId, username, authConfig, List.of(role))).containsExactly("admins");
+
+        SecurityAuthConfig changedAuthConfig = new SecurityAuthConfig("ldap", "cd.go.ldap", create("Url", "ldap://other"));
+        SecurityConfig changedSecurityConfig = new SecurityConfig();
+        changedSecurityConfig.securityAuthConfigs().add(changedAuthConfig);
+        changedSecurityConfig.addRole(role);
+        when(goConfigService.security()).thenReturn(changedSecurityConfig);
+        when(authorizationExtension.getUserRoles(pluginId, username, changedAuthConfig, List.of(role))).thenReturn(List.of("admins", "viewers"));
+        ticker.advance(11, TimeUnit.SECONDS);
+        service.getUserRoles(pluginId, username, authConfig, List.of(role));
+
+        assertThat(service.getUserRoles(pluginId, username, authConfig, List.of(role))).containsExactly("admins", "viewers");
+    }
+
+    @Test
+    void shouldAskExtensionAgainForUserRolesWhenTheConfigurationOfTheRolesChanges() {
+        PluginRoleConfig role = new PluginRoleConfig("admins", "ldap", create("group", "admins"));
+        PluginRoleConfig changedRole = new PluginRoleConfig("admins", "ldap", create("group", "administrators"));
+        securityConfig.addRole(role);
+        when(authorizationExtension.getUserRoles(pluginId, username, authConfig, List.of(role))).thenReturn(List.of("admins"));
+        assertThat(service.getUserRoles(pluginId, username, authConfig, List.of(role))).containsExactly("admins");
+
+        securityConfig.getRoles().clear();
+        securityConfig.addRole(changedRole);
+        when(authorizationExtension.getUserRoles(pluginId, username, authConfig, List.of(changedRole))).thenReturn(List.of());
+
+        assertThat(service.getUserRoles(pluginId, username, authConfig, List.of(changedRole))).isEmpty();
+        verify(authorizationExtension, times(2)).getUserRoles(eq(pluginId), eq(username), eq(authConfig), any());
+    }
+
     @Test
     void shouldInvalidateGetUserRolesCacheWhenSecurityConfigIsChanged() {
         List<PluginRoleConfig> pluginRoleConfigs = Collections.emptyList();
@@ -167,6 +227,18 @@ class AuthorizationExtensionCacheServiceTest {
         verify(authorizationExtension, times(2)).isValidUser(pluginId, username, authConfig);
     }
 
+    @Test
+    void shouldShutDownThePoolRefreshingAnswersWithTheService() {
+        ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+        service = new AuthorizationExtensionCacheService(authorizationExtension, goConfigService, ticker, 10, refreshExecutor);
+        when(authorizationExtension.isValidUser(pluginId, username, authConfig)).thenReturn(true);
+        assertThat(service.isValidUser(pluginId, username, authConfig)).isTrue();
+
+        service.destroy();
+
+        assertThat(refreshExecutor.isShutdown()).isTrue();
+    }
+
     static class FakeTicker implements Ticker {
         private final AtomicLong nanos = new AtomicLong();
 
@@ -31,8 +31,11 @@ import com.thoughtworks.go.helper.*;
 import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
 import com.thoughtworks.go.remote.work.BuildAssignment;
 import com.thoughtworks.go.remote.work.BuildWork;
+import com.thoughtworks.go.remote.work.DeniedAgentWork;
+import com.thoughtworks.go.remote.work.Work;
 import com.thoughtworks.go.server.domain.ElasticAgentMetadata;
 import com.thoughtworks.go.server.exceptions.RulesViolationException;
+import com.thoughtworks.go.server.materials.StaleMaterialsOnBuildCause;
 import com.thoughtworks.go.server.messaging.JobStatusMessage;
 import com.thoughtworks.go.server.messaging.JobStatusTopic;
 import com.thoughtworks.go.server.service.builders.BuilderFactory;
@@ -120,39 +123,42 @@ class BuildAssignmentServiceTest {
         profiles.put(elasticProfile2.getId(), elasticProfile2);
         schedulingContext = new DefaultSchedulingContext("me", new Agents(elasticAgent), profiles);
         lenient().when(jobInstanceService.orderedScheduledBuilds()).thenReturn(jobPlans);
+        lenient().when(jobInstanceService.orderedScheduledBuilds(any())).thenReturn(jobPlans);
         lenient().when(environmentConfigService.filterJobsByAgent(ArgumentMatchers.eq(jobPlans), any(String.class))).thenReturn(jobPlans);
         lenient().when(environmentConfigService.envForPipeline(any(String.class))).thenReturn("");
         lenient().when(maintenanceModeService.isMaintenanceMode()).thenReturn(false);
     }
 
     @Test
-    void shouldMatchAnElasticJobToAnElasticAgentOnlyIfThePluginAgreesToTheAssignment() {
+    void shouldAssignAnElasticJobToAnElasticAgentOnlyIfThePluginAgreesToTheAssignment() {
         PipelineConfig pipelineWithElasticJob = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1);
         JobPlan jobPlan = new InstanceFactory().createJobPlan(pipelineWithElasticJob.getFirst().getJobs().getFirst(), schedulingContext);
         jobPlans.add(jobPlan);
         when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier())).thenReturn(true);
         buildAssignmentService.onTimer();
 
-        JobPlan matchingJob = buildAssignmentService.findMatchingJob(elasticAgentInstance);
-        assertThat(matchingJob).isEqualTo(jobPlan);
+        assignWorkToElasticAgent();
+
+        verify(agentService).building(eq(elasticAgentInstance.getUuid()), any(AgentBuildingInfo.class));
         assertThat(buildAssignmentService.jobPlans().size()).isEqualTo(0);
     }
 
     @Test
-    void shouldNotMatchAnElasticJobToAnElasticAgentOnlyIfThePluginIdMatches() {
+    void shouldNotAssignAnElasticJobToAnElasticAgentOnlyIfThePluginIdMatches() {
         PipelineConfig pipelineWithElasticJob = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1);
         JobPlan jobPlan1 = new InstanceFactory().createJobPlan(pipelineWithElasticJob.getFirst().getJobs().getFirst(), schedulingContext);
         jobPlans.add(jobPlan1);
         lenient().when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan1.getElasticProfile(), jobPlan1.getClusterProfile(), null)).thenReturn(false);
         buildAssignmentService.onTimer();
 
-        JobPlan matchingJob = buildAssignmentService.findMatchingJob(elasticAgentInstance);
-        assertThat(matchingJob).isNull();
+        assertThat(assignWorkToElasticAgent()).isEqualTo(BuildAssignmentService.NO_WORK);
+
+        verify(agentService, never()).building(any(), any());
         assertThat(buildAssignmentService.jobPlans().size()).isEqualTo(1);
     }
 
     @Test
-    void shouldMatchAnElasticJobToAnElasticAgentOnlyIfThePluginAgreesToTheAssignmentWhenMultipleElasticJobsRequiringTheSamePluginAreScheduled() {
+    void shouldAssignAnElasticJobToAnElasticAgentOnlyIfThePluginAgreesToTheAssignmentWhenMultipleElasticJobsRequiringTheSamePluginAreScheduled() {
         PipelineConfig pipelineWith2ElasticJobs = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1, elasticProfileId2);
         JobPlan jobPlan1 = new InstanceFactory().createJobPlan(pipelineWith2ElasticJobs.getFirst().getJobs().getFirst(), schedulingContext);
         JobPlan jobPlan2 = new InstanceFactory().createJobPlan(pipelineWith2ElasticJobs.getFirst().getJobs().getLast(), schedulingContext);
@@ -162,9 +168,87 @@ class BuildAssignmentServiceTest {
         when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan2.getElasticProfile(), jobPlan2.getClusterProfile(), jobPlan2.getIdentifier())).thenReturn(true);
         buildAssignmentService.onTimer();
 
-        JobPlan matchingJob = buildAssignmentService.findMatchingJob(elasticAgentInstance);
-        assertThat(matchingJob).isEqualTo(jobPlan2);
-        assertThat(buildAssignmentService.jobPlans().size()).isEqualTo(1);
+        assignWorkToElasticAgent();
+
+        verify(agentService).building(eq(elasticAgentInstance.getUuid()), any(AgentBuildingInfo.class));
+        assertThat(buildAssignmentService.jobPlans()).containsExactly(jobPlan1);
+    }
+
+    @Test
+    void shouldConsultElasticAgentPluginsWithoutHoldingTheAssignmentLock() {
+        PipelineConfig pipelineWithElasticJob = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1);
+        JobPlan jobPlan = new InstanceFactory().createJobPlan(pipelineWithElasticJob.getFirst().getJobs().getFirst(), schedulingContext);
+        jobPlans.add(jobPlan);
+        List<Boolean> lockHeldWhileConsultingPlugin = new ArrayList<>();
+        when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier())).thenAnswer(invocation -> {
+            lockHeldWhileConsultingPlugin.add(Thread.holdsLock(buildAssignmentService));
+            return true;
+        });
+        buildAssignmentService.onTimer();
+
+        assignWorkToElasticAgent();
+
+        assertThat(lockHeldWhileConsultingPlugin).containsExactly(false);
+        verify(agentService).building(eq(elasticAgentInstance.getUuid()), any(AgentBuildingInfo.class));
+        assertThat(buildAssignmentService.jobPlans()).isEmpty();
+    }
+
+    @Test
+    void shouldNotAssignAnElasticJobWhichWasClaimedWhileThePluginWasBeingConsulted() {
+        PipelineConfig pipelineWith2ElasticJobs = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1, elasticProfileId2);
+        JobPlan claimedByAnotherAgent = new InstanceFactory().createJobPlan(pipelineWith2ElasticJobs.getFirst().getJobs().getFirst(), schedulingContext);
+        JobPlan stillQueued = new InstanceFactory().createJobPlan(pipelineWith2ElasticJobs.getFirst().getJobs().getLast(), schedulingContext);
+        jobPlans.add(claimedByAnotherAgent);
+        jobPlans.add(stillQueued);
+        when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, claimedByAnotherAgent.getElasticProfile(), claimedByAnotherAgent.getClusterProfile(), claimedByAnotherAgent.getIdentifier())).thenAnswer(invocation -> {
+            buildAssignmentService.jobPlans().remove(claimedByAnotherAgent);
+            return true;
+        });
+        when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, stillQueued.getElasticProfile(), stillQueued.getClusterProfile(), stillQueued.getIdentifier())).thenReturn(false);
+        buildAssignmentService.onTimer();
+
+        assertThat(assignWorkToElasticAgent()).isEqualTo(BuildAssignmentService.NO_WORK);
+
+        verify(agentService, never()).building(any(), any());
+        verify(scheduleService).rescheduleAbandonedBuildIfNecessary(elasticAgentInstance.getAgentIdentifier());
+        assertThat(buildAssignmentService.jobPlans()).containsExactly(stillQueued);
+    }
+
+    @Test
+    void shouldDenyWorkToAnElasticAgentWhichWasDisabledWhileThePluginWasBeingConsulted() {
+        PipelineConfig pipelineWithElasticJob = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1);
+        JobPlan jobPlan = new InstanceFactory().createJobPlan(pipelineWithElasticJob.getFirst().getJobs().getFirst(), schedulingContext);
+        jobPlans.add(jobPlan);
+        when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier())).thenAnswer(invocation -> {
+            elasticAgentInstance.deny();
+            return true;
+        });
+        buildAssignmentService.onTimer();
+
+        assertThat(buildAssignmentService.assignWorkToAgent(elasticAgentInstance)).isInstanceOf(DeniedAgentWork.class);
+
+        verify(scheduleService, never()).rescheduleAbandonedBuildIfNecessary(any());
+        assertThat(buildAssignmentService.jobPlans()).containsExactly(jobPlan);
+    }
+
+    @Test
+    void shouldAssignAnElasticJobUnderTheSameLockItIsClaimedIn() {
+        PipelineConfig pipelineWithElasticJob = PipelineConfigMother.pipelineWithElasticJob(elasticProfileId1);
+        JobPlan jobPlan = new InstanceFactory().createJobPlan(pipelineWithElasticJob.getFirst().getJobs().getFirst(), schedulingContext);
+        jobPlans.add(jobPlan);
+        when(elasticAgentPluginService.shouldAssignWork(elasticAgentInstance.elasticAgentMetadata(), null, jobPlan.getElasticProfile(), jobPlan.getClusterProfile(), jobPlan.getIdentifier())).thenReturn(true);
+        List<Boolean> lockHeldWhileCreatingWork = new ArrayList<>();
+        when(scheduledPipelineLoader.pipelineWithPasswordAwareBuildCauseByBuildId(jobPlan.getJobId())).thenAnswer(invocation -> {
+            lockHeldWhileCreatingWork.add(Thread.holdsLock(buildAssignmentService));
+            throw new StaleMaterialsOnBuildCause("stale");
+        });
+        buildAssignmentService.onTimer();
+
+        assertThat(buildAssignmentService.assignWorkToAgent(elasticAgentInstance)).isEqualTo(BuildAssignmentService.NO_WORK);
+
+        assertThat(lockHeldWhileCreatingWork).containsExactly(true);
+        assertThat(buildAssignmentService.jobPlans()).isEmpty();
+        verify(scheduleService).rescheduleAbandonedBuildIfNecessary(elasticAgentInstance.getAgentIdentifier());
     }
 
     @Test
@@ -524,9 +608,7 @@ class BuildAssignmentServiceTest {
         buildAssignmentService.onTimer();
 
         assertThatCode(() -> {
-            JobPlan matchingJob = buildAssignmentService.findMatchingJob(elasticAgentInstance);
-
-            assertThat(matchingJob).isNull();
+            assertThat(buildAssignmentService.assignWorkToAgent(elasticAgentInstance)).isEqualTo(BuildAssignmentService.NO_WORK);
             assertThat(buildAssignmentService.jobPlans()).containsExactly(jobPlan);
         }).doesNotThrowAnyException();
 
@@ -552,9 +634,7 @@ class BuildAssignmentServiceTest {
         buildAssignmentService.onTimer();
 
         assertThatCode(() -> {
-            JobPlan matchingJob = buildAssignmentService.findMatchingJob(elasticAgentInstance);
-
-            assertThat(matchingJob).isNull();
+            assertThat(buildAssignmentService.assignWorkToAgent(elasticAgentInstance)).isEqualTo(BuildAssignmentService.NO_WORK);
             assertThat(buildAssignmentService.jobPlans()).containsExactly(jobPlan);
         }).doesNotThrowAnyException();
 
@@ -565,6 +645,12 @@ class BuildAssignmentServiceTest {
         inOrder.verify(jobStatusTopic).post(new JobStatusMessage(jobPlan.getIdentifier(), JobState.Scheduled, elasticAgentInstance.getUuid()));
     }
 
+    // the build cause of an assigned job is made stale, so that no work has to be created for it
+    private Work assignWorkToElasticAgent() {
+        lenient().when(scheduledPipelineLoader.pipelineWithPasswordAwareBuildCauseByBuildId(anyLong())).thenThrow(new StaleMaterialsOnBuildCause("stale"));
+        return buildAssignmentService.assignWorkToAgent(elasticAgentInstance);
+    }
+
     private JobPlan getJobPlan(CaseInsensitiveString pipelineName, CaseInsensitiveString stageName, JobConfig job) {
         JobPlan jobPlan = new InstanceFactory().createJobPlan(job, schedulingContext);
 
@@ -35,7 +35,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.thoughtworks.go.server.newsecurity.SessionUtilsHelper.loginAs;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @ExtendWith(ClearSingleton.class)
@@ -156,6 +156,33 @@ public class CcTrayServiceTest {
         assertThat(originalXML).isNotEqualTo(newXML);
     }
 
+    @Test
+    public void shouldReuseTheDocumentRenderedForUsersWhoCanViewTheSameProjects() {
+        when(goConfigService.isSecurityEnabled()).thenReturn(true);
+        ProjectStatus proj1 = spy(statusFor("proj1", "user1", "user2"));
+        when(ccTrayCache.allEntriesInOrder()).thenReturn(List.of(proj1, statusFor("proj2", "user3")));
+
+        String xmlForUser1 = ccTrayService.renderCCTrayXML("prefix1", "user1", new StringBuilder(), etag -> {
+        }).toString();
+        String xmlForUser2 = ccTrayService.renderCCTrayXML("prefix1", "user2", new StringBuilder(), etag -> {
+        }).toString();
+
+        assertCcTrayXmlFor(xmlForUser1, "prefix1", "proj1");
+        assertThat(xmlForUser2).isEqualTo(xmlForUser1);
+        verify(proj1, times(1)).xmlRepresentation("prefix1");
+    }
+
+    @Test
+    public void shouldUseTheSiteUrlPrefixLiterally() {
+        when(goConfigService.isSecurityEnabled()).thenReturn(false);
+        when(ccTrayCache.allEntriesInOrder()).thenReturn(List.of(statusFor("proj1", "user1")));
+
+        String xml = ccTrayService.renderCCTrayXML("https://go.example.com/$1", "user1", new StringBuilder(), etag -> {
+        }).toString();
+
+        assertCcTrayXmlFor(xml, "https://go.example.com/$1", "proj1");
+    }
+
     private ProjectStatus statusFor(String projectName, String... allowedUsers) {
         ProjectStatus status = new ProjectStatus(projectName, "activity1", "build-status-1", "build-label-1", Dates.parseIso8601StrictOffset("2010-05-23T10:00:00+02:00"), "web-url");
         status.updateViewers(viewers(allowedUsers));
@@ -49,6 +49,7 @@ import com.thoughtworks.go.serverhealth.HealthStateLevel;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.TimeProvider;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -133,6 +134,14 @@ class ElasticAgentPluginServiceTest {
     @AfterEach
     void tearDown() {
         elasticAgentMetadataStore.clear();
+        System.clearProperty(SystemEnvironment.GO_SERVER_ELASTIC_AGENT_ASSIGNMENT_DECISION_CACHE_TTL_IN_SECONDS.propertyName());
+    }
+
+    private ElasticAgentPluginService serviceRememberingAcceptedAssignments() {
+        System.setProperty(SystemEnvironment.GO_SERVER_ELASTIC_AGENT_ASSIGNMENT_DECISION_CACHE_TTL_IN_SECONDS.propertyName(), "10");
+        return new ElasticAgentPluginService(pluginManager, registry, agentService, environmentConfigService,
+                createAgentQueue, serverPingQueue, goConfigService, new TimeProvider(), serverHealthService, elasticAgentMetadataStore,
+                clusterProfilesService, jobInstanceSqlMapDao, scheduleService, consoleService, ephemeralAutoRegisterKeyService, secretParamResolver, jobStatusTopic);
     }
 
     @Test
@@ -202,6 +211,27 @@ class ElasticAgentPluginServiceTest {
         assertThat(createAgentMessage.jobIdentifier()).isEqualTo(plan2.getIdentifier());
     }
 
+    @Test
+    void shouldResolveSecretsOnceForJobsSharingProfilesAndEnvironmentButAskForEachAgentInItsOwnMessage() {
+        JobPlan plan1 = plan(1, "docker");
+        JobPlan plan2 = plan(2, "docker");
+        JobPlan plan3 = plan(3, "docker");
+        when(goConfigService.elasticJobStarvationThreshold()).thenReturn(20000L);
+        when(environmentConfigService.envForPipeline("pipeline-3")).thenReturn("env-3");
+        ArgumentCaptor<CreateAgentMessage> captor = ArgumentCaptor.forClass(CreateAgentMessage.class);
+
+        service.createAgentsFor(emptyList(), List.of(plan1, plan2, plan3));
+
+        verify(createAgentQueue, times(3)).post(captor.capture(), eq(10000L));
+        assertThat(captor.getAllValues())
+                .extracting(CreateAgentMessage::environment, CreateAgentMessage::jobIdentifier)
+                .containsExactly(
+                        tuple(null, plan1.getIdentifier()),
+                        tuple(null, plan2.getIdentifier()),
+                        tuple("env-3", plan3.getIdentifier()));
+        verify(secretParamResolver, times(2)).resolve(any(ClusterProfile.class));
+    }
+
     @Test
     void shouldPostCreateAgentMessageWithTimeToLiveLesserThanJobStarvationThreshold() {
         JobPlan plan1 = plan(1, "docker");
@@ -307,6 +337,76 @@ class ElasticAgentPluginServiceTest {
         assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, new ClusterProfile("clusterProfileId", elasticPluginId), null)).isFalse();
     }
 
+    @Test
+    void shouldAskThePluginEveryTimeUnlessRememberingAcceptedAssignmentsIsTurnedOn() {
+        String uuid = randomUUID().toString();
+        ElasticAgentMetadata agentMetadata = new ElasticAgentMetadata(uuid, uuid, "plugin-1", AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled);
+        ClusterProfile clusterProfile = new ClusterProfile("clusterProfileId", "plugin-1");
+        ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId");
+        JobIdentifier job = new JobIdentifier("up", 1, "1", "s", "1", "job1");
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), eq(job))).thenReturn(true);
+
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isTrue();
+        verify(registry, times(2)).shouldAssignWork(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRememberThePluginAcceptingAnAssignmentForTheSameAgentJobAndProfiles() {
+        service = serviceRememberingAcceptedAssignments();
+        String uuid = randomUUID().toString();
+        String elasticPluginId = "plugin-1";
+        ElasticAgentMetadata agentMetadata = new ElasticAgentMetadata(uuid, uuid, elasticPluginId, AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled);
+        ClusterProfile clusterProfile = new ClusterProfile("clusterProfileId", elasticPluginId);
+        ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId");
+        ElasticProfile otherElasticProfile = new ElasticProfile("2", "clusterProfileId");
+        JobIdentifier job = new JobIdentifier("up", 1, "1", "s", "1", "job1");
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), eq(job))).thenReturn(true);
+
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, new JobIdentifier("up", 1, "1", "s", "1", "job1"))).isTrue();
+        verify(registry, times(1)).shouldAssignWork(any(), any(), any(), any(), any(), any());
+
+        assertThat(service.shouldAssignWork(agentMetadata, null, otherElasticProfile, clusterProfile, job)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, "prod", elasticProfile, clusterProfile, job)).isTrue();
+        verify(registry, times(3)).shouldAssignWork(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldAskThePluginAgainAfterItRefusedAnAssignment() {
+        service = serviceRememberingAcceptedAssignments();
+        String uuid = randomUUID().toString();
+        ElasticAgentMetadata agentMetadata = new ElasticAgentMetadata(uuid, uuid, "plugin-1", AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled);
+        ClusterProfile clusterProfile = new ClusterProfile("clusterProfileId", "plugin-1");
+        ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId");
+        JobIdentifier job = new JobIdentifier("up", 1, "1", "s", "1", "job1");
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), eq(job))).thenReturn(false, true);
+
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isFalse();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, job)).isTrue();
+        verify(registry, times(2)).shouldAssignWork(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldNotAnswerForOneJobWithTheAssignmentDecisionOfAnotherJob() {
+        service = serviceRememberingAcceptedAssignments();
+        String uuid = randomUUID().toString();
+        String elasticPluginId = "plugin-1";
+        ElasticAgentMetadata agentMetadata = new ElasticAgentMetadata(uuid, uuid, elasticPluginId, AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled);
+        ClusterProfile clusterProfile = new ClusterProfile("clusterProfileId", elasticPluginId);
+        ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId");
+        JobIdentifier jobTheAgentWasCreatedFor = new JobIdentifier("up", 1, "1", "s", "1", "job1");
+        JobIdentifier otherJob = new JobIdentifier("up", 1, "1", "s", "1", "job2");
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), eq(jobTheAgentWasCreatedFor))).thenReturn(true);
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), eq(otherJob))).thenReturn(false);
+
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, jobTheAgentWasCreatedFor)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, otherJob)).isFalse();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, jobTheAgentWasCreatedFor)).isTrue();
+        assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, otherJob)).isFalse();
+    }
+
     @Test
     void shouldNotAssignJobToAnAgentBroughtUpByADifferentElasticPlugin() {
         String uuid = randomUUID().toString();
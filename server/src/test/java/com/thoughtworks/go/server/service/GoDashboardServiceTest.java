@@ -322,6 +322,38 @@ public class GoDashboardServiceTest {
         verifyNoMoreInteractions(dashboardCurrentStateLoader);
     }
 
+    @Test
+    public void changesSince_shouldOnlyHaveChangedAndRemovedPipelinesWhichTheUserCanSeeThroughTheFilter() {
+        DashboardFilter filter = new ExcludesFilter("foo", CaseInsensitiveString.list("pipeline2", "pipeline4"), Collections.emptySet());
+        Permissions onlyUser1 = new Permissions(new AllowedUsers(Set.of("user1"), Collections.emptySet()), NoOne.INSTANCE, NoOne.INSTANCE, NoOnePermission.INSTANCE);
+        Permissions noOne = new Permissions(NoOne.INSTANCE, NoOne.INSTANCE, NoOne.INSTANCE, NoOnePermission.INSTANCE);
+
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1", "group1", onlyUser1);
+        GoDashboardPipeline pipeline2 = pipeline("pipeline2", "group1", onlyUser1);
+        GoDashboardPipeline pipeline3 = pipeline("pipeline3", "group2", noOne);
+        GoDashboardPipeline removedPipeline4 = pipeline("pipeline4", "group1", onlyUser1);
+        GoDashboardPipeline removedPipeline5 = pipeline("pipeline5", "group1", onlyUser1);
+        GoDashboardPipeline removedPipeline6 = pipeline("pipeline6", "group2", noOne);
+        when(cache.changesSince(42L)).thenReturn(GoDashboardChanges.of(43L, List.of(pipeline1, pipeline2, pipeline3), List.of(removedPipeline4, removedPipeline5, removedPipeline6)));
+
+        GoDashboardChanges changes = service.changesSince(42L, filter, new Username("user1"));
+
+        assertThat(changes.isComplete()).isTrue();
+        assertThat(changes.version()).isEqualTo(43L);
+        assertThat(changes.changedPipelines()).containsExactly(pipeline1);
+        assertThat(changes.removedPipelines()).containsExactly(removedPipeline5);
+
+        assertThat(service.changesSince(42L, Filters.WILDCARD_FILTER, new Username("user2")).changedPipelines()).isEmpty();
+    }
+
+    @Test
+    public void changesSince_shouldKeepChangesUnknownWhenTheCacheDoesNotKnowThem() {
+        GoDashboardChanges unknown = GoDashboardChanges.unknown(43L);
+        when(cache.changesSince(42L)).thenReturn(unknown);
+
+        assertThat(service.changesSince(42L, Filters.WILDCARD_FILTER, new Username("user1"))).isSameAs(unknown);
+    }
+
     private List<GoDashboardEnvironment> allEnvironmentsForDashboard(DashboardFilter filter, Username username) {
         when(goConfigService.getEnvironments()).thenReturn(config.getEnvironments());
         when(goConfigService.security()).thenReturn(config.server().security());
@@ -0,0 +1,111 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.BasicCruiseConfig;
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.config.PipelineConfigs;
+import com.thoughtworks.go.helper.GoConfigMother;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static com.thoughtworks.go.server.service.PipelineGroupPermissionsIndex.Permission.OPERATE;
+import static com.thoughtworks.go.server.service.PipelineGroupPermissionsIndex.Permission.VIEW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PipelineGroupPermissionsIndexTest {
+    private final CaseInsensitiveString bob = new CaseInsensitiveString("bob");
+    private final AtomicInteger walks = new AtomicInteger();
+    private PipelineGroupPermissionsIndex index;
+    private CruiseConfig cruiseConfig;
+
+    @BeforeEach
+    void setUp() {
+        SystemEnvironment systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_PERMISSIONS_INDEX_ENABLED)).thenReturn(true);
+        index = new PipelineGroupPermissionsIndex(systemEnvironment);
+
+        cruiseConfig = new BasicCruiseConfig();
+        new GoConfigMother().addPipelineWithGroup(cruiseConfig, "first", "up42", "stage", "job");
+        new GoConfigMother().addPipelineWithGroup(cruiseConfig, "second", "down42", "stage", "job");
+    }
+
+    @Test
+    void shouldFindTheGroupOfAPipeline() {
+        assertThat(index.groupNameOf(cruiseConfig, new CaseInsensitiveString("UP42"))).isEqualTo("first");
+        assertThat(index.groupNameOf(cruiseConfig, new CaseInsensitiveString("unknown"))).isNull();
+        assertThat(index.hasGroup(cruiseConfig, "SECOND")).isTrue();
+        assertThat(index.hasGroup(cruiseConfig, "unknown")).isFalse();
+    }
+
+    @Test
+    void shouldWorkOutTheGroupsGrantedToAUserOncePerPermission() {
+        assertThat(index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("first"))).isTrue();
+        assertThat(index.isGranted(cruiseConfig, "Second", bob, VIEW, false, only("first"))).isFalse();
+        assertThat(walks).hasValue(1);
+
+        assertThat(index.isGranted(cruiseConfig, "second", bob, OPERATE, false, only("second"))).isTrue();
+        assertThat(walks).hasValue(2);
+    }
+
+    @Test
+    void shouldWorkOutGrantsAgainOnceTheConfigOrThePluginRolesOfTheUserChange() {
+        index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("first"));
+
+        index.onPluginRoleChangeFor("alice");
+        index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("first"));
+        assertThat(walks).hasValue(1);
+
+        index.onPluginRoleChangeFor("BOB");
+        assertThat(index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("second"))).isFalse();
+        assertThat(walks).hasValue(2);
+
+        CruiseConfig newConfig = GoConfigMother.deepClone(cruiseConfig);
+        assertThat(index.isGranted(newConfig, "first", bob, VIEW, false, only("first"))).isTrue();
+        assertThat(walks).hasValue(3);
+    }
+
+    @Test
+    void shouldNotKeepGrantsWorkedOutWhileThePluginRolesOfAUserChanged() {
+        Supplier<Predicate<PipelineConfigs>> rolesChangingMidway = () -> {
+            Predicate<PipelineConfigs> granted = only("first").get();
+            index.onPluginRoleChangeFor("bob");
+            return granted;
+        };
+
+        assertThat(index.isGranted(cruiseConfig, "first", bob, VIEW, false, rolesChangingMidway)).isTrue();
+        assertThat(index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("second"))).isFalse();
+        assertThat(walks).hasValue(2);
+
+        assertThat(index.isGranted(cruiseConfig, "first", bob, VIEW, false, only("first"))).isFalse();
+        assertThat(walks).hasValue(2);
+    }
+
+    private Supplier<Predicate<PipelineConfigs>> only(String groupName) {
+        return () -> {
+            walks.incrementAndGet();
+            return group -> group.isNamed(groupName);
+        };
+    }
+}
@@ -226,6 +226,32 @@ public class ScheduleServiceTest {
         verify(serverHealthService).update(ServerHealthState.success(HealthStateType.general(HealthStateScope.forStage("pipeline-quux", "mingle"))));
     }
 
+    @Test
+    public void shouldListProfilesOnceAndLogThroughputForAPassOverTheRequestBuffer() {
+        PipelineConfig first = PipelineConfigMother.pipelineConfig("first");
+        PipelineConfig second = PipelineConfigMother.pipelineConfig("second");
+        when(goConfigService.pipelineConfigNamed(first.name())).thenReturn(first);
+        when(goConfigService.pipelineConfigNamed(second.name())).thenReturn(second);
+        CruiseConfig cruiseConfig = mock(BasicCruiseConfig.class);
+        when(cruiseConfig.getMd5()).thenReturn("md5-test");
+        when(goConfigService.getCurrentConfig()).thenReturn(cruiseConfig);
+        when(schedulingChecker.canAutoTriggerConsumer(any())).thenReturn(true);
+        when(pipelineScheduleQueue.createPipeline(any(), eq(first), any(), eq("md5-test"), eq(timeProvider))).thenReturn(PipelineMother.schedule(first, BuildCause.createManualForced()));
+        when(pipelineScheduleQueue.createPipeline(any(), eq(second), any(), eq("md5-test"), eq(timeProvider))).thenReturn(null);
+        final Map<CaseInsensitiveString, BuildCause> map = new HashMap<>();
+        map.put(first.name(), BuildCause.createManualForced());
+        map.put(second.name(), BuildCause.createManualForced());
+        when(pipelineScheduleQueue.toBeScheduled()).thenReturn(map);
+
+        service.autoSchedulePipelinesFromRequestBuffer();
+
+        verify(elasticProfileService, times(1)).listAll();
+        verify(clusterProfileService, times(1)).listAll();
+        verify(pipelineScheduleQueue, times(1)).toBeScheduled();
+        verify(schedulingPerformanceLogger).scheduledPipeline(eq(first.name()), anyInt(), anyLong(), anyLong());
+        verify(schedulingPerformanceLogger).scheduledPipelines(eq(2), eq(1), anyLong(), anyLong());
+    }
+
     @Test
     public void shouldCancelUnresponsiveJobs() {
         service.cancelHungJobs();
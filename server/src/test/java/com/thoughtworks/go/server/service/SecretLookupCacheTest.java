@@ -0,0 +1,109 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.SecretConfig;
+import com.thoughtworks.go.plugin.access.exceptions.SecretResolutionFailureException;
+import com.thoughtworks.go.plugin.domain.secrets.Secret;
+import com.thoughtworks.go.security.GoCipher;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SecretLookupCacheTest {
+    private final AuthorizationExtensionCacheServiceTest.FakeTicker ticker = new AuthorizationExtensionCacheServiceTest.FakeTicker();
+    private final List<Set<String>> lookups = new ArrayList<>();
+    private SystemEnvironment systemEnvironment;
+    private GoCipher goCipher;
+    private SecretConfig secretConfig;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SECRETS_CACHE_TTL_IN_SECONDS)).thenReturn(60);
+        goCipher = mock(GoCipher.class);
+        when(goCipher.encrypt(anyString())).thenAnswer(invocation -> "encrypted:" + invocation.getArgument(0));
+        when(goCipher.decrypt(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).substring("encrypted:".length()));
+        secretConfig = new SecretConfig("vault", "cd.go.vault");
+    }
+
+    @Test
+    void shouldLookupEverySecretWhenCachingIsDisabled() {
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_SECRETS_CACHE_TTL_IN_SECONDS)).thenReturn(0);
+        SecretLookupCache cache = new SecretLookupCache(systemEnvironment, goCipher, ticker);
+
+        cache.lookup(secretConfig, Set.of("password"), plugin());
+        cache.lookup(secretConfig, Set.of("password"), plugin());
+
+        assertThat(lookups).hasSize(2);
+        verifyNoInteractions(goCipher);
+    }
+
+    @Test
+    void shouldOnlyLookupSecretsWhichAreNotCachedAndKeepThemEncrypted() throws Exception {
+        SecretLookupCache cache = new SecretLookupCache(systemEnvironment, goCipher, ticker);
+
+        assertThat(cache.lookup(secretConfig, Set.of("username", "password"), plugin()))
+                .containsExactlyInAnyOrder(new Secret("username", "value-of-username"), new Secret("password", "value-of-password"));
+        assertThat(cache.lookup(secretConfig, Set.of("password", "token"), plugin()))
+                .containsExactlyInAnyOrder(new Secret("password", "value-of-password"), new Secret("token", "value-of-token"));
+
+        assertThat(lookups).containsExactly(Set.of("username", "password"), Set.of("token"));
+        verify(goCipher).encrypt("value-of-password");
+    }
+
+    @Test
+    void shouldLookupSecretsAgainOnceTheyExpireOrTheSecretConfigChanges() {
+        SecretLookupCache cache = new SecretLookupCache(systemEnvironment, goCipher, ticker);
+
+        cache.lookup(secretConfig, Set.of("password"), plugin());
+        ticker.advance(61, TimeUnit.SECONDS);
+        cache.lookup(secretConfig, Set.of("password"), plugin());
+        secretConfig.getConfiguration().addNewConfigurationWithValue("url", "https://vault.example.com", false);
+        cache.lookup(secretConfig, Set.of("password"), plugin());
+
+        assertThat(lookups).hasSize(3);
+    }
+
+    @Test
+    void shouldNotCacheAFailedLookup() {
+        SecretLookupCache cache = new SecretLookupCache(systemEnvironment, goCipher, ticker);
+
+        assertThatCode(() -> cache.lookup(secretConfig, Set.of("password"), keys -> {
+            throw SecretResolutionFailureException.withMissingSecretParams("vault", keys, keys);
+        })).isInstanceOf(SecretResolutionFailureException.class);
+
+        assertThat(cache.lookup(secretConfig, Set.of("password"), plugin())).containsExactly(new Secret("password", "value-of-password"));
+    }
+
+    private Function<Set<String>, List<Secret>> plugin() {
+        return keys -> {
+            lookups.add(keys);
+            return keys.stream().map(key -> new Secret(key, "value-of-" + key)).toList();
+        };
+    }
+}
@@ -43,6 +43,7 @@ import com.thoughtworks.go.plugin.access.secrets.SecretsExtension;
 import com.thoughtworks.go.plugin.domain.secrets.Secret;
 import com.thoughtworks.go.remote.work.BuildAssignment;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.command.EnvironmentVariableContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -73,7 +74,7 @@ class SecretParamResolverTest {
     @BeforeEach
     void setUp() {
 
-        secretParamResolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService);
+        secretParamResolver = new SecretParamResolver(secretsExtension, goConfigService, rulesService, new SecretLookupCache(new SystemEnvironment()));
     }
 
     @Nested
@@ -38,7 +38,8 @@ public class SecurityServiceTest {
         goConfigService = mock(GoConfigService.class);
         SystemEnvironment systemEnvironment = mock(SystemEnvironment.class);
         when(goConfigService.security()).thenReturn(new SecurityConfig());
-        securityService = new SecurityService(goConfigService, systemEnvironment);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_PERMISSIONS_INDEX_ENABLED)).thenReturn(false);
+        securityService = new SecurityService(goConfigService, systemEnvironment, new PipelineGroupPermissionsIndex(systemEnvironment));
     }
 
     @Test
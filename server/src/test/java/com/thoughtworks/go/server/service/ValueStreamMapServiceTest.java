@@ -32,6 +32,8 @@ import com.thoughtworks.go.helper.GoConfigMother;
 import com.thoughtworks.go.helper.ModificationsMother;
 import com.thoughtworks.go.helper.PipelineConfigMother;
 import com.thoughtworks.go.helper.PipelineMother;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.listener.EntityConfigChangedListener;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.presentation.models.ValueStreamMapPresentationModel;
@@ -40,9 +42,11 @@ import com.thoughtworks.go.server.service.result.LocalizedOperationResult;
 import com.thoughtworks.go.server.valuestreammap.DownstreamInstancePopulator;
 import com.thoughtworks.go.server.valuestreammap.RunStagesPopulator;
 import com.thoughtworks.go.server.valuestreammap.UnrunStagesPopulator;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -76,6 +80,10 @@ public class ValueStreamMapServiceTest {
     private DownstreamInstancePopulator downstreaminstancepopulator;
     @Mock(strictness = Mock.Strictness.LENIENT)
     private SecurityService securityService;
+    @Mock
+    private StageService stageService;
+    @Mock
+    private SystemEnvironment systemEnvironment;
 
     private Username user;
     private ValueStreamMapService valueStreamMapService;
@@ -91,7 +99,8 @@ public class ValueStreamMapServiceTest {
 
         setupViewPermissionForGroups("g1");
 
-        valueStreamMapService = new ValueStreamMapService(pipelineService, materialRepository, goConfigService, downstreaminstancepopulator, runStagesPopulator, unrunStagesPopulator, securityService);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_VALUE_STREAM_MAP_CACHE_SIZE)).thenReturn(0);
+        valueStreamMapService = new ValueStreamMapService(pipelineService, materialRepository, goConfigService, downstreaminstancepopulator, runStagesPopulator, unrunStagesPopulator, securityService, stageService, systemEnvironment);
         result = new HttpLocalizedOperationResult();
 
         when(goConfigService.findPipelineByName(any())).thenReturn(PipelineConfigMother.pipelineConfig("found-pipeline"));
@@ -1017,6 +1026,73 @@ public class ValueStreamMapServiceTest {
         return createBuildCause(dependencyMaterials, gitMaterials, 1);
     }
 
+    @Test
+    public void shouldReuseTheGraphOfAPipelineInstanceUntilAStageOfAPipelineInItChanges() {
+        /*
+         * git ---> p1
+         * */
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_VALUE_STREAM_MAP_CACHE_SIZE)).thenReturn(10);
+        valueStreamMapService = new ValueStreamMapService(pipelineService, materialRepository, goConfigService, downstreaminstancepopulator, runStagesPopulator, unrunStagesPopulator, securityService, stageService, systemEnvironment);
+
+        BuildCause buildCause = PipelineMother.pipeline("p1", new Stage()).getBuildCause();
+        MaterialConfig materialConfig = buildCause.getMaterialRevisions().getMaterialRevision(0).getMaterial().config();
+        PipelineConfig p1Config = PipelineConfigMother.pipelineConfig("p1", new MaterialConfigs(materialConfig));
+
+        when(pipelineService.buildCauseFor("p1", 1)).thenReturn(buildCause);
+        when(goConfigService.currentCruiseConfig()).thenReturn(new BasicCruiseConfig(new BasicPipelineConfigs(p1Config)));
+        when(pipelineService.findPipelineByNameAndCounter("p1", 1)).thenReturn(new Pipeline("p1", "p1-label", buildCause, new EnvironmentVariables()));
+
+        ValueStreamMapPresentationModel first = valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        ValueStreamMapPresentationModel second = valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("P1"), 1, user, result);
+
+        verify(pipelineService, times(1)).buildCauseFor("p1", 1);
+        assertThat(second.getNodesAtEachLevel()).hasSameSizeAs(first.getNodesAtEachLevel());
+        assertThat(second.getCurrentPipeline()).isNotSameAs(first.getCurrentPipeline());
+
+        Stage unrelated = new Stage();
+        unrelated.setIdentifier(new StageIdentifier("p2", 1, "stage", "1"));
+        valueStreamMapService.stageStatusChanged(unrelated);
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        verify(pipelineService, times(1)).buildCauseFor("p1", 1);
+
+        Stage stageOfP1 = new Stage();
+        stageOfP1.setIdentifier(new StageIdentifier("P1", 1, "stage", "1"));
+        valueStreamMapService.stageStatusChanged(stageOfP1);
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        verify(pipelineService, times(2)).buildCauseFor("p1", 1);
+        assertThat(result.isSuccessful()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBuildTheGraphOfAPipelineInstanceAgainWhenAnyPartOfTheConfigChanges() {
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_VALUE_STREAM_MAP_CACHE_SIZE)).thenReturn(10);
+        valueStreamMapService = new ValueStreamMapService(pipelineService, materialRepository, goConfigService, downstreaminstancepopulator, runStagesPopulator, unrunStagesPopulator, securityService, stageService, systemEnvironment);
+
+        BuildCause buildCause = PipelineMother.pipeline("p1", new Stage()).getBuildCause();
+        MaterialConfig materialConfig = buildCause.getMaterialRevisions().getMaterialRevision(0).getMaterial().config();
+        PipelineConfig p1Config = PipelineConfigMother.pipelineConfig("p1", new MaterialConfigs(materialConfig));
+
+        when(pipelineService.buildCauseFor("p1", 1)).thenReturn(buildCause);
+        when(goConfigService.currentCruiseConfig()).thenReturn(new BasicCruiseConfig(new BasicPipelineConfigs(p1Config)));
+        when(pipelineService.findPipelineByNameAndCounter("p1", 1)).thenReturn(new Pipeline("p1", "p1-label", buildCause, new EnvironmentVariables()));
+
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        verify(pipelineService, times(1)).buildCauseFor("p1", 1);
+
+        ArgumentCaptor<ConfigChangedListener> listeners = ArgumentCaptor.forClass(ConfigChangedListener.class);
+        verify(goConfigService, times(2)).register(listeners.capture());
+        // a config repository changing its part of the config leaves the md5 of the main config file as it was
+        ((EntityConfigChangedListener<Object>) listeners.getAllValues().get(1)).onEntityConfigChange(p1Config);
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        verify(pipelineService, times(2)).buildCauseFor("p1", 1);
+
+        listeners.getAllValues().get(0).onConfigChange(null);
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString("p1"), 1, user, result);
+        verify(pipelineService, times(3)).buildCauseFor("p1", 1);
+        assertThat(result.isSuccessful()).isTrue();
+    }
+
     private void assertNode(int level, final Node node, final String expectedNodeName, final String expectedNodeId,
                             int expectedDummyDependentsCount, CaseInsensitiveString... dependents) {
         assertThat(node.getLevel()).isEqualTo(level);
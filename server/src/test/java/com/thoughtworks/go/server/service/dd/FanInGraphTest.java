@@ -15,21 +15,34 @@
  */
 package com.thoughtworks.go.server.service.dd;
 
-import com.thoughtworks.go.config.BasicCruiseConfig;
-import com.thoughtworks.go.config.BasicPipelineConfigs;
-import com.thoughtworks.go.config.CruiseConfig;
-import com.thoughtworks.go.config.PipelineConfig;
+import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.config.materials.MaterialConfigs;
 import com.thoughtworks.go.config.materials.ScmMaterialConfig;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterial;
 import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.domain.MaterialRevision;
+import com.thoughtworks.go.domain.MaterialRevisions;
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
+import com.thoughtworks.go.domain.StageIdentifier;
+import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.helper.PipelineConfigMother;
+import com.thoughtworks.go.server.dao.PipelineDao;
+import com.thoughtworks.go.server.domain.PipelineTimeline;
+import com.thoughtworks.go.server.persistence.MaterialRepository;
+import com.thoughtworks.go.server.service.MaterialConfigConverter;
 import org.junit.jupiter.api.Test;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static com.thoughtworks.go.helper.MaterialConfigsMother.git;
 import static com.thoughtworks.go.helper.MaterialConfigsMother.hg;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class FanInGraphTest {
     @Test
@@ -50,4 +63,50 @@ public class FanInGraphTest {
             c -> assertThat(c.getUrl()).isEqualTo("giturl")
         );
     }
+
+    @Test
+    public void shouldOnlyWalkUpstreamOfPipelineInstancesNotSeenByAnEarlierResolution() {
+        PipelineConfig p1 = PipelineConfigMother.pipelineConfig("p1", new MaterialConfigs(git("giturl", "dest")));
+        DependencyMaterialConfig p1Dep = new DependencyMaterialConfig(p1.name(), p1.getFirst().name());
+        PipelineConfig p2 = PipelineConfigMother.pipelineConfig("p2", new MaterialConfigs(p1Dep));
+        PipelineConfig p3 = PipelineConfigMother.pipelineConfig("p3", new MaterialConfigs(p1Dep));
+        DependencyMaterialConfig p2Dep = new DependencyMaterialConfig(p2.name(), p2.getFirst().name());
+        DependencyMaterialConfig p3Dep = new DependencyMaterialConfig(p3.name(), p3.getFirst().name());
+        PipelineConfig p4 = PipelineConfigMother.pipelineConfig("p4", new MaterialConfigs(p2Dep, p3Dep));
+        CruiseConfig cruiseConfig = new BasicCruiseConfig(new BasicPipelineConfigs(p1, p2, p3, p4));
+
+        String gitFingerprint = p1.materialConfigs().getFirst().getFingerprint();
+        String p1Stage = "p1/1/" + p1.getFirst().name() + "/1";
+        PipelineTimelineEntry p1Run = new PipelineTimelineEntry("p1", 1, 1, Map.of(gitFingerprint, List.of(new PipelineTimelineEntry.Revision(new Date(), "g1", 1))));
+        PipelineTimelineEntry p2Run = new PipelineTimelineEntry("p2", 2, 1, Map.of(p1Dep.getFingerprint(), List.of(new PipelineTimelineEntry.Revision(new Date(), p1Stage, 2))));
+        PipelineTimelineEntry p3Run = new PipelineTimelineEntry("p3", 3, 1, Map.of(p1Dep.getFingerprint(), List.of(new PipelineTimelineEntry.Revision(new Date(), p1Stage, 2))));
+
+        PipelineTimeline pipelineTimeline = mock(PipelineTimeline.class);
+        when(pipelineTimeline.instanceCount(p2.name())).thenReturn(1);
+        when(pipelineTimeline.instanceCount(p3.name())).thenReturn(1);
+        when(pipelineTimeline.instanceFor(p2.name(), 0)).thenReturn(p2Run);
+        when(pipelineTimeline.instanceFor(p3.name(), 0)).thenReturn(p3Run);
+        when(pipelineTimeline.getEntryFor(p1.name(), 1)).thenReturn(p1Run);
+
+        PipelineDao pipelineDao = mock(PipelineDao.class);
+        when(pipelineDao.latestPassedStageIdentifier(anyLong(), anyString())).thenAnswer(invocation ->
+            new StageIdentifier(invocation.getArgument(0, Long.class) == 2 ? "p2" : "p3", 1, invocation.getArgument(1), "1"));
+        MaterialRepository materialRepository = mock(MaterialRepository.class);
+        when(materialRepository.modificationFor(any(StageIdentifier.class))).thenReturn(List.of(new Modification(new Date(), "p2/1/stage/1", "1", 2L)));
+        MaterialConfigConverter materialConfigConverter = new MaterialConfigConverter();
+
+        MaterialRevisions given = new MaterialRevisions(
+            new MaterialRevision(new DependencyMaterial(p2Dep), new Modification(new Date(), "p2/1/stage/1", "1", 2L)),
+            new MaterialRevision(new DependencyMaterial(p3Dep), new Modification(new Date(), "p3/1/stage/1", "1", 3L)));
+
+        FanInGraph faninGraph = new FanInGraph(cruiseConfig, p4.name(), materialRepository, pipelineDao, materialConfigConverter, () -> 10);
+        MaterialRevisions first = faninGraph.computeRevisions(given, pipelineTimeline);
+        MaterialRevisions second = faninGraph.computeRevisions(given, pipelineTimeline);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(faninGraph.upstreamInstancesWalked()).isEqualTo(2);
+        verify(pipelineTimeline, times(2)).getEntryFor(p1.name(), 1);
+        assertThat(faninGraph.isBuiltFrom(cruiseConfig)).isTrue();
+        assertThat(faninGraph.isBuiltFrom(new BasicCruiseConfig(new BasicPipelineConfigs(p1, p2, p3, p4)))).isFalse();
+    }
 }
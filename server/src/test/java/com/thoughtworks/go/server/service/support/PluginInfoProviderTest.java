@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.service.support;
 import com.thoughtworks.go.plugin.domain.common.CombinedPluginInfo;
 import com.thoughtworks.go.plugin.domain.common.PluginInfo;
 import com.thoughtworks.go.plugin.infra.PluginManager;
+import com.thoughtworks.go.plugin.infra.listeners.DefaultPluginJarChangeListener;
 import com.thoughtworks.go.plugin.infra.plugininfo.GoPluginDescriptor;
 import com.thoughtworks.go.server.service.plugins.builder.DefaultPluginInfoFinder;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,9 +46,12 @@ public class PluginInfoProviderTest {
     @Mock
     private PluginManager pluginManager;
 
+    @Mock
+    private DefaultPluginJarChangeListener pluginJarChangeListener;
+
     @BeforeEach
     public void setUp() {
-        pluginInfoProvider = new PluginInfoProvider(pluginInfoFinder, pluginManager);
+        pluginInfoProvider = new PluginInfoProvider(pluginInfoFinder, pluginManager, pluginJarChangeListener);
     }
 
     @Test
@@ -79,6 +83,18 @@ public class PluginInfoProviderTest {
         assertThat(json).isEqualTo(expectedJson);
     }
 
+    @Test
+    public void shouldIncludeHowLongAPluginTookToLoadWhenKnown() {
+        when(pluginManager.plugins()).thenReturn(List.of(passwordFilePluginDescriptor(), ldapPluginDescriptor()));
+        when(pluginJarChangeListener.pluginLoadTimesInMillis()).thenReturn(Map.of("gocd-ldap-authentication-plugin.jar", 420L));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> plugins = (List<Map<String, Object>>) pluginInfoProvider.asJsonCompatibleMap().get("plugins");
+
+        assertThat(plugins.get(0)).doesNotContainKey("load_time_in_millis");
+        assertThat(plugins.get(1)).containsEntry("load_time_in_millis", 420L);
+    }
+
     private GoPluginDescriptor passwordFilePluginDescriptor() {
         return getPluginDescriptor("cd.go.authentication.passwordfile", "/usr/gocd-filebased-authentication-plugin.jar", "1.0.1-48");
     }
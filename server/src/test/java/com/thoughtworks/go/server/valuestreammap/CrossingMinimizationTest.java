@@ -21,8 +21,11 @@ import com.thoughtworks.go.domain.valuestreammap.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import static java.lang.Math.abs;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class CrossingMinimizationTest {
@@ -320,6 +323,84 @@ public class CrossingMinimizationTest {
         assertThat(graph.findNode(p6).getDepth()).isEqualTo(2);
     }
 
+    @Test
+    public void shouldLayOutEveryNodeOfAWideGraphAtItsOwnDepth() {
+        CaseInsensitiveString p = new CaseInsensitiveString("P");
+        ValueStreamMap graph = new ValueStreamMap(p, null);
+        int width = 500;
+        for (int i = 0; i < width; i++) {
+            CaseInsensitiveString upstream = new CaseInsensitiveString("U" + i);
+            graph.addUpstreamPipelineNode(new PipelineDependencyNode(upstream, upstream.toString()), null, p);
+            for (int material : new int[]{(i * 7) % width, (i * 13 + 5) % width}) {
+                String git = "g" + material;
+                graph.addUpstreamMaterialNode(new SCMDependencyNode(git, git, "git"), null, upstream, new MaterialRevision(null));
+            }
+        }
+
+        NodeLevelMap levelToNodesMap = nodeLevelMap(graph);
+        crossingMinimization.apply(levelToNodesMap);
+
+        for (int level : List.of(0, -1, -2)) {
+            List<Node> nodes = levelToNodesMap.get(level);
+            for (int i = 0; i < nodes.size(); i++) {
+                assertThat(nodes.get(i).getDepth()).isEqualTo(i + 1);
+            }
+        }
+        assertThat(levelToNodesMap.get(-1)).hasSize(width);
+    }
+
+    @Test
+    public void shouldWorkOutTheSameSlopesOfRemainingEdgesAsVisitingEachOfThem() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            List<Node> previousLevel = new ArrayList<>();
+            int previousLevelSize = 1 + random.nextInt(30);
+            for (int i = 0; i < previousLevelSize; i++) {
+                previousLevel.add(nodeAtDepth("previous-" + i, randomDepth(random)));
+            }
+            List<Node> level = new ArrayList<>();
+            int levelSize = 1 + random.nextInt(30);
+            for (int i = 0; i < levelSize; i++) {
+                Node node = nodeAtDepth("current-" + i, randomDepth(random));
+                for (int parent = random.nextInt(4); parent > 0; parent--) {
+                    node.addParentIfAbsent(previousLevel.get(random.nextInt(previousLevel.size())));
+                }
+                level.add(node);
+            }
+
+            CrossingMinimization.SlopeAccumulator remainingSlopes = new CrossingMinimization.SlopeAccumulator(level, Node::getParents);
+            for (int i = 0; i < level.size(); i++) {
+                List<Node> nodesRemaining = level.subList(i, level.size());
+                for (int offset : List.of(0, 1, -1, random.nextInt(60) - 30, Integer.MAX_VALUE - 1 - random.nextInt(30), Integer.MIN_VALUE + random.nextInt(30))) {
+                    assertThat(remainingSlopes.slope(offset)).isEqualTo(calculateSlope(offset, nodesRemaining));
+                }
+                remainingSlopes.remove(level.get(i));
+            }
+        }
+    }
+
+    // how the slope of the remaining edges was worked out before, by visiting every one of them
+    private static int calculateSlope(int depthOffset, List<Node> nodes) {
+        int totalSlope = 0;
+        for (Node node : nodes) {
+            for (Node relatedNode : node.getParents()) {
+                totalSlope += abs(node.getDepth() + depthOffset - relatedNode.getDepth());
+            }
+        }
+        return totalSlope;
+    }
+
+    // mostly small depths, with now and then one which has wrapped around past Integer.MAX_VALUE
+    private static int randomDepth(Random random) {
+        return random.nextInt(10) == 0 ? Integer.MIN_VALUE + random.nextInt(30) : 1 + random.nextInt(30);
+    }
+
+    private static Node nodeAtDepth(String name, int depth) {
+        Node node = new PipelineDependencyNode(new CaseInsensitiveString(name), name);
+        node.setDepth(depth);
+        return node;
+    }
+
     private NodeLevelMap nodeLevelMap(ValueStreamMap graph) {
         return new LevelAssignment().apply(graph);
     }
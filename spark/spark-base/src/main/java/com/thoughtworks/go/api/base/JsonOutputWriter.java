@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.api.base;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collection;
 import java.util.Date;
@@ -43,32 +45,70 @@ public class JsonOutputWriter {
             .enable(JsonGenerator.Feature.STRICT_DUPLICATE_DETECTION);
 
     protected final Writer writer;
+    private final OutputStream outputStream;
     private final RequestContext requestContext;
+    private final boolean compact;
     private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
 
     public JsonOutputWriter(Writer writer, RequestContext requestContext) {
+        this(writer, requestContext, false);
+    }
+
+    public JsonOutputWriter(Writer writer, RequestContext requestContext, boolean compact) {
         this.writer = writer;
+        this.outputStream = null;
         this.requestContext = requestContext;
+        this.compact = compact;
     }
 
-    public JsonOutputWriter forTopLevelObject(Consumer<OutputWriter> consumer) {
-        bufferWriterAndFlushWhenDone(writer, bufferedWriter -> {
-            try (JsonOutputWriterUsingJackson jacksonOutputWriter = new JsonOutputWriterUsingJackson(bufferedWriter, requestContext)) {
-                jacksonOutputWriter.forTopLevelObject(consumer);
-            }
-        });
+    /**
+     * Writes compact JSON as UTF-8 straight to the given stream, without going through a character writer.
+     */
+    public JsonOutputWriter(OutputStream outputStream, RequestContext requestContext) {
+        this.writer = null;
+        this.outputStream = outputStream;
+        this.requestContext = requestContext;
+        this.compact = true;
+    }
 
+    public JsonOutputWriter forTopLevelObject(Consumer<OutputWriter> consumer) {
+        writeAndFlushWhenDone(jacksonOutputWriter -> jacksonOutputWriter.forTopLevelObject(consumer));
         return this;
     }
 
     public JsonOutputWriter forTopLevelArray(Consumer<OutputListWriter> consumer) {
+        writeAndFlushWhenDone(jacksonOutputWriter -> jacksonOutputWriter.forTopLevelArray(consumer));
+        return this;
+    }
+
+    private void writeAndFlushWhenDone(Consumer<JsonOutputWriterUsingJackson> consumer) {
+        if (outputStream != null) {
+            try {
+                try (JsonOutputWriterUsingJackson jacksonOutputWriter = new JsonOutputWriterUsingJackson(JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8), requestContext, compact)) {
+                    consumer.accept(jacksonOutputWriter);
+                } finally {
+                    outputStream.flush();
+                }
+            } catch (Exception e) {
+                log.error("There was an error generating JSON", e);
+                throw new RuntimeException(e);
+            }
+            return;
+        }
+
         bufferWriterAndFlushWhenDone(writer, bufferedWriter -> {
-            try (JsonOutputWriterUsingJackson jacksonOutputWriter = new JsonOutputWriterUsingJackson(bufferedWriter, requestContext)) {
-                jacksonOutputWriter.forTopLevelArray(consumer);
+            try (JsonOutputWriterUsingJackson jacksonOutputWriter = new JsonOutputWriterUsingJackson(createGenerator(bufferedWriter), requestContext, compact)) {
+                consumer.accept(jacksonOutputWriter);
             }
         });
+    }
 
-        return this;
+    private static JsonGenerator createGenerator(Writer writer) {
+        try {
+            return JSON_FACTORY.createGenerator(writer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private void bufferWriterAndFlushWhenDone(Writer writer, Consumer<BufferedWriter> consumer) {
@@ -91,13 +131,11 @@ public class JsonOutputWriter {
         private final RequestContext requestContext;
         private final JsonGenerator jacksonWriter;
 
-        private JsonOutputWriterUsingJackson(Writer writer, RequestContext requestContext) {
+        private JsonOutputWriterUsingJackson(JsonGenerator jacksonWriter, RequestContext requestContext, boolean compact) {
             this.requestContext = requestContext;
-            try {
-                jacksonWriter = JSON_FACTORY.createGenerator(writer);
+            this.jacksonWriter = jacksonWriter;
+            if (!compact) {
                 jacksonWriter.useDefaultPrettyPrinter();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
             }
         }
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.spark.spring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.listener.EntityConfigChangedListener;
+import com.thoughtworks.go.listener.PluginRoleChangeListener;
+import com.thoughtworks.go.server.newsecurity.utils.SessionUtils;
+import com.thoughtworks.go.server.security.userdetail.GoUserPrincipal;
+import com.thoughtworks.go.server.service.GoConfigService;
+import com.thoughtworks.go.server.service.JobInstanceService;
+import com.thoughtworks.go.server.service.PluginRoleService;
+import com.thoughtworks.go.server.service.StageService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Understands answering repeated GET requests to a route from what the route answered before, without calling the
+ * route again. Enabled by setting {@code go.server.api.response.cache.size} to the number of responses to keep.
+ * <p>
+ * A response is kept per URL, query, {@code Accept} and compact JSON headers and user, and only until the config, the
+ * plugin roles of that user or, for routes cached with {@link #cachedUntilBuildsChange(Route)}, the state of any stage
+ * or job changes. Only the status {@code 200}, the content type, the {@code ETag} and the body of a response are kept,
+ * so routes which set other headers should not be cached. A request whose {@code If-None-Match} header matches the
+ * kept {@code ETag} is answered with a {@code 304}; other requests get the kept body, if the route returned one.
+ */
+@Component
+public class ResponseCache implements PluginRoleChangeListener {
+    /**
+     * Set on a request while a route runs through this cache, so that the route returns its body rather than write it
+     * to the response.
+     */
+    public static final String CAPTURE_BODY_ATTRIBUTE = ResponseCache.class.getName() + ".captureBody";
+
+    private final boolean enabled;
+    private final Cache<Key, CachedResponse> responses;
+    private final AtomicLong configChanges = new AtomicLong();
+    private final AtomicLong buildChanges = new AtomicLong();
+    // responses worked out while plugin roles of a user changed might be for the roles before the change
+    private final AtomicLong pluginRoleChanges = new AtomicLong();
+
+    @Autowired
+    public ResponseCache(GoConfigService goConfigService, StageService stageService, JobInstanceService jobInstanceService,
+                         PluginRoleService pluginRoleService, SystemEnvironment systemEnvironment) {
+        int cacheSize = systemEnvironment.get(SystemEnvironment.GO_SERVER_API_RESPONSE_CACHE_SIZE);
+        this.enabled = cacheSize > 0;
+        this.responses = Caffeine.newBuilder().maximumSize(Math.max(cacheSize, 0)).build();
+        if (!enabled) {
+            return;
+        }
+
+        goConfigService.register(new ConfigChangedListener() {
+            @Override
+            public void onConfigChange(CruiseConfig newCruiseConfig) {
+                configChanged();
+            }
+        });
+        goConfigService.register(new EntityConfigChangedListener<Object>() {
+            @Override
+            public void onEntityConfigChange(Object entity) {
+                configChanged();
+            }
+        });
+        stageService.addStageStatusListener(stage -> buildChanges.incrementAndGet());
+        jobInstanceService.registerJobStateChangeListener(job -> buildChanges.incrementAndGet());
+        pluginRoleService.register(this);
+    }
+
+    public static boolean isCapturingBody(Request request) {
+        return Boolean.TRUE.equals(request.attribute(CAPTURE_BODY_ATTRIBUTE));
+    }
+
+    /**
+     * Answers GET requests to the route from the cache until the config or the plugin roles of the user change.
+     */
+    public Route cached(Route route) {
+        return cached(route, false);
+    }
+
+    /**
+     * Answers GET requests to the route from the cache until the config, the plugin roles of the user, or the state of
+     * any stage or job change.
+     */
+    public Route cachedUntilBuildsChange(Route route) {
+        return cached(route, true);
+    }
+
+    @Override
+    public void onPluginRoleChange() {
+        pluginRoleChanges.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    @Override
+    public void onPluginRoleChangeFor(String username) {
+        pluginRoleChanges.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    private Route cached(Route route, boolean dependsOnBuilds) {
+        if (!enabled) {
+            return route;
+        }
+
+        return (request, response) -> {
+            if (!"GET".equals(request.requestMethod())) {
+                return route.handle(request, response);
+            }
+
+            long pluginRoleChangesBefore = pluginRoleChanges.get();
+            Key key = new Key(request.url(), request.queryString(), request.headers("Accept"), request.headers("X-GoCD-Compact-JSON"),
+                    currentUsername(), configChanges.get(), dependsOnBuilds ? buildChanges.get() : 0);
+
+            CachedResponse cachedResponse = responses.getIfPresent(key);
+            if (cachedResponse != null && (cachedResponse.body() != null || cachedResponse.isFresh(request))) {
+                return cachedResponse.replay(request, response);
+            }
+
+            Object body;
+            request.attribute(CAPTURE_BODY_ATTRIBUTE, true);
+            try {
+                body = route.handle(request, response);
+            } finally {
+                request.raw().removeAttribute(CAPTURE_BODY_ATTRIBUTE);
+            }
+
+            if (response.status() == 200 && pluginRoleChanges.get() == pluginRoleChangesBefore) {
+                String etag = response.raw().getHeader("ETag");
+                String capturedBody = body instanceof String s && !s.isEmpty() ? s : null;
+                if (etag != null || capturedBody != null) {
+                    responses.put(key, new CachedResponse(etag, response.raw().getContentType(), capturedBody));
+                }
+            }
+            return body;
+        };
+    }
+
+    private void configChanged() {
+        configChanges.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    private static String currentUsername() {
+        GoUserPrincipal user = SessionUtils.getCurrentUser();
+        return user == null ? "" : user.getUsername();
+    }
+
+    private record Key(String url, String query, String accept, String compactJson, String username, long configChanges, long buildChanges) {
+    }
+
+    private record CachedResponse(String etag, String contentType, String body) {
+        private boolean isFresh(Request request) {
+            String etagFromClient = request.headers("If-None-Match");
+            // the same workaround for how jetty's gzip handler modifies the etag as in ControllerMethods
+            return etag != null && etagFromClient != null && etag.equals('"' + etagFromClient.replaceAll("^\"(.*)\"$", "$1").replaceAll("(.*)(--(gzip|deflate))", "$1") + '"');
+        }
+
+        private Object replay(Request request, Response response) {
+            if (etag != null) {
+                response.header("ETag", etag);
+            }
+            if (isFresh(request)) {
+                response.status(304);
+                return "";
+            }
+            response.type(contentType);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright Thoughtworks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.spark.spring;
+
+import com.thoughtworks.go.listener.ConfigChangedListener;
+import com.thoughtworks.go.server.domain.StageStatusListener;
+import com.thoughtworks.go.server.service.GoConfigService;
+import com.thoughtworks.go.server.service.JobInstanceService;
+import com.thoughtworks.go.server.service.PluginRoleService;
+import com.thoughtworks.go.server.service.StageService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ResponseCacheTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Route route = (request, response) -> "{\"call\":" + calls.incrementAndGet() + "}";
+    private GoConfigService goConfigService;
+    private StageService stageService;
+    private SystemEnvironment systemEnvironment;
+    private Request request;
+    private Response response;
+    private HttpServletResponse rawResponse;
+
+    @BeforeEach
+    void setUp() {
+        goConfigService = mock(GoConfigService.class);
+        stageService = mock(StageService.class);
+        systemEnvironment = mock(SystemEnvironment.class);
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_API_RESPONSE_CACHE_SIZE)).thenReturn(100);
+
+        request = mock(Request.class);
+        when(request.requestMethod()).thenReturn("GET");
+        when(request.url()).thenReturn("https://go.example.com/go/api/admin/pipeline_groups");
+        when(request.raw()).thenReturn(mock(HttpServletRequest.class));
+        response = mock(Response.class);
+        rawResponse = mock(HttpServletResponse.class);
+        when(response.raw()).thenReturn(rawResponse);
+        when(response.status()).thenReturn(200);
+    }
+
+    @Test
+    void shouldCallTheRouteEveryTimeWhenCachingIsDisabled() throws Exception {
+        when(systemEnvironment.get(SystemEnvironment.GO_SERVER_API_RESPONSE_CACHE_SIZE)).thenReturn(0);
+
+        Route cached = responseCache().cached(route);
+
+        assertThat(cached).isSameAs(route);
+        verifyNoInteractions(goConfigService, stageService);
+    }
+
+    @Test
+    void shouldAnswerWithTheBodyOfTheRouteUntilTheConfigChanges() throws Exception {
+        ResponseCache responseCache = responseCache();
+        Route cached = responseCache.cached(route);
+
+        assertThat(cached.handle(request, response)).isEqualTo("{\"call\":1}");
+        assertThat(cached.handle(request, response)).isEqualTo("{\"call\":1}");
+
+        ArgumentCaptor<ConfigChangedListener> listeners = ArgumentCaptor.forClass(ConfigChangedListener.class);
+        verify(goConfigService, times(2)).register(listeners.capture());
+        listeners.getAllValues().get(0).onConfigChange(null);
+
+        assertThat(cached.handle(request, response)).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenTheClientHasTheCachedEtag() throws Exception {
+        Route streamingRoute = (req, res) -> {
+            calls.incrementAndGet();
+            return "";
+        };
+        when(rawResponse.getHeader("ETag")).thenReturn("\"etag\"");
+        Route cached = responseCache().cached(streamingRoute);
+
+        cached.handle(request, response);
+        when(request.headers("If-None-Match")).thenReturn("\"etag--gzip\"");
+        assertThat(cached.handle(request, response)).isEqualTo("");
+        verify(response).status(304);
+        assertThat(calls).hasValue(1);
+
+        when(request.headers("If-None-Match")).thenReturn(null);
+        cached.handle(request, response);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldKeepResponsesWhichDependOnBuildsOnlyUntilAStageChanges() throws Exception {
+        ResponseCache responseCache = responseCache();
+        Route cachedUntilBuildsChange = responseCache.cachedUntilBuildsChange(route);
+        AtomicInteger configCalls = new AtomicInteger();
+        Route cached = responseCache.cached((req, res) -> "{\"config\":" + configCalls.incrementAndGet() + "}");
+
+        cachedUntilBuildsChange.handle(request, response);
+        when(request.url()).thenReturn("https://go.example.com/go/api/admin/pipeline_groups/first");
+        cached.handle(request, response);
+
+        ArgumentCaptor<StageStatusListener> listener = ArgumentCaptor.forClass(StageStatusListener.class);
+        verify(stageService).addStageStatusListener(listener.capture());
+        listener.getValue().stageStatusChanged(null);
+
+        assertThat(cached.handle(request, response)).isEqualTo("{\"config\":1}");
+        when(request.url()).thenReturn("https://go.example.com/go/api/admin/pipeline_groups");
+        assertThat(cachedUntilBuildsChange.handle(request, response)).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    void shouldNotCacheResponsesOtherThanOk() throws Exception {
+        when(response.status()).thenReturn(404);
+        Route cached = responseCache().cached(route);
+
+        cached.handle(request, response);
+        cached.handle(request, response);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private ResponseCache responseCache() {
+        return new ResponseCache(goConfigService, stageService, mock(JobInstanceService.class), mock(PluginRoleService.class), systemEnvironment);
+    }
+}
@@ -20,6 +20,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.reflect.TypeToken;
 
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Map;
 
@@ -60,6 +61,10 @@ public class JsonHelper {
         return GSON_EXPOSE_ONLY.fromJson(jsonString, clazz);
     }
 
+    public static <T> T fromJsonExposeOnly(final Reader json, Class<T> clazz) {
+        return GSON_EXPOSE_ONLY.fromJson(json, clazz);
+    }
+
     public static <T> T fromJsonExposeOnly(final String jsonString, Type type) {
         return GSON_EXPOSE_ONLY.fromJson(jsonString, type);
     }